@@ -0,0 +1,175 @@
+package Benchmarks;
+
+import Main.AVLTree;
+import Main.BPlusTree;
+import Main.BaseOperations;
+import Main.ConcurrentAVLTree;
+import Main.ConcurrentSplayTree;
+import Main.HashTable;
+import Main.HashTable.CollisionBehavior;
+import Main.LockFreeSkipList;
+import Main.PersistentAVLTree;
+import Main.RoaringBitmap;
+import Main.SplayTree;
+import Main.ZipfianGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures a batch of n inserts, searches or deletes on every {@link BaseOperations} implementation.
+ *
+ * Each invocation of {@link #run(Blackhole)} applies the operation to all n keys of the chosen distribution,
+ * so the score is the time per batch; divide it by n for the time per operation. The structure each batch
+ * runs against is prepared outside the timed region: inserts start from an empty structure, deletes from one
+ * holding the keys 0 to n - 1, and searches share one such structure for the whole trial (so a splay tree
+ * keeps adapting to the lookups, as it would in use). Every result is passed to a {@link Blackhole} so the JIT
+ * cannot drop the work, and each configuration runs in forked JVMs so that code compiled for one structure
+ * does not pollute the profile of the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OperationBenchmark {
+
+    /**
+     * The data structures under test.
+     */
+    public enum Structure {
+        AVLTree(AVLTree::new),
+        SplayTree(SplayTree::new),
+        BPlusTree(BPlusTree::new),
+        PersistentAVLTree(PersistentAVLTree::new),
+        ConcurrentAVLTree(ConcurrentAVLTree::new),
+        ConcurrentSplayTree(ConcurrentSplayTree::new),
+        LockFreeSkipList(LockFreeSkipList::new),
+        RoaringBitmap(RoaringBitmap::new),
+        HashTableChaining(() -> new HashTable<Integer, Integer>(CollisionBehavior.Chaining, x -> x)),
+        HashTableQuadraticProbing(() -> new HashTable<Integer, Integer>(CollisionBehavior.QuadraticProbing, x -> x));
+
+        private final Supplier<BaseOperations<Integer>> factory;
+
+        Structure(Supplier<BaseOperations<Integer>> factory) {
+            this.factory = factory;
+        }
+
+        public BaseOperations<Integer> create() {
+            return factory.get();
+        }
+    }
+
+    /**
+     * The orders in which the keys in [0, n) are visited.
+     * <ul>
+     *     <li>Uniform: n independent uniform draws, so some keys repeat and others are missed.</li>
+     *     <li>Zipfian: n Zipfian draws (theta = 0.99), with the popular keys scattered over the range.</li>
+     *     <li>Sequential: every key in ascending order.</li>
+     *     <li>Reverse: every key in descending order.</li>
+     * </ul>
+     */
+    public enum Distribution {
+        Uniform, Zipfian, Sequential, Reverse
+    }
+
+    public enum Operation {
+        Insert, Search, Delete
+    }
+
+    @Param({"AVLTree", "SplayTree", "HashTableChaining", "HashTableQuadraticProbing"})
+    public Structure structure;
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"Uniform", "Zipfian", "Sequential"})
+    public Distribution distribution;
+
+    @Param({"Insert", "Search", "Delete"})
+    public Operation operation;
+
+    private Integer[] keys; // the keys the batch operates on, in the order of the distribution
+    private Integer[] population; // the keys 0 to n - 1 in a random order, for building populated structures
+    private BaseOperations<Integer> target;
+
+    @Setup(Level.Trial)
+    public void generateKeys() {
+        Random random = new Random(42);
+        population = new Integer[n];
+        for (int i = 0; i < n; i++) population[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = population[i];
+            population[i] = population[j];
+            population[j] = swap;
+        }
+
+        keys = new Integer[n];
+        switch (distribution) {
+            case Uniform:
+                for (int i = 0; i < n; i++) keys[i] = population[random.nextInt(n)];
+                break;
+            case Zipfian:
+                ZipfianGenerator zipfian = new ZipfianGenerator(n, 43);
+                for (int i = 0; i < n; i++) keys[i] = population[zipfian.nextInt()];
+                break;
+            case Sequential:
+                for (int i = 0; i < n; i++) keys[i] = i;
+                break;
+            case Reverse:
+                for (int i = 0; i < n; i++) keys[i] = n - 1 - i;
+                break;
+        }
+
+        if (operation == Operation.Search) target = populated();
+    }
+
+    /**
+     * Gives each insert or delete batch a structure in the same state. This runs before every invocation, which
+     * JMH times separately from the benchmark; a batch of at least a thousand operations keeps the cost of the
+     * timestamps around each invocation negligible.
+     */
+    @Setup(Level.Invocation)
+    public void prepareTarget() {
+        if (operation == Operation.Insert) target = structure.create();
+        else if (operation == Operation.Delete) target = populated();
+    }
+
+    private BaseOperations<Integer> populated() {
+        BaseOperations<Integer> populated = structure.create();
+        for (Integer key : population) populated.insert(key);
+        return populated;
+    }
+
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        BaseOperations<Integer> target = this.target;
+        switch (operation) {
+            case Insert:
+                for (Integer key : keys) blackhole.consume(target.insert(key));
+                break;
+            case Search:
+                for (Integer key : keys) blackhole.consume(target.search(key));
+                break;
+            case Delete:
+                for (Integer key : keys) blackhole.consume(target.delete(key));
+                break;
+        }
+    }
+}
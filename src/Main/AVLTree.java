@@ -1,6 +1,15 @@
 package Main;
 
-public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
+
+public class AVLTree<T extends Comparable<T>> implements BaseOperations<T>, Iterable<T> {
 
     /**
      * Represents a node in the AVL tree.
@@ -12,6 +21,12 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
         /** The height of the node in the AVL tree. */
         int height;
 
+        /** The number of nodes in the subtree rooted at this node (including itself). */
+        int size;
+
+        /** The sum of the weights of every element in the subtree rooted at this node. */
+        long aggregate;
+
         /** The left child of this node. */
         public AVLNode left;
 
@@ -26,12 +41,97 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
         public AVLNode(T data) {
             this.data = data;
             this.height = 1; // New nodes are initially leaf nodes
+            this.size = 1;
+            this.aggregate = (weigher == null) ? 0 : weigher.applyAsLong(data);
         }
     }
 
     /** The root node of the AVL tree. */
     private AVLNode root;
 
+    /** Set operations on subtrees with more elements than this fork their recursive halves as separate tasks. */
+    private static final int PARALLEL_CUTOFF = 4_096;
+
+    /** Counts structural modifications so that iterators can fail fast. */
+    private int modCount;
+
+    /** Maps an element to the weight summed by {@link #aggregateRange}, or null if aggregates are not kept. */
+    private final ToLongFunction<? super T> weigher;
+
+    /**
+     * Constructs an empty AVL tree that keeps subtree sizes but no subtree aggregates.
+     */
+    public AVLTree() {
+        this((ToLongFunction<? super T>) null);
+    }
+
+    /**
+     * Constructs an empty AVL tree that additionally keeps, in every node, the sum of the weights of its subtree.
+     * This is what allows {@link #aggregateRange} to answer in O(log n).
+     *
+     * @param weigher Maps an element to its weight, or null to keep no aggregates.
+     */
+    public AVLTree(ToLongFunction<? super T> weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree from an array of keys in O(n) if the keys are already sorted.
+     * Unsorted input is first sorted with {@link Arrays#parallelSort}. Duplicate keys are kept once.
+     * The given array is not modified.
+     *
+     * @param keys The keys to load.
+     */
+    public AVLTree(T[] keys) {
+        this(keys, null);
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree from an array of keys, keeping subtree aggregates.
+     *
+     * @param keys The keys to load.
+     * @param weigher Maps an element to its weight, or null to keep no aggregates.
+     * @see #AVLTree(Comparable[])
+     */
+    public AVLTree(T[] keys, ToLongFunction<? super T> weigher) {
+        this(weigher);
+        T[] sorted = keys.clone();
+        if (!isSorted(sorted)) Arrays.parallelSort(sorted);
+
+        // keep the first of every run of equal keys
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || sorted[unique - 1].compareTo(sorted[i]) != 0)
+                sorted[unique++] = sorted[i];
+        }
+        root = buildBalanced(sorted, 0, unique - 1);
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree in O(n) by streaming keys from an iterator, without buffering them.
+     *
+     * @param sortedKeys An iterator yielding at least count keys in strictly ascending order.
+     * @param count The number of keys to take from the iterator.
+     * @throws IllegalArgumentException If the keys are not strictly ascending or the iterator runs out early.
+     */
+    public AVLTree(Iterator<? extends T> sortedKeys, int count) {
+        this(sortedKeys, count, null);
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree from a sorted iterator, keeping subtree aggregates.
+     *
+     * @param sortedKeys An iterator yielding at least count keys in strictly ascending order.
+     * @param count The number of keys to take from the iterator.
+     * @param weigher Maps an element to its weight, or null to keep no aggregates.
+     * @throws IllegalArgumentException If the keys are not strictly ascending or the iterator runs out early.
+     * @see #AVLTree(Iterator, int)
+     */
+    public AVLTree(Iterator<? extends T> sortedKeys, int count, ToLongFunction<? super T> weigher) {
+        this(weigher);
+        root = new SortedLoader(sortedKeys).build(count);
+    }
+
     /**
      * Returns the height of a given node.
      *
@@ -42,6 +142,26 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
         return node == null ? 0 : node.height;
     }
 
+    /**
+     * Returns the number of nodes in the subtree rooted at a given node.
+     *
+     * @param node The root of the subtree.
+     * @return The size of the subtree, or 0 if the node is null.
+     */
+    private int size(AVLNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns the aggregate of the subtree rooted at a given node.
+     *
+     * @param node The root of the subtree.
+     * @return The sum of the weights in the subtree, or 0 if the node is null.
+     */
+    private long aggregate(AVLNode node) {
+        return node == null ? 0 : node.aggregate;
+    }
+
     /**
      * Calculates the balance factor of a node.
      *
@@ -53,12 +173,17 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
     }
 
     /**
-     * Updates the height of a given node based on its children's heights.
+     * Updates the height of a given node based on its children's heights, along with its subtree size and,
+     * if a weigher was supplied, its subtree aggregate.
+     * Every structural change goes through here, so the augmented fields stay correct across rotations.
      *
      * @param node The node whose height is to be updated.
      */
     private void updateHeight(AVLNode node) {
         node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+        if (weigher != null)
+            node.aggregate = weigher.applyAsLong(node.data) + aggregate(node.left) + aggregate(node.right);
     }
 
     /**
@@ -156,6 +281,304 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
         return balance(currentNode);
     }
 
+    /**
+     * Checks whether an array is in non-descending order.
+     *
+     * @param keys The array to check.
+     * @return True if every key is no greater than its successor.
+     */
+    private static <T extends Comparable<T>> boolean isSorted(T[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1].compareTo(keys[i]) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Recursively builds a perfectly balanced subtree from a sorted, duplicate-free slice of an array.
+     *
+     * @param keys The sorted keys.
+     * @param low The first index of the slice (inclusive).
+     * @param high The last index of the slice (inclusive).
+     * @return The root of the subtree, or null if the slice is empty.
+     */
+    private AVLNode buildBalanced(T[] keys, int low, int high) {
+        if (low > high) return null;
+        int mid = (low + high) >>> 1;
+        AVLNode node = new AVLNode(keys[mid]);
+        node.left = buildBalanced(keys, low, mid - 1);
+        node.right = buildBalanced(keys, mid + 1, high);
+        updateHeight(node);
+        return node;
+    }
+
+    /**
+     * Builds a perfectly balanced subtree by consuming a sorted iterator in order.
+     */
+    private class SortedLoader {
+        private final Iterator<? extends T> keys;
+        private T previous;
+
+        SortedLoader(Iterator<? extends T> keys) {
+            this.keys = keys;
+        }
+
+        /**
+         * Builds a subtree from the next count keys: the left half first, then the root, then the right half.
+         *
+         * @param count The number of keys in the subtree.
+         * @return The root of the subtree, or null if count is zero.
+         */
+        AVLNode build(int count) {
+            if (count <= 0) return null;
+            int leftCount = (count - 1) / 2;
+            AVLNode left = build(leftCount);
+
+            if (!keys.hasNext())
+                throw new IllegalArgumentException("Iterator ran out before the requested number of keys");
+            T key = keys.next();
+            if (previous != null && previous.compareTo(key) >= 0)
+                throw new IllegalArgumentException("Keys are not in strictly ascending order: " + previous + ", " + key);
+            previous = key;
+
+            AVLNode node = new AVLNode(key);
+            node.left = left;
+            node.right = build(count - 1 - leftCount);
+            updateHeight(node);
+            return node;
+        }
+    }
+
+    /**
+     * Joins two subtrees around a middle node, where every key in left is smaller than the middle node's key
+     * and every key in right is larger. Runs in O(|height(left) - height(right)| + 1).
+     *
+     * @param left The root of the smaller-keyed subtree (may be null).
+     * @param middle The node to join around; its previous children are discarded.
+     * @param right The root of the larger-keyed subtree (may be null).
+     * @return The root of the joined, balanced subtree.
+     */
+    private AVLNode joinNodes(AVLNode left, AVLNode middle, AVLNode right) {
+        if (height(left) > height(right) + 1) return joinRight(left, middle, right);
+        if (height(right) > height(left) + 1) return joinLeft(left, middle, right);
+
+        middle.left = left;
+        middle.right = right;
+        updateHeight(middle);
+        return middle;
+    }
+
+    /**
+     * Joins when the left subtree is taller: walks down its right spine until the heights match,
+     * attaches there, and rebalances on the way back up.
+     *
+     * @param left The root of the taller, smaller-keyed subtree.
+     * @param middle The node to join around.
+     * @param right The root of the shorter, larger-keyed subtree.
+     * @return The root of the joined, balanced subtree.
+     */
+    private AVLNode joinRight(AVLNode left, AVLNode middle, AVLNode right) {
+        if (height(left.right) <= height(right) + 1) {
+            middle.left = left.right;
+            middle.right = right;
+            updateHeight(middle);
+            left.right = middle;
+        } else {
+            left.right = joinRight(left.right, middle, right);
+        }
+        updateHeight(left);
+        return balance(left);
+    }
+
+    /**
+     * Joins when the right subtree is taller: walks down its left spine until the heights match,
+     * attaches there, and rebalances on the way back up.
+     *
+     * @param left The root of the shorter, smaller-keyed subtree.
+     * @param middle The node to join around.
+     * @param right The root of the taller, larger-keyed subtree.
+     * @return The root of the joined, balanced subtree.
+     */
+    private AVLNode joinLeft(AVLNode left, AVLNode middle, AVLNode right) {
+        if (height(right.left) <= height(left) + 1) {
+            middle.left = left;
+            middle.right = right.left;
+            updateHeight(middle);
+            right.left = middle;
+        } else {
+            right.left = joinLeft(left, middle, right.left);
+        }
+        updateHeight(right);
+        return balance(right);
+    }
+
+    /**
+     * Holds the three parts produced by splitting a subtree.
+     */
+    private class SplitNodes {
+        /** The root of the subtree of keys smaller than the split key. */
+        AVLNode left;
+
+        /** The node holding the split key, or null if there was none. It is detached from both subtrees. */
+        AVLNode match;
+
+        /** The root of the subtree of keys larger than the split key. */
+        AVLNode right;
+    }
+
+    /**
+     * Splits a subtree by a key in O(log n), reusing its nodes.
+     *
+     * @param node The root of the subtree to split.
+     * @param key The key to split by.
+     * @param parts Receives the smaller and larger subtrees and the matching node, if any.
+     */
+    private void splitNode(AVLNode node, T key, SplitNodes parts) {
+        if (node == null) {
+            parts.left = null;
+            parts.match = null;
+            parts.right = null;
+            return;
+        }
+
+        int compareResult = key.compareTo(node.data);
+        AVLNode left = node.left, right = node.right;
+        if (compareResult < 0) {
+            // everything right of this node is larger than the key, so it goes back on top of the larger part
+            splitNode(left, key, parts);
+            parts.right = joinNodes(parts.right, node, right);
+        } else if (compareResult > 0) {
+            splitNode(right, key, parts);
+            parts.left = joinNodes(left, node, parts.left);
+        } else {
+            parts.left = left;
+            parts.match = node;
+            parts.right = right;
+        }
+    }
+
+    /**
+     * Concatenates two subtrees, where every key in left is smaller than every key in right,
+     * by detaching the last node of left and joining around it. Runs in O(log n).
+     *
+     * @param left The root of the smaller-keyed subtree (may be null).
+     * @param right The root of the larger-keyed subtree (may be null).
+     * @return The root of the concatenated, balanced subtree.
+     */
+    private AVLNode concatenate(AVLNode left, AVLNode right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        SplitNodes parts = new SplitNodes();
+        splitLast(left, parts);
+        return joinNodes(parts.left, parts.match, right);
+    }
+
+    /**
+     * Detaches the last (largest) node of a subtree, rebalancing the rest with joins.
+     *
+     * @param node The root of a non-empty subtree.
+     * @param parts Receives the remaining subtree in left and the detached node in match.
+     */
+    private void splitLast(AVLNode node, SplitNodes parts) {
+        if (node.right == null) {
+            parts.left = node.left;
+            parts.match = node;
+            return;
+        }
+        AVLNode left = node.left;
+        splitLast(node.right, parts);
+        parts.left = joinNodes(left, node, parts.left);
+    }
+
+    /**
+     * The set operations that {@link SetOperationTask} can compute.
+     */
+    private enum SetOperation {
+        UNION, INTERSECTION, DIFFERENCE
+    }
+
+    /**
+     * Computes a join-based set operation on two subtrees (Blelloch, Ferizovic and Sun, "Just Join for Parallel
+     * Ordered Sets"). One subtree is split by the other's root, the operation recurses on the two matching halves,
+     * and the results are joined back around the root. Above {@link #PARALLEL_CUTOFF} elements the two halves run
+     * as separate fork/join tasks. Both subtrees are consumed, so they must not be shared with any other tree.
+     */
+    private class SetOperationTask extends RecursiveTask<AVLNode> {
+        private static final long serialVersionUID = 1L;
+
+        private final SetOperation operation;
+        private final AVLNode first;
+        private final AVLNode second;
+
+        SetOperationTask(SetOperation operation, AVLNode first, AVLNode second) {
+            this.operation = operation;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        protected AVLNode compute() {
+            return apply(operation, first, second);
+        }
+
+        /**
+         * Applies the operation to two subtrees, forking the recursive halves when the subtrees are large enough.
+         *
+         * @param operation The set operation.
+         * @param first The root of the first subtree.
+         * @param second The root of the second subtree.
+         * @return The root of the resulting subtree.
+         */
+        private AVLNode apply(SetOperation operation, AVLNode first, AVLNode second) {
+            switch (operation) {
+                case UNION:
+                    if (first == null) return second;
+                    if (second == null) return first;
+                    break;
+                case INTERSECTION:
+                    if (first == null || second == null) return null;
+                    break;
+                case DIFFERENCE:
+                default:
+                    if (first == null || second == null) return first;
+                    break;
+            }
+
+            boolean parallel = size(first) + size(second) > PARALLEL_CUTOFF;
+
+            // union and intersection split the second tree by the first's root; difference does the reverse,
+            // since the root of the subtracted tree must never end up in the result
+            boolean splitIsFirst = (operation == SetOperation.DIFFERENCE);
+            AVLNode pivot = splitIsFirst ? second : first;
+            AVLNode pivotLeft = pivot.left, pivotRight = pivot.right;
+            SplitNodes parts = new SplitNodes();
+            splitNode(splitIsFirst ? first : second, pivot.data, parts);
+
+            AVLNode lower, upper;
+            if (parallel) {
+                SetOperationTask lowerTask = splitIsFirst
+                        ? new SetOperationTask(operation, parts.left, pivotLeft)
+                        : new SetOperationTask(operation, pivotLeft, parts.left);
+                lowerTask.fork();
+                upper = splitIsFirst ? apply(operation, parts.right, pivotRight) : apply(operation, pivotRight, parts.right);
+                lower = lowerTask.join();
+            } else {
+                lower = splitIsFirst ? apply(operation, parts.left, pivotLeft) : apply(operation, pivotLeft, parts.left);
+                upper = splitIsFirst ? apply(operation, parts.right, pivotRight) : apply(operation, pivotRight, parts.right);
+            }
+
+            switch (operation) {
+                case UNION:
+                    return joinNodes(lower, pivot, upper);
+                case INTERSECTION:
+                    return (parts.match != null) ? joinNodes(lower, pivot, upper) : concatenate(lower, upper);
+                case DIFFERENCE:
+                default:
+                    return concatenate(lower, upper);
+            }
+        }
+    }
+
     /**
      * Retrieves the node with the minimum value in the subtree.
      *
@@ -269,6 +692,7 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
      */
     @Override
     public boolean insert(T element) {
+        modCount++;
         root = insertNode(root, element);
         return root != null;
     }
@@ -281,6 +705,7 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
      */
     @Override
     public T delete(T element) {
+        modCount++;
         root = deleteNode(root, element);
         return element;
     }
@@ -304,4 +729,514 @@ public class AVLTree<T extends Comparable<T>> implements BaseOperations<T> {
         inorderTraversal(root);
     }
 
+    /**
+     * The result of {@link #split}: the elements below the split key, the element equal to it, and those above it.
+     *
+     * @param <T> The type of elements in the trees.
+     */
+    public static final class Split<T extends Comparable<T>> {
+        /** A tree holding every element smaller than the split key. */
+        public final AVLTree<T> left;
+
+        /** The element equal to the split key, or null if the tree did not contain it. */
+        public final T match;
+
+        /** A tree holding every element larger than the split key. */
+        public final AVLTree<T> right;
+
+        private Split(AVLTree<T> left, T match, AVLTree<T> right) {
+            this.left = left;
+            this.match = match;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Splits the AVL tree by a key in O(log n) without reinserting any element.
+     * The nodes are moved into the resulting trees, so this tree is left empty.
+     *
+     * @param key The key to split by.
+     * @return The elements smaller than, equal to, and larger than the key.
+     */
+    public Split<T> split(T key) {
+        SplitNodes parts = new SplitNodes();
+        splitNode(root, key, parts);
+
+        AVLTree<T> left = new AVLTree<T>(weigher);
+        AVLTree<T> right = new AVLTree<T>(weigher);
+        left.root = parts.left;
+        right.root = parts.right;
+        clear();
+        return new Split<T>(left, (parts.match == null) ? null : parts.match.data, right);
+    }
+
+    /**
+     * Joins two AVL trees and a middle key into one tree in O(|height(left) - height(right)| + 1),
+     * without reinserting any element. The nodes are moved into the result, so both input trees are left empty.
+     *
+     * @param left A tree whose elements are all smaller than the key.
+     * @param key The middle key.
+     * @param right A tree whose elements are all larger than the key.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding the elements of both trees and the key.
+     * @throws IllegalArgumentException If the key does not separate the trees, or the trees keep different aggregates.
+     */
+    public static <T extends Comparable<T>> AVLTree<T> join(AVLTree<T> left, T key, AVLTree<T> right) {
+        if (left == right)
+            throw new IllegalArgumentException("Cannot join a tree with itself");
+        if (left.root != null && left.last().compareTo(key) >= 0)
+            throw new IllegalArgumentException("Every element of the left tree must be smaller than " + key);
+        if (right.root != null && right.first().compareTo(key) <= 0)
+            throw new IllegalArgumentException("Every element of the right tree must be larger than " + key);
+
+        AVLTree<T> result = new AVLTree<T>(joinedWeigher(left, right));
+        result.root = result.joinNodes(left.root, result.new AVLNode(key), right.root);
+        left.clear();
+        right.clear();
+        return result;
+    }
+
+    /**
+     * Computes the union of two AVL trees on the common fork/join pool.
+     *
+     * @param first The first tree.
+     * @param second The second tree.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element that is in either tree.
+     * @see #union(AVLTree, AVLTree, ForkJoinPool)
+     */
+    public static <T extends Comparable<T>> AVLTree<T> union(AVLTree<T> first, AVLTree<T> second) {
+        return union(first, second, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the union of two AVL trees in O(m log(n/m + 1)) work and polylogarithmic span,
+     * where m and n are the sizes of the smaller and larger tree. When an element is in both trees,
+     * the one from the first tree is kept. The nodes are moved into the result, so both input trees are left empty.
+     *
+     * @param first The first tree.
+     * @param second The second tree.
+     * @param pool The pool to run the recursive halves on.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element that is in either tree.
+     * @throws IllegalArgumentException If both arguments are the same tree, or the trees keep different aggregates.
+     */
+    public static <T extends Comparable<T>> AVLTree<T> union(AVLTree<T> first, AVLTree<T> second, ForkJoinPool pool) {
+        return setOperation(SetOperation.UNION, first, second, pool);
+    }
+
+    /**
+     * Computes the intersection of two AVL trees on the common fork/join pool.
+     *
+     * @param first The first tree.
+     * @param second The second tree.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element that is in both trees.
+     * @see #intersection(AVLTree, AVLTree, ForkJoinPool)
+     */
+    public static <T extends Comparable<T>> AVLTree<T> intersection(AVLTree<T> first, AVLTree<T> second) {
+        return intersection(first, second, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the intersection of two AVL trees in O(m log(n/m + 1)) work and polylogarithmic span.
+     * The elements kept are the ones from the first tree. Both input trees are left empty.
+     *
+     * @param first The first tree.
+     * @param second The second tree.
+     * @param pool The pool to run the recursive halves on.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element that is in both trees.
+     * @throws IllegalArgumentException If both arguments are the same tree, or the trees keep different aggregates.
+     */
+    public static <T extends Comparable<T>> AVLTree<T> intersection(AVLTree<T> first, AVLTree<T> second, ForkJoinPool pool) {
+        return setOperation(SetOperation.INTERSECTION, first, second, pool);
+    }
+
+    /**
+     * Computes the difference of two AVL trees on the common fork/join pool.
+     *
+     * @param first The tree to subtract from.
+     * @param second The tree whose elements are removed.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element of the first tree that is not in the second.
+     * @see #difference(AVLTree, AVLTree, ForkJoinPool)
+     */
+    public static <T extends Comparable<T>> AVLTree<T> difference(AVLTree<T> first, AVLTree<T> second) {
+        return difference(first, second, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the difference of two AVL trees in O(m log(n/m + 1)) work and polylogarithmic span.
+     * Both input trees are left empty.
+     *
+     * @param first The tree to subtract from.
+     * @param second The tree whose elements are removed.
+     * @param pool The pool to run the recursive halves on.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding every element of the first tree that is not in the second.
+     * @throws IllegalArgumentException If both arguments are the same tree, or the trees keep different aggregates.
+     */
+    public static <T extends Comparable<T>> AVLTree<T> difference(AVLTree<T> first, AVLTree<T> second, ForkJoinPool pool) {
+        return setOperation(SetOperation.DIFFERENCE, first, second, pool);
+    }
+
+    /**
+     * Runs a set operation on the given pool, moving the nodes of both trees into a new tree.
+     *
+     * @param operation The set operation.
+     * @param first The first tree.
+     * @param second The second tree.
+     * @param pool The pool to run on.
+     * @param <T> The type of elements in the trees.
+     * @return The resulting tree.
+     */
+    private static <T extends Comparable<T>> AVLTree<T> setOperation(SetOperation operation, AVLTree<T> first, AVLTree<T> second, ForkJoinPool pool) {
+        if (first == second)
+            throw new IllegalArgumentException("Both operands are the same tree");
+
+        AVLTree<T> result = new AVLTree<T>(joinedWeigher(first, second));
+        result.root = pool.invoke(result.new SetOperationTask(operation, first.root, second.root));
+        first.clear();
+        second.clear();
+        return result;
+    }
+
+    /**
+     * Picks the weigher for a tree that will hold the nodes of two others, whose aggregates must agree.
+     *
+     * @param left The first tree.
+     * @param right The second tree.
+     * @param <T> The type of elements in the trees.
+     * @return The weigher shared by the non-empty trees.
+     * @throws IllegalArgumentException If both trees are non-empty and use different weighers.
+     */
+    private static <T extends Comparable<T>> ToLongFunction<? super T> joinedWeigher(AVLTree<T> left, AVLTree<T> right) {
+        if (left.root == null) return right.weigher;
+        if (right.root == null || left.weigher == right.weigher) return left.weigher;
+        throw new IllegalArgumentException("Cannot combine trees that keep different aggregates");
+    }
+
+    /**
+     * Removes every element from the AVL tree.
+     */
+    public void clear() {
+        modCount++;
+        root = null;
+    }
+
+    /**
+     * Returns the number of elements in the AVL tree.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the k-th smallest element of the AVL tree in O(log n).
+     *
+     * @param k The zero-based rank of the element (0 returns the smallest element).
+     * @return The element with exactly k smaller elements in the tree.
+     * @throws IndexOutOfBoundsException If k is negative or not less than {@link #size()}.
+     */
+    public T select(int k) {
+        if (k < 0 || k >= size(root))
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds for size " + size(root));
+
+        AVLNode node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1; // skip the left subtree and this node
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements strictly smaller than the given key in O(log n).
+     * The key does not need to be in the tree.
+     *
+     * @param key The key to rank.
+     * @return The number of elements less than the key.
+     */
+    public int rank(T key) {
+        return countBelow(key, false);
+    }
+
+    /**
+     * Counts the elements within the closed range [low, high] in O(log n).
+     *
+     * @param low The lower bound (inclusive).
+     * @param high The upper bound (inclusive).
+     * @return The number of elements e with low <= e <= high, or 0 if low > high.
+     */
+    public int countRange(T low, T high) {
+        if (low.compareTo(high) > 0) return 0;
+        return countBelow(high, true) - countBelow(low, false);
+    }
+
+    /**
+     * Sums the weights of the elements within the closed range [low, high] in O(log n).
+     *
+     * @param low The lower bound (inclusive).
+     * @param high The upper bound (inclusive).
+     * @return The sum of the weights of every element e with low <= e <= high, or 0 if low > high.
+     * @throws IllegalStateException If the tree was constructed without a weigher.
+     */
+    public long aggregateRange(T low, T high) {
+        if (weigher == null)
+            throw new IllegalStateException("AVLTree was constructed without a weigher, so no aggregates are kept");
+        if (low.compareTo(high) > 0) return 0;
+        return aggregateBelow(high, true) - aggregateBelow(low, false);
+    }
+
+    /**
+     * Counts the elements smaller than (or, if inclusive, equal to) the given key with a single descent.
+     *
+     * @param key The bound to count up to.
+     * @param inclusive Whether an element equal to the key is counted.
+     * @return The number of elements below the bound.
+     */
+    private int countBelow(T key, boolean inclusive) {
+        int count = 0;
+        AVLNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult < 0 || (compareResult == 0 && !inclusive)) {
+                node = node.left;
+            } else {
+                // this node and its whole left subtree are below the bound
+                count += size(node.left) + 1;
+                if (compareResult == 0) break;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sums the weights of the elements smaller than (or, if inclusive, equal to) the given key with a single descent.
+     *
+     * @param key The bound to sum up to.
+     * @param inclusive Whether an element equal to the key is included.
+     * @return The sum of the weights below the bound.
+     */
+    private long aggregateBelow(T key, boolean inclusive) {
+        long sum = 0;
+        AVLNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult < 0 || (compareResult == 0 && !inclusive)) {
+                node = node.left;
+            } else {
+                // this node and its whole left subtree are below the bound
+                sum += aggregate(node.left) + weigher.applyAsLong(node.data);
+                if (compareResult == 0) break;
+                node = node.right;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest element in the AVL tree.
+     *
+     * @return The smallest element, or null if the tree is empty.
+     */
+    public T first() {
+        return (root == null) ? null : getMinChild(root).data;
+    }
+
+    /**
+     * Returns the largest element in the AVL tree.
+     *
+     * @return The largest element, or null if the tree is empty.
+     */
+    public T last() {
+        if (root == null) return null;
+        AVLNode current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current.data;
+    }
+
+    /**
+     * Returns the largest element less than or equal to the given key.
+     *
+     * @param key The key to compare against.
+     * @return The floor of the key, or null if there is none.
+     */
+    public T floor(T key) {
+        return below(key, true);
+    }
+
+    /**
+     * Returns the largest element strictly less than the given key.
+     *
+     * @param key The key to compare against.
+     * @return The predecessor of the key, or null if there is none.
+     */
+    public T lower(T key) {
+        return below(key, false);
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the given key.
+     *
+     * @param key The key to compare against.
+     * @return The ceiling of the key, or null if there is none.
+     */
+    public T ceiling(T key) {
+        return above(key, true);
+    }
+
+    /**
+     * Returns the smallest element strictly greater than the given key.
+     *
+     * @param key The key to compare against.
+     * @return The successor of the key, or null if there is none.
+     */
+    public T higher(T key) {
+        return above(key, false);
+    }
+
+    /**
+     * Finds the largest element below (or, if inclusive, equal to) the given key with a single descent.
+     *
+     * @param key The key to compare against.
+     * @param inclusive Whether an element equal to the key qualifies.
+     * @return The matching element, or null if there is none.
+     */
+    private T below(T key, boolean inclusive) {
+        T best = null;
+        AVLNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult > 0 || (compareResult == 0 && inclusive)) {
+                best = node.data; // candidate, but there may be a closer one on the right
+                if (compareResult == 0) break;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the smallest element above (or, if inclusive, equal to) the given key with a single descent.
+     *
+     * @param key The key to compare against.
+     * @param inclusive Whether an element equal to the key qualifies.
+     * @return The matching element, or null if there is none.
+     */
+    private T above(T key, boolean inclusive) {
+        T best = null;
+        AVLNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult < 0 || (compareResult == 0 && inclusive)) {
+                best = node.data; // candidate, but there may be a closer one on the left
+                if (compareResult == 0) break;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copies the elements into a read-only {@link EytzingerArray}, for searching an index that is no longer
+     * updated. The tree itself is unchanged.
+     *
+     * @return A frozen copy of the tree.
+     */
+    public EytzingerArray<T> freeze() {
+        return new EytzingerArray<T>(iterator(), size());
+    }
+
+    /**
+     * Returns a lazy iterator over every element of the AVL tree in ascending order.
+     *
+     * @return An in-order iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RangeIterator(null, null);
+    }
+
+    /**
+     * Returns a lazy iterator over the elements in the half-open range [from, to) in ascending order.
+     * Positioning costs O(log n) and each step is amortized O(1), so a scan of k elements costs O(log n + k).
+     * The tree must not be modified while the iterator is in use.
+     *
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound (exclusive), or null for no upper bound.
+     * @return An in-order iterator over the range.
+     */
+    public Iterator<T> iterator(T from, T to) {
+        return new RangeIterator(from, to);
+    }
+
+    /**
+     * An in-order iterator that keeps the path of pending ancestors on an explicit stack,
+     * so it never materializes the tree and does not allocate per element.
+     */
+    private class RangeIterator implements Iterator<T> {
+        /** Nodes whose element and right subtree have not been visited yet; the top is the next element. */
+        private final ArrayDeque<AVLNode> stack;
+
+        /** The exclusive upper bound, or null for none. */
+        private final T to;
+
+        /** The modification count the iterator was created at. */
+        private final int expectedModCount;
+
+        RangeIterator(T from, T to) {
+            // the path never holds more than one node per level
+            this.stack = new ArrayDeque<>(Math.max(height(root), 1));
+            this.to = to;
+            this.expectedModCount = modCount;
+
+            // descend towards the lower bound, remembering every node that is still to be visited
+            AVLNode node = root;
+            while (node != null) {
+                if (from == null || from.compareTo(node.data) <= 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return !stack.isEmpty() && (to == null || stack.peek().data.compareTo(to) < 0);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            AVLNode node = stack.pop();
+
+            // the successor is the leftmost node of the right subtree, or the next pending ancestor
+            AVLNode child = node.right;
+            while (child != null) {
+                stack.push(child);
+                child = child.left;
+            }
+            return node.data;
+        }
+    }
 }
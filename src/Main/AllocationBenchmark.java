@@ -0,0 +1,84 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reports how much garbage each insert, search and delete creates and what it costs in garbage collection, for
+ * every structure on the datasets of {@link Main}.
+ *
+ * Usage: AllocationBenchmark [max heap]. Given a heap size such as 64m, the benchmark runs again in a forked JVM
+ * with that -Xmx, to show how the structures behave when the collector is under pressure. A structure that runs out
+ * of heap gets -1 in every column.
+ */
+public class AllocationBenchmark {
+    public static final int WARMUP_ROUNDS = 3;
+    public static final int TRIALS = 5;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            System.exit(Benchmarker.runInForkedJvm(args[0], AllocationBenchmark.class));
+        }
+
+        Integer[][] datasets = Main.datasets();
+        // one structure at a time, so that under a small heap each is measured without the others alive
+        List<Supplier<BaseOperations<Integer>>> structures = Main.structures();
+
+        String[] phases = new String[] {"Insert", "Search", "Delete"};
+        String[] phasePlurals = new String[] {"Inserts", "Searches", "Deletes"};
+        DataTable[] bytesTables = new DataTable[phases.length];
+        DataTable[] gcTables = new DataTable[phases.length];
+        for (int p = 0; p < phases.length; p++) {
+            bytesTables[p] = new DataTable("Bytes Allocated per " + phases[p], Main.colHeaders, Main.rowHeaders);
+            gcTables[p] = new DataTable("GC Time per Million " + phasePlurals[p] + " (ms)", Main.colHeaders, Main.rowHeaders);
+        }
+
+        for (int s = 0; s < structures.size(); s++) {
+            AllocationProfile[][] profiles = measure(structures.get(s), Main.rowHeaders[s], datasets);
+            for (int p = 0; p < phases.length; p++) {
+                long[] bytesPerOperation = new long[datasets.length];
+                long[] gcMillis = new long[datasets.length];
+                for (int i = 0; i < datasets.length; i++) {
+                    bytesPerOperation[i] = profiles == null ? -1 : Math.round(profiles[p][i].bytesPerOperation());
+                    gcMillis[i] = profiles == null ? -1 : Math.round(profiles[p][i].gcMillisPerMillionOperations());
+                }
+                bytesTables[p].AddRow(bytesPerOperation);
+                gcTables[p].AddRow(gcMillis);
+            }
+        }
+
+        System.out.println("Max heap: " + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB\n");
+        for (int p = 0; p < phases.length; p++) {
+            bytesTables[p].print(Format.CSV);
+            System.out.println("\n");
+            gcTables[p].print(Format.CSV);
+            System.out.println("\n");
+        }
+    }
+
+    /**
+     * Measures the insert, search and delete phases, each round on a fresh instance.
+     *
+     * @param structure Makes the structure to measure.
+     * @param name The name of the structure.
+     * @param datasets The datasets to run each phase over.
+     * @return The profiles of each phase and dataset, or null if the structure ran out of heap.
+     */
+    private static AllocationProfile[][] measure(Supplier<BaseOperations<Integer>> structure, String name, Integer[][] datasets) {
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS);
+        try {
+            return new AllocationProfile[][] {
+                    benchmarker.benchmarkInsertAllocation(datasets),
+                    benchmarker.benchmarkSearchAllocation(datasets),
+                    benchmarker.benchmarkDeleteAllocation(datasets)
+            };
+        } catch (OutOfMemoryError e) {
+            // the instances are unreachable once this returns, so the remaining structures still get the whole heap
+            System.err.println(name + " ran out of heap; its rows show -1");
+            return null;
+        }
+    }
+}
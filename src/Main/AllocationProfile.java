@@ -0,0 +1,104 @@
+package Main;
+
+/**
+ * How much garbage a batch of operations created and how much garbage collection happened while it ran.
+ *
+ * The allocated bytes are those of the benchmarking thread only, as counted by the JVM's thread allocation
+ * counters, so they are exact and unaffected by other threads. The collection counts and times are those of every
+ * collector in the JVM, so they include any collection that happened to run during the batch, whoever caused it.
+ */
+public class AllocationProfile {
+    private final long operations;
+    private final long allocatedBytes;
+    private final long collections;
+    private final long collectionMillis;
+
+    /**
+     * Constructor for full customization.
+     *
+     * @param operations The number of operations performed.
+     * @param allocatedBytes The bytes the operations allocated.
+     * @param collections The number of garbage collections while they ran.
+     * @param collectionMillis The total time of those collections in milliseconds.
+     * @throws IllegalArgumentException If a value is negative.
+     */
+    public AllocationProfile(long operations, long allocatedBytes, long collections, long collectionMillis) {
+        if (operations < 0 || allocatedBytes < 0 || collections < 0 || collectionMillis < 0)
+            throw new IllegalArgumentException("Allocation counts cannot be negative");
+        this.operations = operations;
+        this.allocatedBytes = allocatedBytes;
+        this.collections = collections;
+        this.collectionMillis = collectionMillis;
+    }
+
+    /**
+     * Returns the number of operations performed.
+     *
+     * @return The number of operations.
+     */
+    public long operations() {
+        return operations;
+    }
+
+    /**
+     * Returns the bytes the operations allocated.
+     *
+     * @return The allocated bytes.
+     */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of garbage collections while the operations ran.
+     *
+     * @return The number of collections.
+     */
+    public long collections() {
+        return collections;
+    }
+
+    /**
+     * Returns the total time of the garbage collections while the operations ran.
+     *
+     * @return The collection time in milliseconds.
+     */
+    public long collectionMillis() {
+        return collectionMillis;
+    }
+
+    /**
+     * Returns the average bytes allocated by an operation.
+     *
+     * @return The bytes per operation, or 0 if there were no operations.
+     */
+    public double bytesPerOperation() {
+        return operations == 0 ? 0 : (double) allocatedBytes / operations;
+    }
+
+    /**
+     * Returns the garbage collection time per million operations, the cost of their garbage in pauses.
+     *
+     * @return The milliseconds of collection per million operations, or 0 if there were no operations.
+     */
+    public double gcMillisPerMillionOperations() {
+        return operations == 0 ? 0 : collectionMillis * 1_000_000.0 / operations;
+    }
+
+    /**
+     * Combines this profile with another of the same kind of operation.
+     *
+     * @param other The other profile.
+     * @return A profile with the sums of both.
+     */
+    public AllocationProfile plus(AllocationProfile other) {
+        return new AllocationProfile(operations + other.operations, allocatedBytes + other.allocatedBytes,
+                collections + other.collections, collectionMillis + other.collectionMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f bytes/op, %d collections, %.2f GC ms per million ops (n = %d)",
+                bytesPerOperation(), collections, gcMillisPerMillionOperations(), operations);
+    }
+}
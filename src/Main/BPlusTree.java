@@ -0,0 +1,512 @@
+package Main;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A B+ tree. Every node holds a sorted array of up to {@code order} keys, so a search touches one node, and
+ * typically a few cache lines, per level instead of one node per level of a binary tree. Within a node the
+ * search is a branch-free binary search: the loop always runs a fixed number of times for a given key count,
+ * and each step only selects the next offset. All elements live in the leaves, which are linked in key order
+ * for range scans.
+ *
+ * @param <T> The type of elements stored in the tree. Must be Comparable.
+ */
+public class BPlusTree<T extends Comparable<T>> implements BaseOperations<T>, Iterable<T> {
+
+    /** The default maximum number of keys per node: 32 compressed references fill two 64-byte cache lines. */
+    public static final int DEFAULT_ORDER = 32;
+
+    /**
+     * The state shared by leaves and internal nodes.
+     */
+    private static abstract class Node {
+        /** The sorted keys. One slot more than the order, so a node can overflow briefly before it is split. */
+        final Object[] keys;
+
+        /** The number of keys in use. */
+        int count;
+
+        Node(int order) {
+            keys = new Object[order + 1];
+        }
+    }
+
+    /**
+     * A leaf, holding the elements themselves.
+     */
+    private static final class Leaf extends Node {
+        /** The next leaf in key order, or null for the last leaf. */
+        Leaf next;
+
+        Leaf(int order) {
+            super(order);
+        }
+    }
+
+    /**
+     * An internal node. keys[i] separates children[i] from children[i + 1]: every key in children[i] is
+     * smaller than keys[i], and every key in children[i + 1] is greater than or equal to it.
+     */
+    private static final class Internal extends Node {
+        final Node[] children;
+
+        Internal(int order) {
+            super(order);
+            children = new Node[order + 2];
+        }
+    }
+
+    private final int order;        // the maximum number of keys per node
+    private final int minKeys;      // the minimum number of keys per node other than the root
+    private Node root;
+    private int size;
+    private int modCount;           // counts modifications so iterators can fail fast
+
+    /**
+     * Constructs an empty B+ tree with {@link #DEFAULT_ORDER} keys per node.
+     */
+    public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Constructs an empty B+ tree.
+     *
+     * @param order The maximum number of keys per node.
+     * @throws IllegalArgumentException If the order is less than 3.
+     */
+    public BPlusTree(int order) {
+        if (order < 3) throw new IllegalArgumentException("Order must be at least 3, but was " + order);
+        this.order = order;
+        this.minKeys = order / 2;
+        this.root = new Leaf(order);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> int compare(Object stored, T key) {
+        return ((T) stored).compareTo(key);
+    }
+
+    /**
+     * Finds the first position whose key is not less than the given key, with a branch-free binary search.
+     *
+     * @param node The node to search.
+     * @param key The key to look for.
+     * @return The index of the first key >= key, or node.count if there is none.
+     */
+    private static <T extends Comparable<T>> int lowerBound(Node node, T key) {
+        Object[] keys = node.keys;
+        int n = node.count;
+        if (n == 0) return 0;
+
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = (compare(keys[base + half - 1], key) < 0) ? base + half : base;
+            n -= half;
+        }
+        return base + ((compare(keys[base], key) < 0) ? 1 : 0);
+    }
+
+    /**
+     * Finds the child of an internal node that covers the given key, with a branch-free binary search.
+     *
+     * @param node The internal node to search.
+     * @param key The key to look for.
+     * @return The number of separators less than or equal to key, which is the index of the child to descend into.
+     */
+    private static <T extends Comparable<T>> int childIndex(Internal node, T key) {
+        Object[] keys = node.keys;
+        int n = node.count;
+        if (n == 0) return 0;
+
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = (compare(keys[base + half - 1], key) <= 0) ? base + half : base;
+            n -= half;
+        }
+        return base + ((compare(keys[base], key) <= 0) ? 1 : 0);
+    }
+
+    /**
+     * Descends to the leaf that would hold the given key.
+     *
+     * @param key The key to look for.
+     * @return The leaf covering the key.
+     */
+    private Leaf findLeaf(T key) {
+        Node node = root;
+        while (node instanceof Internal) {
+            Internal internal = (Internal) node;
+            node = internal.children[childIndex(internal, key)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Searches for the specified element.
+     *
+     * @param element The element to search for.
+     * @return The element if found, or null if not found.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T search(T element) {
+        Leaf leaf = findLeaf(element);
+        int index = lowerBound(leaf, element);
+        return (index < leaf.count && compare(leaf.keys[index], element) == 0) ? (T) leaf.keys[index] : null;
+    }
+
+    /**
+     * Inserts the specified element, splitting full nodes on the way back up.
+     *
+     * @param element The element to insert.
+     * @return True if the element was inserted, false if it was already present.
+     */
+    @Override
+    public boolean insert(T element) {
+        if (element == null) return false;
+        int sizeBefore = size;
+        Node sibling = insertInto(root, element);
+        if (sibling != null) {
+            // the root was split, so the tree grows by one level
+            Internal newRoot = new Internal(order);
+            newRoot.children[0] = root;
+            newRoot.children[1] = sibling;
+            newRoot.keys[0] = firstKey(sibling);
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        if (size == sizeBefore) return false;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Recursively inserts a key below a node.
+     *
+     * @param node The root of the subtree.
+     * @param key The key to insert.
+     * @return The new right sibling if the node had to be split, or null otherwise.
+     */
+    private Node insertInto(Node node, T key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = lowerBound(leaf, key);
+            if (index < leaf.count && compare(leaf.keys[index], key) == 0) return null; // no duplicates
+
+            insertAt(leaf.keys, leaf.count, index, key);
+            leaf.count++;
+            size++;
+            return (leaf.count > order) ? splitLeaf(leaf) : null;
+        }
+
+        Internal internal = (Internal) node;
+        int index = childIndex(internal, key);
+        Node sibling = insertInto(internal.children[index], key);
+        if (sibling == null) return null;
+
+        insertAt(internal.keys, internal.count, index, firstKey(sibling));
+        insertAt(internal.children, internal.count + 1, index + 1, sibling);
+        internal.count++;
+        return (internal.count > order) ? splitInternal(internal) : null;
+    }
+
+    /**
+     * Moves the upper half of an overfull leaf into a new leaf linked after it.
+     *
+     * @param leaf The overfull leaf.
+     * @return The new right sibling.
+     */
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf sibling = new Leaf(order);
+        int keep = leaf.count / 2;
+        sibling.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, sibling.keys, 0, sibling.count);
+        clear(leaf.keys, keep, leaf.count);
+        leaf.count = keep;
+
+        sibling.next = leaf.next;
+        leaf.next = sibling;
+        return sibling;
+    }
+
+    /**
+     * Moves the upper half of an overfull internal node into a new node. The middle separator is dropped,
+     * since it is the first key of the new node's subtree and the parent will hold it instead.
+     *
+     * @param node The overfull internal node.
+     * @return The new right sibling.
+     */
+    private Internal splitInternal(Internal node) {
+        Internal sibling = new Internal(order);
+        int middle = node.count / 2;
+        sibling.count = node.count - middle - 1;
+        System.arraycopy(node.keys, middle + 1, sibling.keys, 0, sibling.count);
+        System.arraycopy(node.children, middle + 1, sibling.children, 0, sibling.count + 1);
+        clear(node.keys, middle, node.count);
+        clear(node.children, middle + 1, node.count + 1);
+        node.count = middle;
+        return sibling;
+    }
+
+    /**
+     * Returns the smallest key in a subtree.
+     *
+     * @param node The root of a non-empty subtree.
+     * @return The key of its leftmost leaf entry.
+     */
+    private static Object firstKey(Node node) {
+        while (node instanceof Internal) {
+            node = ((Internal) node).children[0];
+        }
+        return node.keys[0];
+    }
+
+    /**
+     * Deletes the specified element, borrowing from or merging with siblings when a node becomes less than half full.
+     *
+     * @param element The element to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @Override
+    public T delete(T element) {
+        T deleted = deleteFrom(root, element);
+        if (deleted == null) return null;
+
+        // an internal root left with a single child is replaced by it, so the tree shrinks by one level
+        if (root instanceof Internal && root.count == 0) {
+            root = ((Internal) root).children[0];
+        }
+        modCount++;
+        return deleted;
+    }
+
+    /**
+     * Recursively deletes a key below a node, repairing any child that underflows.
+     *
+     * @param node The root of the subtree.
+     * @param key The key to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @SuppressWarnings("unchecked")
+    private T deleteFrom(Node node, T key) {
+        if (node instanceof Leaf) {
+            int index = lowerBound(node, key);
+            if (index >= node.count || compare(node.keys[index], key) != 0) return null;
+
+            T deleted = (T) node.keys[index];
+            removeAt(node.keys, node.count, index);
+            node.count--;
+            size--;
+            return deleted;
+        }
+
+        Internal internal = (Internal) node;
+        int index = childIndex(internal, key);
+        T deleted = deleteFrom(internal.children[index], key);
+        if (deleted != null && internal.children[index].count < minKeys) {
+            fixUnderflow(internal, index);
+        }
+        return deleted;
+    }
+
+    /**
+     * Refills a child that has fewer than the minimum number of keys, by borrowing a key from a sibling
+     * that can spare one or, failing that, by merging with a sibling.
+     *
+     * @param parent The parent of the underflowing child.
+     * @param index The index of the underflowing child.
+     */
+    private void fixUnderflow(Internal parent, int index) {
+        Node child = parent.children[index];
+        Node left = (index > 0) ? parent.children[index - 1] : null;
+        Node right = (index < parent.count) ? parent.children[index + 1] : null;
+
+        if (left != null && left.count > minKeys) {
+            borrowFromLeft(parent, index, left, child);
+        } else if (right != null && right.count > minKeys) {
+            borrowFromRight(parent, index, child, right);
+        } else if (left != null) {
+            merge(parent, index - 1, left, child);
+        } else {
+            merge(parent, index, child, right);
+        }
+    }
+
+    /**
+     * Moves the last entry of the left sibling into the front of the child.
+     */
+    private void borrowFromLeft(Internal parent, int index, Node left, Node child) {
+        if (child instanceof Leaf) {
+            insertAt(child.keys, child.count, 0, left.keys[left.count - 1]);
+            parent.keys[index - 1] = child.keys[0];
+        } else {
+            Internal internalChild = (Internal) child, internalLeft = (Internal) left;
+            // the separator comes down, and the left sibling's last key goes up to replace it
+            insertAt(child.keys, child.count, 0, parent.keys[index - 1]);
+            insertAt(internalChild.children, child.count + 1, 0, internalLeft.children[left.count]);
+            internalLeft.children[left.count] = null;
+            parent.keys[index - 1] = left.keys[left.count - 1];
+        }
+        child.count++;
+        left.keys[left.count - 1] = null;
+        left.count--;
+    }
+
+    /**
+     * Moves the first entry of the right sibling onto the end of the child.
+     */
+    private void borrowFromRight(Internal parent, int index, Node child, Node right) {
+        if (child instanceof Leaf) {
+            child.keys[child.count] = right.keys[0];
+            removeAt(right.keys, right.count, 0);
+            parent.keys[index] = right.keys[0];
+        } else {
+            Internal internalChild = (Internal) child, internalRight = (Internal) right;
+            // the separator comes down, and the right sibling's first key goes up to replace it
+            child.keys[child.count] = parent.keys[index];
+            internalChild.children[child.count + 1] = internalRight.children[0];
+            parent.keys[index] = right.keys[0];
+            removeAt(right.keys, right.count, 0);
+            removeAt(internalRight.children, right.count + 1, 0);
+        }
+        child.count++;
+        right.count--;
+    }
+
+    /**
+     * Merges a node with its right sibling and removes the separator between them from the parent.
+     *
+     * @param parent The parent of both nodes.
+     * @param separatorIndex The index of the separator between the two nodes.
+     * @param left The left node, which receives every entry.
+     * @param right The right node, which is discarded.
+     */
+    private void merge(Internal parent, int separatorIndex, Node left, Node right) {
+        if (left instanceof Leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            ((Leaf) left).next = ((Leaf) right).next;
+        } else {
+            // the separator comes down between the two halves
+            left.keys[left.count] = parent.keys[separatorIndex];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(((Internal) right).children, 0, ((Internal) left).children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+
+        removeAt(parent.keys, parent.count, separatorIndex);
+        removeAt(parent.children, parent.count + 1, separatorIndex + 1);
+        parent.count--;
+    }
+
+    /**
+     * Inserts a value into an array slot, shifting the following entries right.
+     */
+    private static void insertAt(Object[] array, int length, int index, Object value) {
+        System.arraycopy(array, index, array, index + 1, length - index);
+        array[index] = value;
+    }
+
+    /**
+     * Removes an array slot, shifting the following entries left and clearing the freed slot.
+     */
+    private static void removeAt(Object[] array, int length, int index) {
+        System.arraycopy(array, index + 1, array, index, length - index - 1);
+        array[length - 1] = null;
+    }
+
+    /**
+     * Clears a range of array slots so that removed entries can be garbage collected.
+     */
+    private static void clear(Object[] array, int from, int to) {
+        for (int i = from; i < to; i++) array[i] = null;
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prints the elements of the tree in ascending order by walking the linked leaves.
+     */
+    public void printTree() {
+        for (T element : this) {
+            System.out.print(element + " ");
+        }
+    }
+
+    /**
+     * Returns an iterator over every element of the tree in ascending order.
+     *
+     * @return An in-order iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Node node = root;
+        while (node instanceof Internal) {
+            node = ((Internal) node).children[0];
+        }
+        return new RangeIterator((Leaf) node, 0, null);
+    }
+
+    /**
+     * Returns an iterator over the elements in the half-open range [from, to) in ascending order.
+     * It descends once to the first leaf and then follows the leaf links, so a scan of k elements costs O(log n + k).
+     *
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound (exclusive), or null for no upper bound.
+     * @return An in-order iterator over the range.
+     */
+    public Iterator<T> iterator(T from, T to) {
+        if (from == null) {
+            RangeIterator all = (RangeIterator) iterator();
+            return new RangeIterator(all.leaf, 0, to);
+        }
+        Leaf leaf = findLeaf(from);
+        return new RangeIterator(leaf, lowerBound(leaf, from), to);
+    }
+
+    /**
+     * Walks the linked leaves from a starting position.
+     */
+    private class RangeIterator implements Iterator<T> {
+        private Leaf leaf;
+        private int index;
+        private final T to;
+        private final int expectedModCount = modCount;
+
+        RangeIterator(Leaf leaf, int index, T to) {
+            this.leaf = leaf;
+            this.index = index;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            // the starting position may be just past the end of a leaf
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            return leaf != null && (to == null || compare(leaf.keys[index], to) < 0);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return (T) leaf.keys[index++];
+        }
+    }
+}
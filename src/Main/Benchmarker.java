@@ -1,202 +1,785 @@
 package Main;
 
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
- * A benchmarking utility for measuring the time and memory usage
- * of operations implemented in a {@link BaseOperations} instance.
+ * A benchmarking utility for measuring the time and allocations of operations implemented in a
+ * {@link BaseOperations} instance, and the memory the instance retains.
+ *
+ * A Benchmarker built from a factory measures every round on a fresh instance, set up outside the timed region,
+ * so each trial sees a well-defined state and the results do not depend on the order the benchmarks ran in. A
+ * Benchmarker built from a single instance shares it between every round and undoes each round's changes instead.
  *
  * @param <T> The type of elements to be benchmarked.
  */
 public class Benchmarker<T> {
 
+    /**
+     * The kinds of threads a multi-threaded benchmark can run its workers on. Virtual threads need Java 21 or
+     * later; see {@link #virtualThreadsSupported()}.
+     */
+    public enum ThreadKind {
+        Platform, Virtual
+    }
+
+    /**
+     * The outcome of a multi-threaded benchmark.
+     */
+    public static final class ThroughputResult {
+        /** The wall-clock times of the trials in nanoseconds, with every operation of the workload per trial. */
+        public final Statistics time;
+        /** The latencies of the operations of each worker thread, over all trials. */
+        public final LatencyHistogram[] threadLatencies;
+
+        ThroughputResult(Statistics time, LatencyHistogram[] threadLatencies) {
+            this.time = time;
+            this.threadLatencies = threadLatencies;
+        }
+
+        /**
+         * Returns the aggregate throughput of all threads.
+         *
+         * @return The mean operations per second.
+         */
+        public double opsPerSecond() {
+            return time.opsPerSecond();
+        }
+
+        /**
+         * Returns the latencies of all threads together.
+         *
+         * @return A new histogram holding every latency.
+         */
+        public LatencyHistogram combinedLatencies() {
+            LatencyHistogram combined = new LatencyHistogram();
+            for (LatencyHistogram latencies : threadLatencies) combined.add(latencies);
+            return combined;
+        }
+    }
+
+    public static final int DEFAULT_WARMUP_ROUNDS = 5;
+    public static final int DEFAULT_TRIALS = 20;
+    // null on JVMs without the HotSpot extensions, which cannot count the bytes a thread allocates
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+
     private BaseOperations<T> benchmarkee;
+    private final Supplier<? extends BaseOperations<T>> factory; // null when every round shares the one benchmarkee
+    private final T[] prepopulation; // inserted into every fresh instance before a round, or null
+    private final int warmupRounds;
+    private final int trials;
 
     /**
-     * Constructs a new Benchmarker with the provided {@link BaseOperations} instance.
+     * Constructs a new Benchmarker with the provided {@link BaseOperations} instance, which times each dataset
+     * with 5 warm-up rounds and 20 measured trials.
      *
      * @param benchmarkee The object whose operations will be benchmarked.
      */
     public Benchmarker(BaseOperations<T> benchmarkee) {
+        this(benchmarkee, DEFAULT_WARMUP_ROUNDS, DEFAULT_TRIALS);
+    }
+
+    /**
+     * Constructs a new Benchmarker that measures every round on a fresh instance, with 5 warm-up rounds and 20
+     * measured trials for each dataset.
+     *
+     * @param factory Makes the empty instances whose operations will be benchmarked.
+     */
+    public Benchmarker(Supplier<? extends BaseOperations<T>> factory) {
+        this(factory, null, DEFAULT_WARMUP_ROUNDS, DEFAULT_TRIALS);
+    }
+
+    /**
+     * Constructs a new Benchmarker that measures every round on a fresh, empty instance.
+     *
+     * @param factory Makes the empty instances whose operations will be benchmarked.
+     * @param warmupRounds The number of untimed rounds run over each dataset first.
+     * @param trials The number of timed trials over each dataset.
+     * @throws IllegalArgumentException If warmupRounds is negative or trials is not positive.
+     */
+    public Benchmarker(Supplier<? extends BaseOperations<T>> factory, int warmupRounds, int trials) {
+        this(factory, null, warmupRounds, trials);
+    }
+
+    /**
+     * Constructor for full customization of a Benchmarker that measures every round on a fresh instance.
+     *
+     * Before each round, outside the timed region, a new instance is made and the prepopulation inserted into
+     * it, so every round starts from the same well-defined state whatever ran before. Searches and deletes
+     * additionally find the dataset inserted, so they measure hits on a structure of the prepopulation's size
+     * plus the dataset's; inserts add the dataset to a structure holding only the prepopulation.
+     *
+     * @param factory Makes the empty instances whose operations will be benchmarked.
+     * @param prepopulation The elements each instance holds before a round, or null for none.
+     * @param warmupRounds The number of untimed rounds run over each dataset first.
+     * @param trials The number of timed trials over each dataset.
+     * @throws IllegalArgumentException If warmupRounds is negative or trials is not positive.
+     */
+    public Benchmarker(Supplier<? extends BaseOperations<T>> factory, T[] prepopulation, int warmupRounds, int trials) {
+        this(factory.get(), factory, prepopulation, warmupRounds, trials);
+    }
+
+    /**
+     * Constructor for full customization.
+     *
+     * @param benchmarkee The object whose operations will be benchmarked.
+     * @param warmupRounds The number of untimed rounds run over each dataset first, so the JIT compiler reaches
+     *                     a steady state before anything is measured.
+     * @param trials The number of timed trials over each dataset.
+     * @throws IllegalArgumentException If warmupRounds is negative or trials is not positive.
+     */
+    public Benchmarker(BaseOperations<T> benchmarkee, int warmupRounds, int trials) {
+        this(benchmarkee, null, null, warmupRounds, trials);
+    }
+
+    private Benchmarker(BaseOperations<T> benchmarkee, Supplier<? extends BaseOperations<T>> factory, T[] prepopulation,
+                        int warmupRounds, int trials) {
+        if (warmupRounds < 0) throw new IllegalArgumentException("Warm-up rounds must not be negative: " + warmupRounds);
+        if (trials < 1) throw new IllegalArgumentException("At least one trial is required: " + trials);
         this.benchmarkee = benchmarkee;
+        this.factory = factory;
+        this.prepopulation = prepopulation;
+        this.warmupRounds = warmupRounds;
+        this.trials = trials;
     }
 
     /**
-     * Benchmarks the execution time of an operation over multiple datasets, averaging some number of trials for each dataset
+     * Benchmarks the execution time of an operation over multiple datasets.
      *
      * @param datasets The input datasets.
-     * @param numOfIterations Number of iterations to average results.
      * @param fn The operation to benchmark (insert, delete, or search).
-     * @return An array of average execution times in nanoseconds.
+     * @param undo Undoes the operation on an element, given whether the element was present beforehand, or
+     *             null if the operation does not change the contents.
+     * @param populated Whether a fresh instance should hold the dataset before each round.
+     * @return The statistics of the trial times in nanoseconds, one per dataset.
      */
-    private long[] benchmarkOperationTime(T[][] datasets, int numOfIterations, Consumer<T> fn) {
-        long[] times = new long[datasets.length];
+    private Statistics[] benchmarkOperationTime(T[][] datasets, Consumer<T> fn, BiConsumer<T, Boolean> undo, boolean populated) {
+        Statistics[] times = new Statistics[datasets.length];
         for (int i = 0; i < datasets.length; i++) {
-            times[i] = benchmarkOperationTime(datasets[i], numOfIterations, fn);
+            times[i] = benchmarkOperationTime(datasets[i], fn, undo, populated);
         }
         return times;
     }
 
     /**
-     * Benchmarks the execution time of an operation over a single dataset.
+     * Benchmarks the execution time of an operation over a single dataset, timing each trial as a whole.
      *
      * @param dataset The input dataset.
-     * @param numOfIterations Number of iterations to average results.
      * @param fn The operation to benchmark.
-     * @return The average execution time in nanoseconds.
+     * @param undo Undoes the operation on an element, given whether the element was present beforehand, or
+     *             null if the operation does not change the contents.
+     * @param populated Whether a fresh instance should hold the dataset before each round.
+     * @return The statistics of the trial times in nanoseconds.
      */
-    private long benchmarkOperationTime(T[] dataset, int numOfIterations, Consumer<T> fn) {
-        long sum = 0;
-        for (int i = 0; i < numOfIterations; i++) {
-            sum += benchmarkOperationTime(dataset, fn);
+    private Statistics benchmarkOperationTime(T[] dataset, Consumer<T> fn, BiConsumer<T, Boolean> undo, boolean populated) {
+        long[] samples = new long[trials];
+        runRounds(dataset, undo, populated, () -> benchmarkOperationTime(dataset, fn), trial -> samples[trial] = benchmarkOperationTime(dataset, fn));
+        return new Statistics(samples, dataset.length);
+    }
+
+    /**
+     * Benchmarks the latency of each operation over multiple datasets.
+     *
+     * @param datasets The input datasets.
+     * @param fn The operation to benchmark (insert, delete, or search).
+     * @param undo Undoes the operation on an element, given whether the element was present beforehand, or
+     *             null if the operation does not change the contents.
+     * @param populated Whether a fresh instance should hold the dataset before each round.
+     * @return The latencies of every operation in every trial, one histogram per dataset.
+     */
+    private LatencyHistogram[] benchmarkOperationLatency(T[][] datasets, Consumer<T> fn, BiConsumer<T, Boolean> undo, boolean populated) {
+        LatencyHistogram[] histograms = new LatencyHistogram[datasets.length];
+        for (int i = 0; i < datasets.length; i++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            T[] dataset = datasets[i];
+            runRounds(dataset, undo, populated, () -> benchmarkOperationTime(dataset, fn), trial -> recordLatencies(dataset, fn, histogram));
+            histograms[i] = histogram;
         }
-        return sum / numOfIterations;
+        return histograms;
     }
 
     /**
-     * Benchmarks the total execution time for a batch of operations on a dataset.
+     * Runs the warm-up rounds over a dataset, which are discarded, and then every trial. So that each round
+     * starts from the same contents, a Benchmarker with a factory sets up a fresh instance before each round
+     * (see {@link #setUpFreshInstance(Object[])}); otherwise the changes a round made are undone (outside anything
+     * measured) before the next one, and the last trial's changes are kept, so the benchmarkee ends up as if the
+     * operation had run once.
+     *
+     * @param dataset The input dataset.
+     * @param undo Undoes the operation on an element, given whether the element was present beforehand, or
+     *             null if the operation does not change the contents.
+     * @param populated Whether a fresh instance should hold the dataset before each round.
+     * @param warmupRound Runs the operation over the dataset without measuring it.
+     * @param trial Runs and measures the operation over the dataset, given the number of the trial.
+     */
+    private void runRounds(T[] dataset, BiConsumer<T, Boolean> undo, boolean populated, Runnable warmupRound, IntConsumer trial) {
+        if (factory != null) {
+            T[] population = populated ? dataset : null;
+            for (int i = 0; i < warmupRounds; i++) {
+                setUpFreshInstance(population);
+                warmupRound.run();
+            }
+            for (int i = 0; i < trials; i++) {
+                setUpFreshInstance(population);
+                trial.accept(i);
+            }
+            return;
+        }
+
+        // which elements were present beforehand, so that only the changes of a round are undone
+        boolean[] present = new boolean[dataset.length];
+        if (undo != null) {
+            for (int i = 0; i < dataset.length; i++) present[i] = benchmarkee.search(dataset[i]) != null;
+        }
+
+        for (int i = 0; i < warmupRounds; i++) {
+            warmupRound.run();
+            restore(dataset, present, undo);
+        }
+
+        for (int i = 0; i < trials; i++) {
+            trial.accept(i);
+            if (i < trials - 1) restore(dataset, present, undo);
+        }
+    }
+
+    /**
+     * Replaces the benchmarkee with a new instance from the factory and inserts the prepopulation into it, and
+     * then the given elements.
+     *
+     * @param elements The elements to insert after the prepopulation, or null for none.
+     */
+    private void setUpFreshInstance(T[] elements) {
+        benchmarkee = factory.get();
+        if (prepopulation != null) {
+            for (T element : prepopulation) benchmarkee.insert(element);
+        }
+        if (elements != null) {
+            for (T element : elements) benchmarkee.insert(element);
+        }
+    }
+
+    /**
+     * Times every operation of a batch on its own. Each measurement includes the cost of one System.nanoTime
+     * call, typically a few tens of nanoseconds, which is the floor of the histogram.
      *
      * @param dataset The input dataset.
      * @param fn The operation to benchmark.
-     * @return The total execution time in nanoseconds.
+     * @param histogram Where to record the latencies.
      */
-    private long benchmarkOperationTime(T[] dataset, Consumer<T> fn) {
-        long startTime = System.nanoTime();
+    private void recordLatencies(T[] dataset, Consumer<T> fn, LatencyHistogram histogram) {
         for (T value : dataset) {
+            long startTime = System.nanoTime();
             fn.accept(value);
+            histogram.record(System.nanoTime() - startTime);
         }
-        long endTime = System.nanoTime();
-        return endTime - startTime;
     }
 
     /**
-     * Benchmarks memory usage of an operation across multiple datasets, averaging some number of trials for each dataset
+     * Measures the allocations and garbage collections of an operation over multiple datasets.
      *
      * @param datasets The input datasets.
-     * @param numberOfIterationsPerDataset Number of iterations to average memory usage.
-     * @param fn The operation to benchmark.
-     * @return An array of average memory usage in bytes.
+     * @param fn The operation to benchmark (insert, delete, or search).
+     * @param undo Undoes the operation on an element, given whether the element was present beforehand, or
+     *             null if the operation does not change the contents.
+     * @param populated Whether a fresh instance should hold the dataset before each round.
+     * @return The allocations and collections of every trial together, one profile per dataset.
+     * @throws UnsupportedOperationException If the JVM does not count the bytes each thread allocates.
      */
-    private long[] benchmarkOperationMemory(T[][] datasets, int numberOfIterationsPerDataset, Consumer<T> fn) {
-        long[] memoryUsages = new long[datasets.length];
+    private AllocationProfile[] benchmarkOperationAllocation(T[][] datasets, Consumer<T> fn, BiConsumer<T, Boolean> undo, boolean populated) {
+        if (THREAD_BEAN == null || !THREAD_BEAN.isThreadAllocatedMemorySupported())
+            throw new UnsupportedOperationException("This JVM does not count the bytes each thread allocates");
+        THREAD_BEAN.setThreadAllocatedMemoryEnabled(true);
+
+        AllocationProfile[] profiles = new AllocationProfile[datasets.length];
         for (int i = 0; i < datasets.length; i++) {
-            memoryUsages[i] = benchmarkOperationMemory(datasets[i], numberOfIterationsPerDataset, fn);
+            T[] dataset = datasets[i];
+            AllocationProfile[] total = new AllocationProfile[] {new AllocationProfile(0, 0, 0, 0)};
+            runRounds(dataset, undo, populated, () -> benchmarkOperationTime(dataset, fn),
+                    trial -> total[0] = total[0].plus(measureAllocation(dataset, fn)));
+            profiles[i] = total[0];
         }
-        return memoryUsages;
+        return profiles;
     }
 
     /**
-     * Benchmarks memory usage for a single dataset.
+     * Runs an operation over a dataset, counting the bytes this thread allocates and the garbage collections
+     * that run meanwhile.
      *
-     * @param datasets The dataset to operate on.
-     * @param numberOfIterations Number of iterations to average results.
+     * @param dataset The input dataset.
      * @param fn The operation to benchmark.
-     * @return The average memory usage in bytes.
+     * @return The allocations and collections of the batch.
+     */
+    private AllocationProfile measureAllocation(T[] dataset, Consumer<T> fn) {
+        long startCollections = collectionCount();
+        long startCollectionMillis = collectionMillis();
+        long startBytes = THREAD_BEAN.getCurrentThreadAllocatedBytes();
+
+        for (T value : dataset) {
+            fn.accept(value);
+        }
+
+        long allocatedBytes = THREAD_BEAN.getCurrentThreadAllocatedBytes() - startBytes;
+        return new AllocationProfile(dataset.length, allocatedBytes, collectionCount() - startCollections,
+                collectionMillis() - startCollectionMillis);
+    }
+
+    /**
+     * Returns the number of garbage collections so far, summed over every collector.
      */
-    private long benchmarkOperationMemory(T[] datasets, int numberOfIterations, Consumer<T> fn) {
-        long sum = 0;
-        for (int i = 0; i < numberOfIterations; i++) {
-            sum += benchmarkOperationMemory(datasets, fn);
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount()); // -1 if the collector does not count
         }
-        return sum / numberOfIterations;
+        return count;
     }
 
     /**
-     * Invokes the garbage collector and allows a brief pause for memory cleanup.
+     * Returns the total time of the garbage collections so far in milliseconds, summed over every collector.
      */
-    private void garbageCollect() {
-        System.gc();
-        try {
-            //for some reason this requires a try catch even though the sleep amount is a literal
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            // Safe to ignore in this context
+    private static long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
         }
+        return millis;
     }
 
     /**
-     * Benchmarks memory usage for a single operation execution over a dataset.
+     * Undoes a round of an operation, element by element.
      *
-     * @param dataset The dataset to benchmark.
-     * @param fn The operation to apply.
-     * @return The difference in memory usage in bytes.
+     * @param dataset The dataset the round ran over.
+     * @param present Which elements of the dataset were present before the round.
+     * @param undo Undoes the operation on an element, given whether the element was present before the round,
+     *             or null if there is nothing to undo.
      */
-    private long benchmarkOperationMemory(T[] dataset, Consumer<T> fn) {
-        garbageCollect();
-        Runtime runtime = Runtime.getRuntime();
-        long startMemory = runtime.totalMemory() - runtime.freeMemory();
+    private void restore(T[] dataset, boolean[] present, BiConsumer<T, Boolean> undo) {
+        if (undo == null) return;
+        for (int i = 0; i < dataset.length; i++) {
+            undo.accept(dataset[i], present[i]);
+        }
+    }
 
+    /**
+     * Benchmarks the total execution time for a batch of operations on a dataset.
+     *
+     * @param dataset The input dataset.
+     * @param fn The operation to benchmark.
+     * @return The total execution time in nanoseconds.
+     */
+    private long benchmarkOperationTime(T[] dataset, Consumer<T> fn) {
+        long startTime = System.nanoTime();
         for (T value : dataset) {
             fn.accept(value);
         }
+        long endTime = System.nanoTime();
+        return endTime - startTime;
+    }
 
-        long endMemory = runtime.totalMemory() - runtime.freeMemory();
-        return endMemory - startMemory;
+    /**
+     * Benchmarks the time it takes to perform insert operations on multiple datasets, with warm-up rounds and
+     * repeated trials for each dataset. Each trial starts from the contents the benchmarkee had beforehand.
+     *
+     * @param datasets A 2D array where each inner array is a dataset to be inserted.
+     * @return The statistics of the insertion times in nanoseconds, one per dataset.
+     */
+    public Statistics[] benchmarkInsertTime(T[][] datasets) {
+        return benchmarkOperationTime(datasets, (T t) -> benchmarkee.insert(t), (T t, Boolean wasPresent) -> {
+            if (!wasPresent) benchmarkee.delete(t);
+        }, false);
+    }
+
+    /**
+     * Benchmarks the time it takes to perform delete operations on multiple datasets, with warm-up rounds and
+     * repeated trials for each dataset. Each trial starts from the contents the benchmarkee had beforehand.
+     *
+     * @param datasets A 2D array where each inner array is a dataset of elements to be deleted.
+     * @return The statistics of the deletion times in nanoseconds, one per dataset.
+     */
+    public Statistics[] benchmarkDeleteTime(T[][] datasets) {
+        return benchmarkOperationTime(datasets, (T t) -> benchmarkee.delete(t), (T t, Boolean wasPresent) -> {
+            if (wasPresent) benchmarkee.insert(t);
+        }, true);
+    }
+
+    /**
+     * Benchmarks the time it takes to search for elements in multiple datasets, with warm-up rounds and
+     * repeated trials for each dataset.
+     *
+     * @param datasets A 2D array where each inner array is a dataset of elements to search for.
+     * @return The statistics of the search times in nanoseconds, one per dataset.
+     */
+    public Statistics[] benchmarkSearchTime(T[][] datasets) {
+        return benchmarkOperationTime(datasets, (T t) -> benchmarkee.search(t), null, true);
     }
 
     /**
-     * Benchmarks the time it takes to perform insert operations on multiple datasets, averaging some number of trials for each dataset
+     * Records the latency of every insert operation on multiple datasets, over all trials. Each trial starts
+     * from the contents the benchmarkee had beforehand.
      *
      * @param datasets A 2D array where each inner array is a dataset to be inserted.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average insertion times in nanoseconds, one per dataset.
+     * @return The insertion latencies in nanoseconds, one histogram per dataset.
      */
-    public long[] benchmarkInsertTime(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationTime(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.insert(t));
+    public LatencyHistogram[] benchmarkInsertLatency(T[][] datasets) {
+        return benchmarkOperationLatency(datasets, (T t) -> benchmarkee.insert(t), (T t, Boolean wasPresent) -> {
+            if (!wasPresent) benchmarkee.delete(t);
+        }, false);
     }
 
     /**
-     * Benchmarks the time it takes to perform delete operations on multiple datasets, averaging some number of trials for each dataset
+     * Records the latency of every delete operation on multiple datasets, over all trials. Each trial starts
+     * from the contents the benchmarkee had beforehand.
      *
      * @param datasets A 2D array where each inner array is a dataset of elements to be deleted.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average deletion times in nanoseconds, one per dataset.
+     * @return The deletion latencies in nanoseconds, one histogram per dataset.
+     */
+    public LatencyHistogram[] benchmarkDeleteLatency(T[][] datasets) {
+        return benchmarkOperationLatency(datasets, (T t) -> benchmarkee.delete(t), (T t, Boolean wasPresent) -> {
+            if (wasPresent) benchmarkee.insert(t);
+        }, true);
+    }
+
+    /**
+     * Records the latency of every search operation on multiple datasets, over all trials.
+     *
+     * @param datasets A 2D array where each inner array is a dataset of elements to search for.
+     * @return The search latencies in nanoseconds, one histogram per dataset.
+     */
+    public LatencyHistogram[] benchmarkSearchLatency(T[][] datasets) {
+        return benchmarkOperationLatency(datasets, (T t) -> benchmarkee.search(t), null, true);
+    }
+
+    /**
+     * Measures the bytes allocated and the garbage collections of insert operations on multiple datasets, with
+     * warm-up rounds first so the JIT compiler has removed any allocations it can, as in
+     * {@link #benchmarkInsertTime(Object[][])}.
+     *
+     * @param datasets A 2D array where each inner array is a dataset to be inserted.
+     * @return The allocations and collections of every trial together, one profile per dataset.
+     * @throws UnsupportedOperationException If the JVM does not count the bytes each thread allocates.
+     */
+    public AllocationProfile[] benchmarkInsertAllocation(T[][] datasets) {
+        return benchmarkOperationAllocation(datasets, (T t) -> benchmarkee.insert(t), (T t, Boolean wasPresent) -> {
+            if (!wasPresent) benchmarkee.delete(t);
+        }, false);
+    }
+
+    /**
+     * Measures the bytes allocated and the garbage collections of delete operations on multiple datasets.
+     *
+     * @param datasets A 2D array where each inner array is a dataset of elements to delete.
+     * @return The allocations and collections of every trial together, one profile per dataset.
+     * @throws UnsupportedOperationException If the JVM does not count the bytes each thread allocates.
      */
-    public long[] benchmarkDeleteTime(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationTime(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.delete(t));
+    public AllocationProfile[] benchmarkDeleteAllocation(T[][] datasets) {
+        return benchmarkOperationAllocation(datasets, (T t) -> benchmarkee.delete(t), (T t, Boolean wasPresent) -> {
+            if (wasPresent) benchmarkee.insert(t);
+        }, true);
     }
 
     /**
-     * Benchmarks the time it takes to search for elements in multiple datasets, averaging some number of trials for each dataset
+     * Measures the bytes allocated and the garbage collections of search operations on multiple datasets.
      *
      * @param datasets A 2D array where each inner array is a dataset of elements to search for.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average search times in nanoseconds, one per dataset.
+     * @return The allocations and collections of every trial together, one profile per dataset.
+     * @throws UnsupportedOperationException If the JVM does not count the bytes each thread allocates.
+     */
+    public AllocationProfile[] benchmarkSearchAllocation(T[][] datasets) {
+        return benchmarkOperationAllocation(datasets, (T t) -> benchmarkee.search(t), null, true);
+    }
+
+    /**
+     * Benchmarks the time it takes to replay the run phase of a workload, with warm-up rounds and repeated
+     * trials. Before each round the workload's load phase runs, and afterwards its keys are deleted again, both
+     * outside the timed region; the benchmarkee should hold none of the workload's keys beforehand.
+     *
+     * @param workload The workload to replay.
+     * @return The statistics of the replay times in nanoseconds, with one operation per workload operation.
+     */
+    public Statistics benchmarkWorkloadTime(Workload<? extends T> workload) {
+        long[] samples = new long[trials];
+        runWorkloadRounds(workload, trial -> {
+            long startTime = System.nanoTime();
+            workload.replay(benchmarkee);
+            samples[trial] = System.nanoTime() - startTime;
+        });
+        return new Statistics(samples, workload.size());
+    }
+
+    /**
+     * Records the latency of every operation of a workload's run phase, over all trials, in one histogram per
+     * kind of operation. The rounds run as in {@link #benchmarkWorkloadTime(Workload)}.
+     *
+     * @param workload The workload to replay.
+     * @return The latencies in nanoseconds, indexed by the ordinal of {@link Workload.Operation}.
+     */
+    public LatencyHistogram[] benchmarkWorkloadLatency(Workload<? extends T> workload) {
+        LatencyHistogram[] histograms = new LatencyHistogram[Workload.Operation.values().length];
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+        runWorkloadRounds(workload, trial -> {
+            for (int i = 0; i < workload.size(); i++) {
+                long startTime = System.nanoTime();
+                workload.apply(i, benchmarkee);
+                histograms[workload.operation(i).ordinal()].record(System.nanoTime() - startTime);
+            }
+        });
+        return histograms;
+    }
+
+    /**
+     * Runs the warm-up rounds of a workload, which are discarded, and then every trial, each between the
+     * workload's load phase and the deletion of its keys.
+     *
+     * @param workload The workload to replay.
+     * @param trial Replays and measures the run phase, given the number of the trial.
+     */
+    private void runWorkloadRounds(Workload<? extends T> workload, IntConsumer trial) {
+        for (int i = 0; i < warmupRounds; i++) {
+            loadWorkload(workload);
+            workload.replay(benchmarkee);
+            unloadWorkload(workload);
+        }
+
+        for (int i = 0; i < trials; i++) {
+            loadWorkload(workload);
+            trial.accept(i);
+            unloadWorkload(workload);
+        }
+    }
+
+    /**
+     * Runs the load phase of a workload, on a fresh instance if the Benchmarker has a factory.
+     *
+     * @param workload The workload to load.
+     */
+    private void loadWorkload(Workload<? extends T> workload) {
+        if (factory != null) setUpFreshInstance(null);
+        workload.load(benchmarkee);
+    }
+
+    /**
+     * Deletes a workload's keys again, unless the next round starts on a fresh instance anyway.
+     *
+     * @param workload The workload to unload.
+     */
+    private void unloadWorkload(Workload<? extends T> workload) {
+        if (factory == null) workload.unload(benchmarkee);
+    }
+
+    /**
+     * Replays a workload from several threads at once and measures the aggregate throughput and the latencies
+     * of each thread. The run phase is dealt out round-robin, so thread t applies operations t, t + threadCount,
+     * and so on. The threads are started and wait at a latch before the clock starts, so thread creation is not
+     * timed. The rounds run as in {@link #benchmarkWorkloadTime(Workload)}.
+     *
+     * The benchmarkee must be thread-safe; wrap any other data structure in a {@link LockedOperations}.
+     *
+     * @param workload The workload to replay.
+     * @param threadCount The number of worker threads.
+     * @param threadKind Whether to run the workers on platform or virtual threads.
+     * @return The trial times and the latencies of each thread.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     * @throws UnsupportedOperationException If virtual threads are requested but not supported by this JVM.
+     */
+    public ThroughputResult benchmarkThroughput(Workload<? extends T> workload, int threadCount, ThreadKind threadKind) throws InterruptedException {
+        if (threadCount < 1) throw new IllegalArgumentException("At least one thread is required: " + threadCount);
+        if (threadKind == ThreadKind.Virtual && !virtualThreadsSupported())
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later");
+        LatencyHistogram[] threadLatencies = new LatencyHistogram[threadCount];
+        for (int i = 0; i < threadCount; i++) threadLatencies[i] = new LatencyHistogram();
+        LatencyHistogram[] discarded = new LatencyHistogram[threadCount];
+        for (int i = 0; i < threadCount; i++) discarded[i] = new LatencyHistogram();
+
+        for (int i = 0; i < warmupRounds; i++) {
+            loadWorkload(workload);
+            runThreads(workload, threadKind, discarded);
+            unloadWorkload(workload);
+        }
+
+        long[] samples = new long[trials];
+        for (int i = 0; i < trials; i++) {
+            loadWorkload(workload);
+            samples[i] = runThreads(workload, threadKind, threadLatencies);
+            unloadWorkload(workload);
+        }
+        return new ThroughputResult(new Statistics(samples, workload.size()), threadLatencies);
+    }
+
+    /**
+     * Runs the run phase of a workload on one thread per histogram. The first exception or error thrown by a
+     * worker is rethrown once all of them finished.
+     *
+     * @param workload The workload to replay.
+     * @param threadKind The kind of threads to run on.
+     * @param threadLatencies Where each thread records its latencies.
+     * @return The wall-clock time from releasing the threads until the last one finished, in nanoseconds.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    private long runThreads(Workload<? extends T> workload, ThreadKind threadKind, LatencyHistogram[] threadLatencies) throws InterruptedException {
+        int threadCount = threadLatencies.length;
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int first = t;
+            LatencyHistogram latencies = threadLatencies[t];
+            threads[t] = newThread(threadKind, () -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int i = first; i < workload.size(); i += threadCount) {
+                        long startTime = System.nanoTime();
+                        workload.apply(i, benchmarkee);
+                        latencies.record(System.nanoTime() - startTime);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    // an error in a worker would otherwise only end that thread, leaving a trial that looks valid
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        long endTime = System.nanoTime();
+
+        Throwable thrown = failure.get();
+        if (thrown instanceof RuntimeException) throw (RuntimeException) thrown;
+        if (thrown instanceof Error) throw (Error) thrown;
+        return endTime - startTime;
+    }
+
+    /**
+     * Runs the main method of a class in a new JVM with a limited heap, to see how the data structures behave under
+     * memory pressure. The new JVM uses the same Java installation and class path as this one, and its output goes
+     * to this one's.
+     *
+     * @param maxHeap The maximum heap size, as given to -Xmx (such as "64m").
+     * @param mainClass The class whose main method to run.
+     * @param args The arguments to pass to it.
+     * @return The exit code of the new JVM.
+     * @throws IOException If the new JVM cannot be started.
+     * @throws InterruptedException If interrupted while waiting for the new JVM to finish.
+     */
+    public static int runInForkedJvm(String maxHeap, Class<?> mainClass, String... args) throws IOException, InterruptedException {
+        ArrayList<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + maxHeap);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+
+    /**
+     * Checks whether this JVM can start virtual threads.
+     *
+     * @return True if {@link ThreadKind#Virtual} can be used.
+     */
+    public static boolean virtualThreadsSupported() {
+        try {
+            newThread(ThreadKind.Virtual, () -> { });
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an unstarted thread. Virtual threads are created through reflection, since the project compiles
+     * against Java 17, which does not have them.
+     *
+     * @param threadKind The kind of thread.
+     * @param task What the thread runs.
+     * @return The thread.
+     * @throws UnsupportedOperationException If virtual threads are requested but not supported by this JVM.
      */
-    public long[] benchmarkSearchTime(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationTime(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.search(t));
+    private static Thread newThread(ThreadKind threadKind, Runnable task) {
+        if (threadKind == ThreadKind.Platform) return new Thread(task);
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (Thread) Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later", e);
+        }
     }
 
     /**
-     * Benchmarks the approximate memory usage of insert operations on multiple datasets, averaging some number of trials for each dataset
+     * Measures the exact heap footprint of the benchmarkee after inserting each dataset, with {@link ObjectSizer}:
+     * the benchmarkee and every object reachable from it, elements included. A Benchmarker with a factory
+     * measures each dataset on a fresh instance holding the prepopulation. Otherwise the inserts are undone
+     * afterwards, so each dataset is measured on top of the contents the benchmarkee had beforehand.
      *
      * @param datasets A 2D array of datasets to be inserted.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average memory usage in bytes for each dataset.
+     * @return The retained size in bytes after inserting each dataset.
      */
-    public long[] benchmarkInsertMemory(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationMemory(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.insert(t));
+    public long[] benchmarkRetainedSize(T[][] datasets) {
+        long[] sizes = new long[datasets.length];
+        for (int i = 0; i < datasets.length; i++) {
+            sizes[i] = measureRetainedSize(datasets[i])[1];
+        }
+        return sizes;
     }
 
     /**
-     * Benchmarks the approximate memory usage of delete operations on multiple datasets, averaging some number of trials for each dataset
+     * Measures how many bytes the benchmarkee grows by for each element it stores, by dividing the growth of its
+     * retained size (see {@link #benchmarkRetainedSize(Object[][])}) by the number of distinct elements each
+     * dataset adds. Duplicates and elements already present are not counted. This is the figure to multiply by
+     * the expected number of elements when sizing a heap.
      *
-     * @param datasets A 2D array of datasets whose elements will be deleted.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average memory usage in bytes for each dataset.
+     * @param datasets A 2D array of datasets to be inserted.
+     * @return The bytes per added element for each dataset, rounded to the nearest byte, or 0 for a dataset
+     *         that adds nothing.
      */
-    public long[] benchmarkDeleteMemory(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationMemory(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.delete(t));
+    public long[] benchmarkBytesPerElement(T[][] datasets) {
+        long[] bytesPerElement = new long[datasets.length];
+        for (int i = 0; i < datasets.length; i++) {
+            long[] measurement = measureRetainedSize(datasets[i]);
+            long added = measurement[2];
+            bytesPerElement[i] = added == 0 ? 0 : Math.round((double) (measurement[1] - measurement[0]) / added);
+        }
+        return bytesPerElement;
     }
 
     /**
-     * Benchmarks the approximate memory usage of search operations on multiple datasets, averaging some number of trials for each dataset
+     * Inserts a dataset, measuring the retained size of the benchmarkee before and after, then undoes the inserts.
      *
-     * @param datasets A 2D array of datasets containing elements to search for.
-     * @param numberOfIterationsPerDataset The number of times to repeat each benchmark for averaging.
-     * @return An array of average memory usage in bytes for each dataset.
+     * @param dataset The dataset to insert.
+     * @return The retained size in bytes before and after the inserts, and the number of elements they added.
      */
-    public long[] benchmarkSearchMemory(T[][] datasets, int numberOfIterationsPerDataset) {
-        return benchmarkOperationMemory(datasets, numberOfIterationsPerDataset, (T t) -> benchmarkee.search(t));
+    private long[] measureRetainedSize(T[] dataset) {
+        if (factory != null) setUpFreshInstance(null);
+        long before = ObjectSizer.deepSizeOf(benchmarkee);
+        boolean[] present = new boolean[dataset.length];
+        long added = 0;
+        for (int i = 0; i < dataset.length; i++) {
+            present[i] = benchmarkee.search(dataset[i]) != null; // checked just before, so duplicates add once
+            if (!present[i]) added++;
+            benchmarkee.insert(dataset[i]);
+        }
+        long after = ObjectSizer.deepSizeOf(benchmarkee);
+        restore(dataset, present, (T t, Boolean wasPresent) -> {
+            if (!wasPresent) benchmarkee.delete(t);
+        });
+        return new long[] {before, after, added};
     }
 }
@@ -0,0 +1,177 @@
+package Main;
+
+import Main.ResultsStore.Result;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a benchmark run against a baseline run and fails if any result got slower.
+ *
+ * A result counts as a regression only if its mean time grew by more than the threshold (5% by default) and
+ * Welch's t-test finds the difference significant at the 5% level. The test keeps noise from failing the check,
+ * since it weighs the difference against the spread of the trials, and the threshold keeps it from failing
+ * on differences too small to matter, which enough trials make significant.
+ *
+ * Usage: CompareResults baseline.csv current.csv [threshold percent]. The exit code is 0 if nothing regressed,
+ * 1 if something did, and 2 if the arguments or files are invalid, so the check can gate a change.
+ */
+public class CompareResults {
+    public static final double DEFAULT_THRESHOLD_PERCENT = 5;
+    // metadata that is expected to differ between runs, so is not reported
+    private static final String[] VOLATILE_METADATA = new String[] {"timestamp", "commit"};
+
+    /**
+     * The outcome of comparing one result.
+     * <ul>
+     *     <li>Regressed: significantly slower, by more than the threshold.</li>
+     *     <li>Improved: significantly faster, by more than the threshold.</li>
+     *     <li>Unchanged: no significant difference, or one within the threshold.</li>
+     *     <li>Untested: a single sample on either side, so the spread is unknown.</li>
+     * </ul>
+     */
+    public enum Verdict {
+        Regressed, Improved, Unchanged, Untested
+    }
+
+    /**
+     * The comparison of one result between the baseline and the current run.
+     */
+    public static final class Comparison {
+        public final String name;
+        public final Statistics baseline;
+        public final Statistics current;
+        public final Verdict verdict;
+
+        Comparison(String name, Statistics baseline, Statistics current, Verdict verdict) {
+            this.name = name;
+            this.baseline = baseline;
+            this.current = current;
+            this.verdict = verdict;
+        }
+
+        /**
+         * Returns how much the mean changed relative to the baseline.
+         *
+         * @return The change in percent; positive if the current run is slower.
+         */
+        public double changePercent() {
+            return CompareResults.changePercent(baseline, current);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: CompareResults baseline.csv current.csv [threshold percent]");
+            System.exit(2);
+        }
+
+        ResultsStore baseline, current;
+        double thresholdPercent;
+        try {
+            baseline = ResultsStore.load(new File(args[0]));
+            current = ResultsStore.load(new File(args[1]));
+            thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        List<Comparison> comparisons = compare(baseline, current, thresholdPercent);
+        boolean regressed = report(baseline, current, comparisons, thresholdPercent, System.out);
+        System.exit(regressed ? 1 : 0);
+    }
+
+    /**
+     * Compares every result of the current run that the baseline also has.
+     *
+     * @param baseline The run to compare against.
+     * @param current The run to check.
+     * @param thresholdPercent The smallest change in the mean that counts as a regression or improvement.
+     * @return The comparisons, in the order of the current run's results.
+     */
+    public static List<Comparison> compare(ResultsStore baseline, ResultsStore current, double thresholdPercent) {
+        ArrayList<Comparison> comparisons = new ArrayList<>();
+        for (Result result : current.results()) {
+            Result baselineResult = baseline.find(result.name());
+            if (baselineResult == null) continue;
+            comparisons.add(compare(result.name(), baselineResult.statistics, result.statistics, thresholdPercent));
+        }
+        return comparisons;
+    }
+
+    private static Comparison compare(String name, Statistics baseline, Statistics current, double thresholdPercent) {
+        Verdict verdict;
+        if (baseline.count() < 2 || current.count() < 2) {
+            verdict = Verdict.Untested;
+        } else {
+            boolean significant = Statistics.differSignificantly(current, baseline);
+            double change = changePercent(baseline, current);
+            if (significant && change > thresholdPercent) verdict = Verdict.Regressed;
+            else if (significant && change < -thresholdPercent) verdict = Verdict.Improved;
+            else verdict = Verdict.Unchanged;
+        }
+        return new Comparison(name, baseline, current, verdict);
+    }
+
+    private static double changePercent(Statistics baseline, Statistics current) {
+        return baseline.mean() == 0 ? 0 : 100 * (current.mean() - baseline.mean()) / baseline.mean();
+    }
+
+    /**
+     * Prints a report of a comparison: the metadata that differs between the runs, which could explain a change
+     * on its own, every regression and improvement, and a summary.
+     *
+     * @param baseline The run compared against.
+     * @param current The run checked.
+     * @param comparisons The comparisons of their results.
+     * @param thresholdPercent The threshold used.
+     * @param out Where to print the report.
+     * @return True if any result regressed.
+     */
+    public static boolean report(ResultsStore baseline, ResultsStore current, List<Comparison> comparisons,
+                                 double thresholdPercent, PrintStream out) {
+        out.println("Baseline: " + baseline.metadata().getOrDefault("commit", "unknown commit") + ", "
+                + baseline.metadata().getOrDefault("timestamp", "unknown time"));
+        out.println("Current:  " + current.metadata().getOrDefault("commit", "unknown commit") + ", "
+                + current.metadata().getOrDefault("timestamp", "unknown time"));
+        for (Map.Entry<String, String> entry : current.metadata().entrySet()) {
+            if (isVolatile(entry.getKey())) continue;
+            String baselineValue = baseline.metadata().get(entry.getKey());
+            if (!entry.getValue().equals(baselineValue)) {
+                out.println("Warning: " + entry.getKey() + " differs: " + baselineValue + " -> " + entry.getValue());
+            }
+        }
+        out.println();
+
+        int[] counts = new int[Verdict.values().length];
+        for (Comparison comparison : comparisons) {
+            counts[comparison.verdict.ordinal()]++;
+            if (comparison.verdict != Verdict.Regressed && comparison.verdict != Verdict.Improved) continue;
+            out.println(String.format("%-9s %s: %.0f ns -> %.0f ns (%+.1f%%)", comparison.verdict, comparison.name,
+                    comparison.baseline.mean(), comparison.current.mean(), comparison.changePercent()));
+        }
+        int missing = current.results().size() - comparisons.size();
+
+        out.println();
+        out.println(String.format("%d compared (threshold %.1f%%, Welch's t-test at the 5%% level): %d regressed, %d improved, %d unchanged, %d untested",
+                comparisons.size(), thresholdPercent, counts[Verdict.Regressed.ordinal()], counts[Verdict.Improved.ordinal()],
+                counts[Verdict.Unchanged.ordinal()], counts[Verdict.Untested.ordinal()]));
+        if (missing > 0) out.println(missing + " results are not in the baseline");
+        boolean regressed = counts[Verdict.Regressed.ordinal()] > 0;
+        out.println(regressed ? "FAILED: performance regressed" : "PASSED");
+        return regressed;
+    }
+
+    private static boolean isVolatile(String key) {
+        for (String volatileKey : VOLATILE_METADATA) {
+            if (volatileKey.equals(key)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,730 @@
+package Main;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent, relaxed-balance AVL tree in the style of Bronson, Casper, Chafi and Olukotun,
+ * "A Practical Concurrent Binary Search Tree" (PPoPP 2010).
+ *
+ * Searches take no locks. They descend hand-over-hand using per-node version numbers: a node's version changes
+ * whenever a rotation shrinks the range of keys below it, so a reader that sees an unchanged version knows the
+ * child it followed was still the right one, and otherwise retries from the parent. Writers lock only the nodes
+ * they change (a parent before its child, so locks are always taken top-down). Deleting a node with two children
+ * only clears its value, leaving a routing node that is unlinked later once it has at most one child.
+ * Heights are repaired, and rotations performed, on the way back up after each update. As in the paper, balance
+ * is relaxed: repairs race with each other and may leave a few stale heights behind, so the tree is close to,
+ * but not always exactly, AVL-balanced. A single thread always leaves it strictly balanced.
+ *
+ * @param <T> The type of elements stored in the tree. Must be Comparable.
+ */
+public class ConcurrentAVLTree<T extends Comparable<T>> implements BaseOperations<T> {
+
+    /** The version of a node that has been removed from the tree. */
+    private static final long UNLINKED = 1L;
+
+    /** Set in a node's version while a rotation is shrinking its key range. */
+    private static final long SHRINKING = 2L;
+
+    /** Added to a node's version each time a shrink completes. */
+    private static final long SHRINK_COUNT_INCREMENT = 4L;
+
+    /** Returned by the attempt methods when a concurrent change invalidated the traversal. */
+    private static final Object RETRY = new Object();
+
+    /** Conditions reported by {@link #nodeCondition}; any non-negative value is the height the node should have. */
+    private static final int UNLINK_REQUIRED = -1;
+    private static final int REBALANCE_REQUIRED = -2;
+    private static final int NOTHING_REQUIRED = -3;
+
+    /** How many times a reader re-checks a shrinking node before yielding, and yields before blocking. */
+    private static final int SPIN_COUNT = 100;
+    private static final int YIELD_COUNT = 10;
+
+    /**
+     * Represents a node in the tree. Every mutable field is volatile, since readers never lock.
+     */
+    private static final class Node<T> {
+        final T key;
+        volatile T value;   // the element, or null if this is a routing node
+        volatile int height;
+        volatile long version;
+        volatile Node<T> parent;
+        volatile Node<T> left, right;
+
+        Node(T key, T value, Node<T> parent) {
+            this.key = key;
+            this.value = value;
+            this.height = 1;
+            this.parent = parent;
+        }
+
+        Node<T> child(int direction) {
+            return direction < 0 ? left : right;
+        }
+
+        void setChild(int direction, Node<T> child) {
+            if (direction < 0) left = child;
+            else right = child;
+        }
+    }
+
+    /** A sentinel above the root; the actual root is its right child. It is never rotated or unlinked. */
+    private final Node<T> rootHolder = new Node<>(null, null, null);
+
+    /** The number of elements in the tree. */
+    private final LongAdder size = new LongAdder();
+
+    // === Version helpers ===
+
+    private static boolean isShrinking(long version) {
+        return (version & SHRINKING) != 0;
+    }
+
+    private static boolean isShrinkingOrUnlinked(long version) {
+        return (version & (SHRINKING | UNLINKED)) != 0;
+    }
+
+    private static boolean isUnlinked(long version) {
+        return version == UNLINKED;
+    }
+
+    private static long beginShrink(long version) {
+        return version | SHRINKING;
+    }
+
+    private static long endShrink(long version) {
+        return (version & ~SHRINKING) + SHRINK_COUNT_INCREMENT;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Waits for a rotation that is shrinking the given node to finish: spins briefly, then yields,
+     * and finally blocks on the node's lock, which the rotating thread holds until it is done.
+     *
+     * @param node The node being shrunk.
+     * @param version The version that was observed.
+     */
+    private static void waitUntilShrinkCompleted(Node<?> node, long version) {
+        if (!isShrinking(version)) return;
+
+        for (int tries = 0; tries < SPIN_COUNT; tries++) {
+            if (node.version != version) return;
+        }
+        for (int tries = 0; tries < YIELD_COUNT; tries++) {
+            Thread.yield();
+            if (node.version != version) return;
+        }
+        synchronized (node) {
+            // the rotation holds this lock, so once it is ours the shrink is over
+        }
+    }
+
+    // === Search ===
+
+    /**
+     * Searches for the specified element without taking any locks.
+     *
+     * @param element The element to search for.
+     * @return The element if found, or null if not found.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T search(T element) {
+        while (true) {
+            Node<T> root = rootHolder.right;
+            if (root == null) return null;
+
+            int compareResult = element.compareTo(root.key);
+            if (compareResult == 0) return root.value;
+
+            long version = root.version;
+            if (isShrinkingOrUnlinked(version)) {
+                waitUntilShrinkCompleted(root, version);
+            } else if (root == rootHolder.right) {
+                Object result = attemptSearch(element, root, compareResult, version);
+                if (result != RETRY) return (T) result;
+            }
+        }
+    }
+
+    /**
+     * Continues a search below a node whose version has been read. The child is only trusted once the node's
+     * version is confirmed unchanged after reading it.
+     *
+     * @param key The key to search for.
+     * @param node The node to continue from.
+     * @param direction The direction of the key relative to the node (negative for left).
+     * @param version The version of the node when it was reached.
+     * @return The element, null if it is absent, or RETRY if the caller must retry from its own node.
+     */
+    private Object attemptSearch(T key, Node<T> node, int direction, long version) {
+        while (true) {
+            Node<T> child = node.child(direction);
+            if (child == null) {
+                // an empty child is only proof of absence if the node's range has not shrunk meanwhile
+                return (node.version != version) ? RETRY : null;
+            }
+
+            int compareResult = key.compareTo(child.key);
+            if (compareResult == 0) return child.value;
+
+            long childVersion = child.version;
+            if (isShrinkingOrUnlinked(childVersion)) {
+                waitUntilShrinkCompleted(child, childVersion);
+                if (node.version != version) return RETRY;
+                // otherwise re-read the child link and try again
+            } else if (child != node.child(direction)) {
+                if (node.version != version) return RETRY;
+            } else {
+                if (node.version != version) return RETRY;
+                Object result = attemptSearch(key, child, compareResult, childVersion);
+                if (result != RETRY) return result;
+            }
+        }
+    }
+
+    // === Updates ===
+
+    /**
+     * Inserts the specified element if it is not already present.
+     *
+     * @param element The element to insert.
+     * @return True if the element was inserted, false if it was already present.
+     */
+    @Override
+    public boolean insert(T element) {
+        if (element == null) return false;
+        boolean inserted = update(element, element) == null;
+        if (inserted) size.increment();
+        return inserted;
+    }
+
+    /**
+     * Deletes the specified element.
+     *
+     * @param element The element to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @Override
+    public T delete(T element) {
+        T deleted = update(element, null);
+        if (deleted != null) size.decrement();
+        return deleted;
+    }
+
+    /**
+     * Returns the number of elements in the tree. While updates are in flight this is only a moment-in-time estimate.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Inserts (if absent) or removes a key.
+     *
+     * @param key The key to update.
+     * @param newValue The element to insert, or null to remove the key.
+     * @return The element that was present before the update, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    private T update(T key, T newValue) {
+        while (true) {
+            Node<T> root = rootHolder.right;
+            if (root == null) {
+                if (newValue == null) return null; // nothing to remove
+                synchronized (rootHolder) {
+                    if (rootHolder.right == null) {
+                        rootHolder.right = new Node<>(key, newValue, rootHolder);
+                        rootHolder.height = 2;
+                        return null;
+                    }
+                }
+                // another thread created the root first; retry
+            } else {
+                long version = root.version;
+                if (isShrinkingOrUnlinked(version)) {
+                    waitUntilShrinkCompleted(root, version);
+                } else if (root == rootHolder.right) {
+                    Object result = attemptUpdate(key, newValue, rootHolder, root, version);
+                    if (result != RETRY) return (T) result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Continues an update below a node whose version has been read, descending hand-over-hand like a search.
+     *
+     * @param key The key to update.
+     * @param newValue The element to insert, or null to remove the key.
+     * @param parent The parent of the node.
+     * @param node The node to continue from.
+     * @param version The version of the node when it was reached.
+     * @return The previous element or null, or RETRY if the caller must retry from its own node.
+     */
+    private Object attemptUpdate(T key, T newValue, Node<T> parent, Node<T> node, long version) {
+        int direction = key.compareTo(node.key);
+        if (direction == 0) return attemptNodeUpdate(newValue, parent, node);
+
+        while (true) {
+            Node<T> child = node.child(direction);
+            if (node.version != version) return RETRY;
+
+            if (child == null) {
+                if (newValue == null) return null; // the key is absent, so there is nothing to remove
+
+                Node<T> damaged = null;
+                boolean attached = false;
+                synchronized (node) {
+                    if (node.version != version) return RETRY;
+                    if (node.child(direction) == null) {
+                        node.setChild(direction, new Node<>(key, newValue, node));
+                        damaged = fixHeight(node);
+                        attached = true;
+                    }
+                    // otherwise another thread attached a child first; descend into it on the next pass
+                }
+                if (attached) {
+                    fixHeightAndRebalance(damaged);
+                    return null;
+                }
+            } else {
+                long childVersion = child.version;
+                if (isShrinkingOrUnlinked(childVersion)) {
+                    waitUntilShrinkCompleted(child, childVersion);
+                } else if (child == node.child(direction)) {
+                    if (node.version != version) return RETRY;
+                    Object result = attemptUpdate(key, newValue, node, child, childVersion);
+                    if (result != RETRY) return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the node that holds the key. Removing a node with at most one child unlinks it, which needs the
+     * parent's lock too; every other case only changes the node's value.
+     *
+     * @param newValue The element to insert, or null to remove the key.
+     * @param parent The parent of the node.
+     * @param node The node holding the key.
+     * @return The previous element or null, or RETRY if the node moved.
+     */
+    private Object attemptNodeUpdate(T newValue, Node<T> parent, Node<T> node) {
+        T current = node.value;
+        if (newValue == null && current == null) return null; // already absent
+        if (newValue != null && current != null) return current; // already present
+
+        if (newValue == null && (node.left == null || node.right == null)) {
+            T previous;
+            Node<T> damaged;
+            synchronized (parent) {
+                if (isUnlinked(parent.version) || node.parent != parent) return RETRY;
+                synchronized (node) {
+                    previous = node.value;
+                    if (previous == null) return null;
+                    if (!attemptUnlink(parent, node)) return RETRY;
+                }
+                damaged = fixHeight(parent);
+            }
+            fixHeightAndRebalance(damaged);
+            return previous;
+        }
+
+        synchronized (node) {
+            if (isUnlinked(node.version)) return RETRY;
+            T previous = node.value;
+            if (newValue == null) {
+                if (previous == null) return null;
+                // a child may have been removed meanwhile, in which case the node should be unlinked instead
+                if (node.left == null || node.right == null) return RETRY;
+            } else if (previous != null) {
+                return previous;
+            }
+            node.value = newValue;
+            return previous;
+        }
+    }
+
+    /**
+     * Splices a node with at most one child out of the tree. The caller holds the locks of both nodes.
+     *
+     * @param parent The parent of the node.
+     * @param node The node to remove.
+     * @return True if the node was unlinked, false if the tree changed so that it can no longer be.
+     */
+    private boolean attemptUnlink(Node<T> parent, Node<T> node) {
+        Node<T> parentLeft = parent.left;
+        Node<T> parentRight = parent.right;
+        if (parentLeft != node && parentRight != node) return false; // no longer a child of parent
+
+        Node<T> left = node.left;
+        Node<T> right = node.right;
+        if (left != null && right != null) return false; // gained a second child
+
+        Node<T> splice = (left != null) ? left : right;
+        if (parentLeft == node) parent.left = splice;
+        else parent.right = splice;
+        if (splice != null) splice.parent = parent;
+
+        // the link is replaced before the node is marked, so a reader that sees the mark re-reads a valid link
+        node.version = UNLINKED;
+        node.value = null;
+        return true;
+    }
+
+    // === Rebalancing ===
+
+    /**
+     * Decides what a node needs, based on a possibly stale view of its children.
+     *
+     * @param node The node to inspect.
+     * @return UNLINK_REQUIRED, REBALANCE_REQUIRED, NOTHING_REQUIRED, or the height the node should have.
+     */
+    private int nodeCondition(Node<T> node) {
+        Node<T> left = node.left;
+        Node<T> right = node.right;
+        if ((left == null || right == null) && node.value == null) return UNLINK_REQUIRED;
+
+        int heightLeft = height(left);
+        int heightRight = height(right);
+        int balance = heightLeft - heightRight;
+        if (balance < -1 || balance > 1) return REBALANCE_REQUIRED;
+
+        int newHeight = 1 + Math.max(heightLeft, heightRight);
+        return (node.height != newHeight) ? newHeight : NOTHING_REQUIRED;
+    }
+
+    /**
+     * Repairs the height of a locked node if that is all it needs.
+     *
+     * @param node The locked node.
+     * @return The node that needs attention next: the parent if the height changed, the node itself if it needs
+     *         rebalancing or unlinking, or null if nothing more is needed.
+     */
+    private Node<T> fixHeight(Node<T> node) {
+        int condition = nodeCondition(node);
+        switch (condition) {
+            case REBALANCE_REQUIRED:
+            case UNLINK_REQUIRED:
+                return node;
+            case NOTHING_REQUIRED:
+                return null;
+            default:
+                node.height = condition;
+                return node.parent;
+        }
+    }
+
+    /**
+     * Walks up from a damaged node, repairing heights and rotating until the tree needs nothing more.
+     *
+     * @param node The first node that may need repair, or null.
+     */
+    private void fixHeightAndRebalance(Node<T> node) {
+        // the root holder has no parent and is never repaired
+        while (node != null && node.parent != null) {
+            int condition = nodeCondition(node);
+            if (condition == NOTHING_REQUIRED || isUnlinked(node.version)) return;
+
+            if (condition != UNLINK_REQUIRED && condition != REBALANCE_REQUIRED) {
+                synchronized (node) {
+                    node = fixHeight(node);
+                }
+            } else {
+                Node<T> parent = node.parent;
+                synchronized (parent) {
+                    if (!isUnlinked(parent.version) && node.parent == parent) {
+                        synchronized (node) {
+                            node = rebalance(parent, node);
+                        }
+                    }
+                    // otherwise the node moved; retry with its new parent
+                }
+            }
+        }
+    }
+
+    /**
+     * Unlinks, rotates or repairs the height of a node. The caller holds the locks of the node and its parent.
+     *
+     * @param parent The locked parent.
+     * @param node The locked node.
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rebalance(Node<T> parent, Node<T> node) {
+        Node<T> left = node.left;
+        Node<T> right = node.right;
+        if ((left == null || right == null) && node.value == null) {
+            // a routing node with at most one child is no longer needed
+            return attemptUnlink(parent, node) ? fixHeight(parent) : node;
+        }
+
+        int heightNode = node.height;
+        int heightLeft = height(left);
+        int heightRight = height(right);
+        int newHeight = 1 + Math.max(heightLeft, heightRight);
+        int balance = heightLeft - heightRight;
+
+        if (balance > 1) return rebalanceToRight(parent, node, left, heightRight);
+        if (balance < -1) return rebalanceToLeft(parent, node, right, heightLeft);
+        if (newHeight != heightNode) {
+            node.height = newHeight;
+            return fixHeight(parent);
+        }
+        return null;
+    }
+
+    /**
+     * Fixes a left-heavy node with a right rotation, or a left-right double rotation if the left child leans right.
+     *
+     * @param parent The locked parent.
+     * @param node The locked, left-heavy node.
+     * @param left The left child of the node.
+     * @param heightRight The height of the node's right subtree.
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rebalanceToRight(Node<T> parent, Node<T> node, Node<T> left, int heightRight) {
+        synchronized (left) {
+            int heightLeft = left.height;
+            if (heightLeft - heightRight <= 1) return node; // changed meanwhile; re-evaluate
+
+            Node<T> leftRight = left.right;
+            int heightLeftLeft = height(left.left);
+            int heightLeftRight = height(leftRight);
+            if (heightLeftLeft >= heightLeftRight) {
+                return rotateRight(parent, node, left, heightRight, heightLeftLeft, leftRight, heightLeftRight);
+            }
+
+            synchronized (leftRight) {
+                // re-read now that it is locked
+                heightLeftRight = leftRight.height;
+                if (heightLeftLeft >= heightLeftRight) {
+                    return rotateRight(parent, node, left, heightRight, heightLeftLeft, leftRight, heightLeftRight);
+                }
+
+                int heightLeftRightLeft = height(leftRight.left);
+                int balance = heightLeftLeft - heightLeftRightLeft;
+                if (balance >= -1 && balance <= 1 && !((heightLeftLeft == 0 || heightLeftRightLeft == 0) && left.value == null)) {
+                    return rotateRightOverLeft(parent, node, left, heightRight, heightLeftLeft, leftRight, heightLeftRightLeft);
+                }
+            }
+            // the double rotation would leave the left child unbalanced, so fix the left child first
+            return rebalanceToLeft(node, left, leftRight, heightLeftLeft);
+        }
+    }
+
+    /**
+     * Fixes a right-heavy node with a left rotation, or a right-left double rotation if the right child leans left.
+     *
+     * @param parent The locked parent.
+     * @param node The locked, right-heavy node.
+     * @param right The right child of the node.
+     * @param heightLeft The height of the node's left subtree.
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rebalanceToLeft(Node<T> parent, Node<T> node, Node<T> right, int heightLeft) {
+        synchronized (right) {
+            int heightRight = right.height;
+            if (heightLeft - heightRight >= -1) return node; // changed meanwhile; re-evaluate
+
+            Node<T> rightLeft = right.left;
+            int heightRightLeft = height(rightLeft);
+            int heightRightRight = height(right.right);
+            if (heightRightRight >= heightRightLeft) {
+                return rotateLeft(parent, node, heightLeft, right, rightLeft, heightRightLeft, heightRightRight);
+            }
+
+            synchronized (rightLeft) {
+                heightRightLeft = rightLeft.height;
+                if (heightRightRight >= heightRightLeft) {
+                    return rotateLeft(parent, node, heightLeft, right, rightLeft, heightRightLeft, heightRightRight);
+                }
+
+                int heightRightLeftRight = height(rightLeft.right);
+                int balance = heightRightRight - heightRightLeftRight;
+                if (balance >= -1 && balance <= 1 && !((heightRightRight == 0 || heightRightLeftRight == 0) && right.value == null)) {
+                    return rotateLeftOverRight(parent, node, heightLeft, right, rightLeft, heightRightRight, heightRightLeftRight);
+                }
+            }
+            return rebalanceToRight(node, right, rightLeft, heightRightRight);
+        }
+    }
+
+    /**
+     * Performs a right rotation. The parent, node and left child are locked; the node's range shrinks.
+     *
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rotateRight(Node<T> parent, Node<T> node, Node<T> left, int heightRight,
+                                int heightLeftLeft, Node<T> leftRight, int heightLeftRight) {
+        long version = node.version;
+        Node<T> parentLeft = parent.left;
+        node.version = beginShrink(version);
+
+        node.left = leftRight;
+        if (leftRight != null) leftRight.parent = node;
+        left.right = node;
+        node.parent = left;
+        if (parentLeft == node) parent.left = left;
+        else parent.right = left;
+        left.parent = parent;
+
+        int newHeightNode = 1 + Math.max(heightLeftRight, heightRight);
+        node.height = newHeightNode;
+        left.height = 1 + Math.max(heightLeftLeft, newHeightNode);
+
+        node.version = endShrink(version);
+
+        // the rotation may not have fixed everything, in which case the caller continues from the damaged node
+        int balanceNode = heightLeftRight - heightRight;
+        if (balanceNode < -1 || balanceNode > 1) return node;
+        if ((heightLeftRight == 0 || heightRight == 0) && node.value == null) return node;
+
+        int balanceLeft = heightLeftLeft - newHeightNode;
+        if (balanceLeft < -1 || balanceLeft > 1) return left;
+        if (heightLeftLeft == 0 && left.value == null) return left;
+
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a left rotation. The parent, node and right child are locked; the node's range shrinks.
+     *
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rotateLeft(Node<T> parent, Node<T> node, int heightLeft, Node<T> right,
+                               Node<T> rightLeft, int heightRightLeft, int heightRightRight) {
+        long version = node.version;
+        Node<T> parentLeft = parent.left;
+        node.version = beginShrink(version);
+
+        node.right = rightLeft;
+        if (rightLeft != null) rightLeft.parent = node;
+        right.left = node;
+        node.parent = right;
+        if (parentLeft == node) parent.left = right;
+        else parent.right = right;
+        right.parent = parent;
+
+        int newHeightNode = 1 + Math.max(heightLeft, heightRightLeft);
+        node.height = newHeightNode;
+        right.height = 1 + Math.max(newHeightNode, heightRightRight);
+
+        node.version = endShrink(version);
+
+        int balanceNode = heightRightLeft - heightLeft;
+        if (balanceNode < -1 || balanceNode > 1) return node;
+        if ((heightRightLeft == 0 || heightLeft == 0) && node.value == null) return node;
+
+        int balanceRight = heightRightRight - newHeightNode;
+        if (balanceRight < -1 || balanceRight > 1) return right;
+        if (heightRightRight == 0 && right.value == null) return right;
+
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a left-right double rotation. The parent, node, left child and its right child are locked;
+     * the node's and the left child's ranges shrink.
+     *
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rotateRightOverLeft(Node<T> parent, Node<T> node, Node<T> left, int heightRight,
+                                        int heightLeftLeft, Node<T> leftRight, int heightLeftRightLeft) {
+        long version = node.version;
+        long leftVersion = left.version;
+        Node<T> parentLeft = parent.left;
+        Node<T> leftRightLeft = leftRight.left;
+        Node<T> leftRightRight = leftRight.right;
+        int heightLeftRightRight = height(leftRightRight);
+
+        node.version = beginShrink(version);
+        left.version = beginShrink(leftVersion);
+
+        node.left = leftRightRight;
+        if (leftRightRight != null) leftRightRight.parent = node;
+        left.right = leftRightLeft;
+        if (leftRightLeft != null) leftRightLeft.parent = left;
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+        if (parentLeft == node) parent.left = leftRight;
+        else parent.right = leftRight;
+        leftRight.parent = parent;
+
+        int newHeightNode = 1 + Math.max(heightLeftRightRight, heightRight);
+        node.height = newHeightNode;
+        int newHeightLeft = 1 + Math.max(heightLeftLeft, heightLeftRightLeft);
+        left.height = newHeightLeft;
+        leftRight.height = 1 + Math.max(newHeightLeft, newHeightNode);
+
+        node.version = endShrink(version);
+        left.version = endShrink(leftVersion);
+
+        // the caller checked that the left child ends up balanced and needs no unlinking
+        int balanceNode = heightLeftRightRight - heightRight;
+        if (balanceNode < -1 || balanceNode > 1) return node;
+        if ((heightLeftRightRight == 0 || heightRight == 0) && node.value == null) return node;
+
+        int balanceLeftRight = newHeightLeft - newHeightNode;
+        if (balanceLeftRight < -1 || balanceLeftRight > 1) return leftRight;
+
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a right-left double rotation. The parent, node, right child and its left child are locked;
+     * the node's and the right child's ranges shrink.
+     *
+     * @return The node that needs attention next, or null.
+     */
+    private Node<T> rotateLeftOverRight(Node<T> parent, Node<T> node, int heightLeft, Node<T> right,
+                                        Node<T> rightLeft, int heightRightRight, int heightRightLeftRight) {
+        long version = node.version;
+        long rightVersion = right.version;
+        Node<T> parentLeft = parent.left;
+        Node<T> rightLeftLeft = rightLeft.left;
+        Node<T> rightLeftRight = rightLeft.right;
+        int heightRightLeftLeft = height(rightLeftLeft);
+
+        node.version = beginShrink(version);
+        right.version = beginShrink(rightVersion);
+
+        node.right = rightLeftLeft;
+        if (rightLeftLeft != null) rightLeftLeft.parent = node;
+        right.left = rightLeftRight;
+        if (rightLeftRight != null) rightLeftRight.parent = right;
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+        if (parentLeft == node) parent.left = rightLeft;
+        else parent.right = rightLeft;
+        rightLeft.parent = parent;
+
+        int newHeightNode = 1 + Math.max(heightLeft, heightRightLeftLeft);
+        node.height = newHeightNode;
+        int newHeightRight = 1 + Math.max(heightRightLeftRight, heightRightRight);
+        right.height = newHeightRight;
+        rightLeft.height = 1 + Math.max(newHeightNode, newHeightRight);
+
+        node.version = endShrink(version);
+        right.version = endShrink(rightVersion);
+
+        int balanceNode = heightRightLeftLeft - heightLeft;
+        if (balanceNode < -1 || balanceNode > 1) return node;
+        if ((heightRightLeftLeft == 0 || heightLeft == 0) && node.value == null) return node;
+
+        int balanceRightLeft = newHeightRight - newHeightNode;
+        if (balanceRightLeft < -1 || balanceRightLeft > 1) return rightLeft;
+
+        return fixHeight(parent);
+    }
+}
@@ -0,0 +1,270 @@
+package Main;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A splay tree that many threads can search at once.
+ *
+ * A search is a plain, read-only descent under a {@link StampedLock} optimistic read, falling back to a shared
+ * read lock if a writer got in the way, so concurrent searches never block one another. Afterwards the search
+ * decides whether the node it found is worth splaying: always when it was deeper than a depth threshold, and
+ * otherwise with a small probability, so that frequently accessed keys still drift towards the root. The
+ * splay is only attempted with {@link StampedLock#tryWriteLock()}; if another thread holds the lock, the
+ * search skips it rather than wait, since that thread is already restructuring the tree. Inserts and deletes
+ * take the write lock and splay as usual.
+ *
+ * @param <T> The type of elements stored in the tree. Must be Comparable.
+ */
+public class ConcurrentSplayTree<T extends Comparable<T>> implements BaseOperations<T> {
+
+    private static final int DEFAULT_DEPTH_THRESHOLD = 32;
+    private static final double DEFAULT_SPLAY_PROBABILITY = 1.0 / 64;
+
+    /**
+     * Represents a node in the tree. The links are only written under the write lock.
+     */
+    private static final class Node<T> {
+        final T data;
+        Node<T> left, right;
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+    private final Node<T> header = new Node<>(null); // The scratch root of the assembly trees used while splaying
+    private final StampedLock lock = new StampedLock();
+
+    private final int depthThreshold;
+    private final double splayProbability;
+
+    /**
+     * Constructs an empty tree with a depth threshold of 32 and a splay probability of 1/64.
+     */
+    public ConcurrentSplayTree() {
+        this(DEFAULT_DEPTH_THRESHOLD, DEFAULT_SPLAY_PROBABILITY);
+    }
+
+    /**
+     * Constructor for full customization.
+     *
+     * @param depthThreshold The depth (the root is at depth 0) beyond which a search always tries to splay.
+     * @param splayProbability The probability with which a search of a shallower node tries to splay.
+     */
+    public ConcurrentSplayTree(int depthThreshold, double splayProbability) {
+        if (depthThreshold < 0) throw new IllegalArgumentException("Depth threshold must not be negative: " + depthThreshold);
+        if (splayProbability < 0 || splayProbability > 1) throw new IllegalArgumentException("Splay probability must be in [0, 1]: " + splayProbability);
+        this.depthThreshold = depthThreshold;
+        this.splayProbability = splayProbability;
+    }
+
+    /**
+     * Splays the node with the given key, or the last node on its search path, to the root with a top-down
+     * splay. Must be called with the write lock held.
+     *
+     * @param root The root of the subtree to splay.
+     * @param key The key of the node to splay.
+     * @return The new root of the subtree after splaying.
+     */
+    private Node<T> splay(Node<T> root, T key) {
+        if (root == null) return null;
+
+        // header.right collects the left assembly tree and header.left the right assembly tree
+        header.left = header.right = null;
+        Node<T> leftTreeMax = header, rightTreeMin = header;
+        Node<T> current = root;
+
+        while (true) {
+            int comparisonValue = key.compareTo(current.data);
+            if (comparisonValue < 0) {
+                if (current.left == null) break;
+                if (key.compareTo(current.left.data) < 0) { // Zig-Zig (Left Left): rotate first
+                    current = rotateRight(current);
+                    if (current.left == null) break;
+                }
+                rightTreeMin.left = current;
+                rightTreeMin = current;
+                current = current.left;
+            } else if (comparisonValue > 0) {
+                if (current.right == null) break;
+                if (key.compareTo(current.right.data) > 0) { // Zag-Zag (Right Right): rotate first
+                    current = rotateLeft(current);
+                    if (current.right == null) break;
+                }
+                leftTreeMax.right = current;
+                leftTreeMax = current;
+                current = current.right;
+            } else {
+                break;
+            }
+        }
+
+        leftTreeMax.right = current.left;
+        rightTreeMin.left = current.right;
+        current.left = header.right;
+        current.right = header.left;
+        header.left = header.right = null;
+        return current;
+    }
+
+    private Node<T> rotateRight(Node<T> parent) {
+        Node<T> pivot = parent.left;
+        parent.left = pivot.right;
+        pivot.right = parent;
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> parent) {
+        Node<T> pivot = parent.right;
+        parent.right = pivot.left;
+        pivot.left = parent;
+        return pivot;
+    }
+
+    /**
+     * Inserts a key into the tree.
+     *
+     * @param key The key to insert.
+     * @return true if the key was inserted, false if the key is a duplicate.
+     */
+    @Override
+    public boolean insert(T key) {
+        long stamp = lock.writeLock();
+        try {
+            if (root == null) {
+                root = new Node<>(key);
+                size++;
+                return true;
+            }
+
+            root = splay(root, key);
+            int comparisonValue = key.compareTo(root.data);
+            if (comparisonValue == 0) return false;
+
+            Node<T> newNode = new Node<>(key);
+            if (comparisonValue < 0) {
+                newNode.right = root;
+                newNode.left = root.left;
+                root.left = null;
+            } else {
+                newNode.left = root;
+                newNode.right = root.right;
+                root.right = null;
+            }
+            root = newNode;
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes a key from the tree.
+     *
+     * @param key The key to delete.
+     * @return The deleted key, or null if the key was not found.
+     */
+    @Override
+    public T delete(T key) {
+        long stamp = lock.writeLock();
+        try {
+            if (root == null) return null;
+            root = splay(root, key);
+            if (key.compareTo(root.data) != 0) return null;
+
+            T deleted = root.data;
+            if (root.left == null) {
+                root = root.right;
+            } else {
+                Node<T> right = root.right;
+                root = splay(root.left, key); // the largest key of the left subtree comes up with no right child
+                root.right = right;
+            }
+            size--;
+            return deleted;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Searches for a key. Concurrent searches do not block one another; the found node may be splayed
+     * afterwards, as described in the class documentation.
+     *
+     * @param key The key to search for.
+     * @return The key if found, or null if the key is not in the tree.
+     */
+    @Override
+    public T search(T key) {
+        T found = null;
+        int depth = 0;
+        boolean consistent = false;
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Node<T> node = root;
+            while (node != null) {
+                int comparisonValue = key.compareTo(node.data);
+                if (comparisonValue == 0) {
+                    found = node.data;
+                    break;
+                }
+                node = comparisonValue < 0 ? node.left : node.right;
+                // a rotation in progress can briefly link two nodes to each other, so do not trust a long walk
+                if ((++depth & 63) == 0 && !lock.validate(stamp)) break;
+            }
+            consistent = lock.validate(stamp);
+        }
+
+        if (!consistent) {
+            stamp = lock.readLock();
+            try {
+                found = null;
+                depth = 0;
+                Node<T> node = root;
+                while (node != null) {
+                    int comparisonValue = key.compareTo(node.data);
+                    if (comparisonValue == 0) {
+                        found = node.data;
+                        break;
+                    }
+                    node = comparisonValue < 0 ? node.left : node.right;
+                    depth++;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (found != null && depth > 0
+                && (depth > depthThreshold || ThreadLocalRandom.current().nextDouble() < splayProbability)) {
+            long writeStamp = lock.tryWriteLock();
+            if (writeStamp != 0) {
+                try {
+                    root = splay(root, key);
+                } finally {
+                    lock.unlockWrite(writeStamp);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
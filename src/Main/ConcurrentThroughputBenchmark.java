@@ -0,0 +1,61 @@
+package Main;
+
+import Main.Benchmarker.ThreadKind;
+import Main.DataTable.Format;
+import Main.Workload.KeyDistribution;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Measures the aggregate throughput of the thread-safe ordered structures at 1 to 32 threads
+ * and several read/write ratios, next to an {@link AVLTree} and a {@link SplayTree} behind a single global lock.
+ * Each cell is the mean of {@link #TRIALS} replays of a uniform workload on a fresh instance, after
+ * {@link #WARMUP_ROUNDS} discarded ones.
+ */
+public class ConcurrentThroughputBenchmark {
+    public static final int INITIAL_KEYS = 50_000;
+    public static final int OPERATIONS = 200_000;
+    public static final int WARMUP_ROUNDS = 3;
+    public static final int TRIALS = 5;
+    public static final long SEED = 1;
+    public static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+    public static final int[] READ_PERCENTAGES = {100, 90, 50};
+
+    public static final String[] rowHeaders = new String[] {
+            "Concurrent AVL Tree", "Concurrent Splay Tree", "Lock-free Skip List", "AVL Tree (global lock)", "Splay Tree (global lock)"
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        ArrayList<Supplier<BaseOperations<Integer>>> structures = new ArrayList<>();
+        structures.add(ConcurrentAVLTree::new);
+        structures.add(ConcurrentSplayTree::new);
+        structures.add(LockFreeSkipList::new);
+        structures.add(() -> new LockedOperations<Integer>(new AVLTree<Integer>()));
+        structures.add(() -> new LockedOperations<Integer>(new SplayTree<Integer>()));
+
+        String[] colHeaders = new String[THREAD_COUNTS.length + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            colHeaders[i + 1] = THREAD_COUNTS[i] + (THREAD_COUNTS[i] == 1 ? " Thread" : " Threads");
+        }
+
+        for (int readPercentage : READ_PERCENTAGES) {
+            DataTable table = new DataTable("Operations per Second (" + readPercentage + "% reads)", colHeaders, rowHeaders);
+            // writes are split evenly between inserts and deletes, so the size stays roughly constant
+            int insertPercentage = (100 - readPercentage) / 2;
+            Workload<Integer> workload = new Workload<Integer>(INITIAL_KEYS, OPERATIONS, readPercentage, insertPercentage,
+                    KeyDistribution.Uniform, SEED, Integer::valueOf);
+            for (Supplier<BaseOperations<Integer>> structure : structures) {
+                Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS);
+                long[] row = new long[THREAD_COUNTS.length];
+                for (int i = 0; i < THREAD_COUNTS.length; i++) {
+                    row[i] = Math.round(benchmarker.benchmarkThroughput(workload, THREAD_COUNTS[i], ThreadKind.Platform).opsPerSecond());
+                }
+                table.AddRow(row);
+            }
+            table.print(Format.CSV);
+            System.out.println("\n");
+        }
+    }
+}
@@ -18,13 +18,16 @@ public class DataTable {
         /** Output as raw comma-separated values. */
         CSV,
         /** Format data as memory units (e.g., KB, MB). */
-        MEMORY
+        MEMORY,
+        /** Format data as a short duration in nanoseconds (e.g., ns, us, ms), for the latency of one operation. */
+        LATENCY
     }
 
     private final String tableName;
     private final String[] colHeaders;
     private final String[] rowHeaders;
-    private final ArrayList<long[]> dataRows;
+    private final ArrayList<long[]> dataRows; // the value of each cell, or its mean for a row of statistics
+    private final ArrayList<Statistics[]> statisticRows; // the statistics of each row, or null for a row of plain values
 
     /**
      * Constructs a new DataTable instance with specified headers.
@@ -38,6 +41,7 @@ public class DataTable {
         this.colHeaders = colHeaders;
         this.rowHeaders = rowHeaders;
         this.dataRows = new ArrayList<>();
+        this.statisticRows = new ArrayList<>();
     }
 
     /**
@@ -47,52 +51,149 @@ public class DataTable {
      */
     public void AddRow(long[] values) {
         dataRows.add(values);
+        statisticRows.add(null);
     }
 
     /**
-     * Prints the table in the specified format (TIME, MEMORY, or CSV).
+     * Adds a row of repeated measurements to the table. {@link #print(Format)} and {@link #printCSV(long)} show
+     * the mean of each cell, and {@link #printSummary(Format)} shows the full summaries.
+     *
+     * @param values The statistics to add as a row.
+     */
+    public void AddRow(Statistics[] values) {
+        long[] means = new long[values.length];
+        for (int i = 0; i < values.length; i++) means[i] = Math.round(values[i].mean());
+        dataRows.add(means);
+        statisticRows.add(values);
+    }
+
+    /**
+     * Adds every cell of the rows of repeated measurements to a results store, so that the run can be compared
+     * with later ones. Rows of plain values are left out, as they cannot be tested for significance.
+     *
+     * @param store The store to add the results to.
+     */
+    public void record(ResultsStore store) {
+        for (int i = 0; i < statisticRows.size(); i++) {
+            Statistics[] statisticRow = statisticRows.get(i);
+            if (statisticRow == null) continue;
+            for (int j = 0; j < statisticRow.length; j++) {
+                store.add(tableName, rowHeaders[i], colHeaders[j + 1], statisticRow[j]);
+            }
+        }
+    }
+
+    /**
+     * Prints the table in the specified format (TIME, MEMORY, or CSV). A cell holding repeated measurements
+     * shows their mean and the half-width of its 95% confidence interval.
      *
      * @param format The desired output format.
      */
     public void print(Format format) {
+        ArrayList<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < dataRows.size(); i++) {
+            long[] dataRow = dataRows.get(i);
+            Statistics[] statisticRow = statisticRows.get(i);
+            String[] rowAsStrings = new String[dataRow.length + 1];
+            rowAsStrings[0] = rowHeaders[i];
+            for (int j = 0; j < dataRow.length; j++) {
+                rowAsStrings[j + 1] = format(dataRow[j], format);
+                if (statisticRow != null && statisticRow[j].count() > 1)
+                    rowAsStrings[j + 1] += " +/- " + format(Math.round(statisticRow[j].confidenceInterval95()), format);
+            }
+            rows.add(rowAsStrings);
+        }
+        printTable(rows);
+    }
+
+    /**
+     * Prints the full summary of every cell: the mean, median, standard deviation, minimum, maximum and 95%
+     * confidence interval of its measurements, and the operations per second their mean amounts to. Rows of
+     * plain values are printed as they are.
+     *
+     * @param format The desired output format for the measurements.
+     */
+    public void printSummary(Format format) {
+        String[] statisticNames = new String[] {"Mean", "Median", "Std Dev", "Min", "Max", "95% CI", "Ops/sec"};
+        ArrayList<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < dataRows.size(); i++) {
+            long[] dataRow = dataRows.get(i);
+            Statistics[] statisticRow = statisticRows.get(i);
+            if (statisticRow == null) {
+                String[] rowAsStrings = new String[dataRow.length + 1];
+                rowAsStrings[0] = rowHeaders[i];
+                for (int j = 0; j < dataRow.length; j++) rowAsStrings[j + 1] = format(dataRow[j], format);
+                rows.add(rowAsStrings);
+                continue;
+            }
+
+            for (int k = 0; k < statisticNames.length; k++) {
+                String[] rowAsStrings = new String[statisticRow.length + 1];
+                rowAsStrings[0] = (k == 0 ? rowHeaders[i] + " " : "  ") + statisticNames[k];
+                for (int j = 0; j < statisticRow.length; j++) {
+                    Statistics statistics = statisticRow[j];
+                    switch (k) {
+                        case 0: rowAsStrings[j + 1] = format(Math.round(statistics.mean()), format); break;
+                        case 1: rowAsStrings[j + 1] = format(Math.round(statistics.median()), format); break;
+                        case 2: rowAsStrings[j + 1] = format(Math.round(statistics.standardDeviation()), format); break;
+                        case 3: rowAsStrings[j + 1] = format(statistics.min(), format); break;
+                        case 4: rowAsStrings[j + 1] = format(statistics.max(), format); break;
+                        case 5:
+                            double halfWidth = statistics.confidenceInterval95();
+                            rowAsStrings[j + 1] = format(Math.round(statistics.mean() - halfWidth), format)
+                                    + " to " + format(Math.round(statistics.mean() + halfWidth), format);
+                            break;
+                        default: rowAsStrings[j + 1] = Main.df.format(Math.round(statistics.opsPerSecond())); break;
+                    }
+                }
+                rows.add(rowAsStrings);
+            }
+        }
+        printTable(rows);
+    }
+
+    /**
+     * Prints the title, the column headers and the given rows, padding every column to its widest cell.
+     *
+     * @param rows The rows, each starting with its header.
+     */
+    private void printTable(ArrayList<String[]> rows) {
         // find the column widths by finding the string of maximum length between the headers and the data
         int[] columnWidths = new int[colHeaders.length];
         for (int i = 0; i < colHeaders.length; i++) {
             columnWidths[i] = colHeaders[i].length();
         }
-        for (String rowHeader : rowHeaders) {
-            columnWidths[0] = Math.max(columnWidths[0], rowHeader.length());
-        }
-        for (long[] dataRow : dataRows) {
-            for (int i = 0; i < dataRow.length; i++) {
-                columnWidths[i] = Math.max(columnWidths[i], formatTime(dataRow[i]).length() + 3);
+        for (String[] row : rows) {
+            columnWidths[0] = Math.max(columnWidths[0], row[0].length());
+            for (int i = 1; i < row.length; i++) {
+                columnWidths[i] = Math.max(columnWidths[i], row[i].length() + 3);
             }
         }
 
         // print the title
         System.out.println(tableName);
         printRow(colHeaders, columnWidths);
+        for (String[] row : rows) printRow(row, columnWidths);
+    }
 
-        // Convert the numerical data rows into a string array
-        for (int i = 0; i < dataRows.size(); i++) {
-            String[] rowAsStrings = new String[dataRows.get(i).length + 1];
-            long[] dataRow = dataRows.get(i);
-            rowAsStrings[0] = rowHeaders[i];
-            for (int j = 0; j < dataRow.length; j++) {
-                switch (format) {
-                    case TIME:
-                        rowAsStrings[j + 1] = formatTime(dataRow[j]);
-                        break;
-                    case MEMORY:
-                        rowAsStrings[j + 1] = formatMemory(dataRow[j]);
-                        break;
-                    case CSV:
-                    default:
-                        rowAsStrings[j + 1] = "" + dataRow[j];
-                        break;
-                }
-            }
-            printRow(rowAsStrings, columnWidths);
+    /**
+     * Formats a single value.
+     *
+     * @param value The value.
+     * @param format The desired output format.
+     * @return The formatted value.
+     */
+    private static String format(long value, Format format) {
+        switch (format) {
+            case TIME:
+                return formatTime(value);
+            case MEMORY:
+                return formatMemory(value);
+            case LATENCY:
+                return formatLatency(value);
+            case CSV:
+            default:
+                return "" + value;
         }
     }
 
@@ -171,6 +272,25 @@ public class DataTable {
             return bytes + " B";
     }
 
+    /**
+     * Converts a short duration in nanoseconds to a formatted string.
+     *
+     * @param nanoseconds The time in nanoseconds.
+     * @return A string representation in nanoseconds, microseconds, or milliseconds.
+     */
+    private static String formatLatency(long nanoseconds) {
+        final long MICRO = 1_000;
+        final long MILLI = 1_000_000;
+        DecimalFormat df = new DecimalFormat("#.#");
+
+        if (nanoseconds >= MILLI)
+            return df.format((double) nanoseconds / MILLI) + " ms";
+        else if (nanoseconds >= MICRO)
+            return df.format((double) nanoseconds / MICRO) + " us";
+        else
+            return nanoseconds + " ns";
+    }
+
     /**
      * Converts a time duration in nanoseconds to a formatted string.
      *
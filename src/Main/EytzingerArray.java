@@ -0,0 +1,109 @@
+package Main;
+
+import java.util.Iterator;
+
+/**
+ * A read-only ordered set stored in Eytzinger (breadth-first) order, as produced by {@link AVLTree#freeze()}
+ * and {@link SplayTree#freeze()}.
+ *
+ * Slot 1 holds the root of an implicit complete binary search tree and the children of slot k are slots 2k
+ * and 2k + 1, so a search is a loop of index arithmetic with no node objects and no child pointers: one
+ * reference per key. The first levels of every search share the same few cache lines, and the descent has no
+ * data-dependent branch, because the comparison result is added to the index rather than branched on.
+ *
+ * Unlike C++, Java has no explicit prefetch instruction, so the usual trick of prefetching the sixteen
+ * great-great-grandchildren of each slot is left to the hardware prefetcher. {@link IntEytzingerArray} is
+ * the primitive counterpart, which also avoids dereferencing a boxed key at every level.
+ *
+ * @param <T> The type of elements stored in the array. Must be Comparable.
+ */
+public class EytzingerArray<T extends Comparable<T>> {
+    private final Object[] keys; // slot 0 is unused, so the children of slot k are 2k and 2k + 1
+    private final int size;
+
+    /**
+     * Lays out keys supplied in strictly ascending order.
+     *
+     * @param sortedKeys An iterator over the keys in strictly ascending order.
+     * @param count The number of keys to take from the iterator.
+     * @throws IllegalArgumentException If the iterator runs out early or the keys are not strictly ascending.
+     */
+    public EytzingerArray(Iterator<? extends T> sortedKeys, int count) {
+        this.size = count;
+        this.keys = new Object[count + 1];
+        fill(sortedKeys, 1, null);
+    }
+
+    /**
+     * Writes the keys into the subtree rooted at a slot with an in-order walk of the implicit tree.
+     *
+     * @param sortedKeys The remaining keys.
+     * @param slot The root of the subtree to fill.
+     * @param previous The key written just before this subtree, to check the ordering.
+     * @return The last key written.
+     */
+    @SuppressWarnings("unchecked")
+    private T fill(Iterator<? extends T> sortedKeys, int slot, T previous) {
+        if (slot > size) return previous;
+        previous = fill(sortedKeys, 2 * slot, previous);
+
+        if (!sortedKeys.hasNext())
+            throw new IllegalArgumentException("Iterator ran out before the requested number of keys");
+        T key = sortedKeys.next();
+        if (previous != null && previous.compareTo(key) >= 0)
+            throw new IllegalArgumentException("Keys are not in strictly ascending order: " + previous + ", " + key);
+        keys[slot] = key;
+
+        return fill(sortedKeys, 2 * slot + 1, key);
+    }
+
+    /**
+     * Finds the slot of the smallest key greater than or equal to the given key.
+     *
+     * @param key The key to look for.
+     * @return The slot, or 0 if every key is smaller.
+     */
+    @SuppressWarnings("unchecked")
+    private int lowerBound(T key) {
+        int slot = 1;
+        while (slot <= size) {
+            // go right exactly when the slot's key is smaller; the sign bit of compareTo is that condition
+            slot = 2 * slot + (((T) keys[slot]).compareTo(key) >>> 31);
+        }
+        // the path went right past the answer and then left once; undo the trailing right turns and that left turn
+        return slot >>> (Integer.numberOfTrailingZeros(~slot) + 1);
+    }
+
+    /**
+     * Searches for the specified element.
+     *
+     * @param element The element to search for.
+     * @return The stored element if found, or null if not found.
+     */
+    @SuppressWarnings("unchecked")
+    public T search(T element) {
+        int slot = lowerBound(element);
+        return (slot != 0 && ((T) keys[slot]).compareTo(element) == 0) ? (T) keys[slot] : null;
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the given key.
+     *
+     * @param key The key to compare against.
+     * @return The ceiling element, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public T ceiling(T key) {
+        int slot = lowerBound(key);
+        return slot == 0 ? null : (T) keys[slot];
+    }
+
+    /**
+     * Returns the number of elements in the array.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+}
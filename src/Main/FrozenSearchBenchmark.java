@@ -0,0 +1,110 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Measures random lookups in frozen {@link EytzingerArray} and {@link IntEytzingerArray} copies of a key set,
+ * next to the live {@link AVLTree} and {@link SplayTree} they were frozen from and a plain sorted array
+ * searched with {@link Arrays#binarySearch}.
+ */
+public class FrozenSearchBenchmark {
+    public static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    public static final int LOOKUPS = 1_000_000;
+    public static final int ITERATIONS_PER_SIZE = 5;
+
+    public static final String[] rowHeaders = new String[] {
+            "AVL Tree", "Splay Tree", "Eytzinger Array", "Arrays.binarySearch (Integer[])",
+            "Int Eytzinger Array", "Arrays.binarySearch (int[])"
+    };
+
+    /** Accumulates lookup results so the JIT cannot discard the searches. */
+    private static long sink;
+
+    public static void main(String[] args) {
+        String[] colHeaders = new String[SIZES.length + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 0; i < SIZES.length; i++) {
+            colHeaders[i + 1] = Main.df.format(SIZES[i]) + " Keys";
+        }
+
+        long[][] rows = new long[rowHeaders.length][SIZES.length];
+        Random random = new Random(1);
+        for (int s = 0; s < SIZES.length; s++) {
+            int n = SIZES[s];
+            // the even numbers below 2n, so that half of the uniformly drawn lookups miss
+            int[] keys = new int[n];
+            Integer[] boxedKeys = new Integer[n];
+            for (int i = 0; i < n; i++) boxedKeys[i] = keys[i] = 2 * i;
+            int[] lookups = new int[LOOKUPS];
+            Integer[] boxedLookups = new Integer[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) boxedLookups[i] = lookups[i] = random.nextInt(2 * n);
+
+            AVLTree<Integer> avlTree = new AVLTree<Integer>(boxedKeys);
+            SplayTree<Integer> splayTree = new SplayTree<Integer>();
+            Integer[] shuffledKeys = boxedKeys.clone();
+            Collections.shuffle(Arrays.asList(shuffledKeys), random); // random order keeps the splay tree shallow
+            for (Integer key : shuffledKeys) splayTree.insert(key);
+            EytzingerArray<Integer> eytzinger = avlTree.freeze();
+            IntEytzingerArray intEytzinger = new IntEytzingerArray(keys);
+
+            for (int i = 0; i < ITERATIONS_PER_SIZE; i++) {
+                rows[0][s] += time(boxedLookups, key -> avlTree.search(key) != null);
+                rows[1][s] += time(boxedLookups, key -> splayTree.search(key) != null);
+                rows[2][s] += time(boxedLookups, key -> eytzinger.search(key) != null);
+                rows[3][s] += time(boxedLookups, key -> Arrays.binarySearch(boxedKeys, key) >= 0);
+                rows[4][s] += time(lookups, intEytzinger::contains);
+                rows[5][s] += time(lookups, key -> Arrays.binarySearch(keys, key) >= 0);
+            }
+            for (long[] row : rows) row[s] /= ITERATIONS_PER_SIZE;
+        }
+
+        DataTable table = new DataTable("Time for " + Main.df.format(LOOKUPS) + " Random Lookups", colHeaders, rowHeaders);
+        for (long[] row : rows) table.AddRow(row);
+        table.print(Format.TIME);
+        System.out.println("\n");
+        table.printCSV(Main.CSV_TIME_FACTOR);
+        System.out.println("\n(" + sink + " hits)");
+    }
+
+    /**
+     * Times a batch of boxed lookups.
+     *
+     * @param lookups The keys to look up.
+     * @param search The lookup, returning whether the key was found.
+     * @return The time taken in nanoseconds.
+     */
+    private static long time(Integer[] lookups, Predicate<Integer> search) {
+        long hits = 0;
+        long startTime = System.nanoTime();
+        for (Integer key : lookups) {
+            if (search.test(key)) hits++;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        sink += hits;
+        return elapsed;
+    }
+
+    /**
+     * Times a batch of primitive lookups.
+     *
+     * @param lookups The keys to look up.
+     * @param search The lookup, returning whether the key was found.
+     * @return The time taken in nanoseconds.
+     */
+    private static long time(int[] lookups, IntPredicate search) {
+        long hits = 0;
+        long startTime = System.nanoTime();
+        for (int key : lookups) {
+            if (search.test(key)) hits++;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        sink += hits;
+        return elapsed;
+    }
+}
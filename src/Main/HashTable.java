@@ -156,6 +156,22 @@ public class HashTable<K, V> implements BaseOperations<V> {
         this(collisionBehavior, valueToKeyConverter, 0, 1);
     }
 
+    /**
+     * Returns the number of buckets a table has after the given number of distinct keys were inserted into an
+     * empty one, following the same growth rule as {@link #put(Object, Object)}. Keys whose hash codes are equal
+     * modulo this number all land in the same bucket of such a table.
+     *
+     * @param insertions The number of distinct keys inserted, with no deletes in between.
+     * @return The number of buckets.
+     */
+    public static int capacityAfter(int insertions) {
+        int capacity = INITIAL_CAPACITY;
+        for (int size = 0; size < insertions; size++) {
+            if ((double) size / capacity >= MAX_LOAD_FACTOR) capacity = nextPrime(capacity * 2);
+        }
+        return capacity;
+    }
+
     /**
      * Adds a value to the table with a given key.
      *
@@ -184,6 +200,7 @@ public class HashTable<K, V> implements BaseOperations<V> {
 
                 bucket = table[index];
                 Entry<K, V> firstEntry = bucket.getFirst();
+                if (firstEntry != null && firstEntry.isDeleted) bucket.entries.clear(); // reuse the deleted entry's slot
                 if (firstEntry == null || firstEntry.isDeleted) return RetVals.NO_COLLISIONS.andDo(simpleAdd(bucket, toAdd));
                 break;
 
@@ -315,7 +332,7 @@ public class HashTable<K, V> implements BaseOperations<V> {
             i++;
         }
 
-        return -1;
+        return forInsert ? firstDeletedSlot : -1;
     }
 
     private void resize() {
@@ -329,14 +346,15 @@ public class HashTable<K, V> implements BaseOperations<V> {
         }
     }
 
-    private int nextPrime(int n) {
+    private static int nextPrime(int n) {
         while (!isPrime(n)) n++;
         return n;
     }
 
-    private boolean isPrime(int n) {
+    private static boolean isPrime(int n) {
         if (n <= 1) return false;
         if (n <= 3) return true;
+        if (n % 2 == 0 || n % 3 == 0) return false;
         for (int i = 5; i * i <= n; i++) {
             if (n % i == 0) return false;
         }
@@ -0,0 +1,76 @@
+package Main;
+
+/**
+ * The primitive counterpart of {@link EytzingerArray}: a read-only set of ints in Eytzinger (breadth-first)
+ * order, taking four bytes per key. A cache line holds sixteen keys, so a search touches one new line only
+ * every four levels once the top of the tree is cached.
+ */
+public class IntEytzingerArray {
+    private final int[] keys; // slot 0 is unused, so the children of slot k are 2k and 2k + 1
+    private final int size;
+
+    /**
+     * Lays out keys given in strictly ascending order.
+     *
+     * @param sortedKeys The keys in strictly ascending order. The array is not retained.
+     * @throws IllegalArgumentException If the keys are not strictly ascending.
+     */
+    public IntEytzingerArray(int[] sortedKeys) {
+        for (int i = 1; i < sortedKeys.length; i++) {
+            if (sortedKeys[i - 1] >= sortedKeys[i])
+                throw new IllegalArgumentException("Keys are not in strictly ascending order: " + sortedKeys[i - 1] + ", " + sortedKeys[i]);
+        }
+        this.size = sortedKeys.length;
+        this.keys = new int[size + 1];
+        fill(sortedKeys, 0, 1);
+    }
+
+    /**
+     * Writes the keys into the subtree rooted at a slot with an in-order walk of the implicit tree.
+     *
+     * @param sortedKeys The keys in ascending order.
+     * @param next The index of the next key to write.
+     * @param slot The root of the subtree to fill.
+     * @return The index of the next key to write after this subtree.
+     */
+    private int fill(int[] sortedKeys, int next, int slot) {
+        if (slot > size) return next;
+        next = fill(sortedKeys, next, 2 * slot);
+        keys[slot] = sortedKeys[next++];
+        return fill(sortedKeys, next, 2 * slot + 1);
+    }
+
+    /**
+     * Finds the slot of the smallest key greater than or equal to the given key.
+     *
+     * @param key The key to look for.
+     * @return The slot, or 0 if every key is smaller.
+     */
+    private int lowerBound(int key) {
+        int slot = 1;
+        while (slot <= size) {
+            slot = 2 * slot + (keys[slot] < key ? 1 : 0); // compiled to a conditional move, not a branch
+        }
+        return slot >>> (Integer.numberOfTrailingZeros(~slot) + 1);
+    }
+
+    /**
+     * Checks whether the specified key is present.
+     *
+     * @param key The key to look for.
+     * @return True if the key is present.
+     */
+    public boolean contains(int key) {
+        int slot = lowerBound(key);
+        return slot != 0 && keys[slot] == key;
+    }
+
+    /**
+     * Returns the number of keys in the array.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,78 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Reports the distribution of the latency of single operations, which the batch times of {@link Main} average
+ * away: the resizes of a {@link HashTable}, the deep splays of a {@link SplayTree} and the rebalancing cascades
+ * of an {@link AVLTree} only show up in the tail percentiles.
+ *
+ * If a directory is given as the first argument, the full distribution of every structure, operation and
+ * dataset size is also exported there as CSV, one file each.
+ */
+public class LatencyBenchmark {
+    public static final String[] colHeaders = new String[] {
+            "Data Structure", "p50", "p99", "p99.9", "Max"
+    };
+    public static final double[] percentiles = new double[] {50, 99, 99.9};
+    public static final String[] operations = new String[] {"Insert", "Search", "Delete"};
+
+    public static void main(String[] args) throws FileNotFoundException {
+        File exportDirectory = args.length > 0 ? new File(args[0]) : null;
+        if (exportDirectory != null && !exportDirectory.isDirectory() && !exportDirectory.mkdirs())
+            throw new FileNotFoundException("Cannot create the export directory " + exportDirectory);
+
+        Integer[][] datasets = Main.datasets();
+        int[] sizes = Main.SIZES;
+
+        ArrayList<Benchmarker<Integer>> benchmarkers = new ArrayList<>();
+        for (Supplier<BaseOperations<Integer>> structure : Main.structures()) {
+            benchmarkers.add(new Benchmarker<Integer>(structure, Main.WARMUP_ROUNDS, Main.TRIALS));
+        }
+
+        // histograms[structure][operation][dataset]; every round starts on a fresh instance, which searches and deletes find populated
+        LatencyHistogram[][][] histograms = new LatencyHistogram[benchmarkers.size()][operations.length][];
+        for (int s = 0; s < benchmarkers.size(); s++) {
+            Benchmarker<Integer> benchmarker = benchmarkers.get(s);
+            histograms[s][0] = benchmarker.benchmarkInsertLatency(datasets);
+            histograms[s][1] = benchmarker.benchmarkSearchLatency(datasets);
+            histograms[s][2] = benchmarker.benchmarkDeleteLatency(datasets);
+        }
+
+        String[] rowHeaders = new String[benchmarkers.size() * sizes.length];
+        for (int s = 0; s < benchmarkers.size(); s++) {
+            for (int d = 0; d < sizes.length; d++) {
+                rowHeaders[s * sizes.length + d] = Main.rowHeaders[s] + " (" + Main.df.format(sizes[d]) + ")";
+            }
+        }
+
+        for (int o = 0; o < operations.length; o++) {
+            DataTable table = new DataTable(operations[o] + " Latency per Operation", colHeaders, rowHeaders);
+            for (int s = 0; s < benchmarkers.size(); s++) {
+                for (int d = 0; d < sizes.length; d++) {
+                    LatencyHistogram histogram = histograms[s][o][d];
+                    long[] row = new long[percentiles.length + 1];
+                    for (int p = 0; p < percentiles.length; p++) row[p] = histogram.valueAtPercentile(percentiles[p]);
+                    row[percentiles.length] = histogram.max();
+                    table.AddRow(row);
+
+                    if (exportDirectory != null) {
+                        String name = (Main.rowHeaders[s] + " " + operations[o] + " " + sizes[d])
+                                .replaceAll("[^A-Za-z0-9]+", "-").toLowerCase() + ".csv";
+                        try (PrintStream out = new PrintStream(new File(exportDirectory, name))) {
+                            histogram.exportCSV(out);
+                        }
+                    }
+                }
+            }
+            table.print(Format.LATENCY);
+            System.out.println("\n");
+        }
+    }
+}
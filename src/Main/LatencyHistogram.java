@@ -0,0 +1,144 @@
+package Main;
+
+import java.io.PrintStream;
+
+/**
+ * A histogram of latencies in nanoseconds with logarithmic buckets, in the manner of HdrHistogram.
+ *
+ * Values below 128 are counted exactly. Above that, each power-of-two range [2^e, 2^(e+1)) is split into 128
+ * equal sub-buckets, so every value is recorded to within 1/128 (under 1%) of itself, whatever its magnitude.
+ * Recording is a couple of shifts and an array increment, so it can be done for every operation of a
+ * benchmark without disturbing it, and the memory taken is fixed (about 57 KB) however many values are recorded.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // exact values below SUB_BUCKET_COUNT, then SUB_BUCKET_COUNT sub-buckets for each exponent up to 62
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /**
+     * Records a value.
+     *
+     * @param value The value, in nanoseconds.
+     * @throws IllegalArgumentException If the value is negative.
+     */
+    public void record(long value) {
+        if (value < 0) throw new IllegalArgumentException("Latencies cannot be negative: " + value);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) counts[i] += other.counts[i];
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     */
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowest = (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return The count.
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest value recorded, exactly.
+     *
+     * @return The minimum, or 0 if nothing was recorded.
+     */
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the largest value recorded, exactly.
+     *
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the values recorded, exactly.
+     *
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double mean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values lie, to within the
+     * precision of the buckets. Like HdrHistogram, this reports the top of the bucket the percentile falls
+     * into, so the result never understates a latency (but never exceeds the maximum).
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The value at the percentile, or 0 if nothing was recorded.
+     * @throws IllegalArgumentException If the percentile is outside [0, 100].
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+        if (totalCount == 0) return 0;
+        long target = Math.max(1, (long) (percentile / 100 * totalCount + 0.5)); // rounded, as floating point can overshoot
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(highestValueOf(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Writes the full distribution as CSV, one line per non-empty bucket: the highest value of the bucket in
+     * nanoseconds, the number of values in it, and the percentage of all values at or below it.
+     *
+     * @param out Where to write the distribution.
+     */
+    public void exportCSV(PrintStream out) {
+        out.println("\"Value (ns)\",\"Count\",\"Percentile\"");
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) continue;
+            seen += counts[i];
+            out.println(Math.min(highestValueOf(i), max) + "," + counts[i] + "," + (100.0 * seen / totalCount));
+        }
+    }
+}
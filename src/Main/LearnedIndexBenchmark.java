@@ -0,0 +1,133 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Measures the build time, index size and lookup time of {@link PGMIndex} at several error bounds,
+ * next to an {@link IntEytzingerArray} and {@link Arrays#binarySearch} over the same sorted keys.
+ */
+public class LearnedIndexBenchmark {
+    public static final int[] SIZES = {100_000, 1_000_000, 10_000_000};
+    public static final int[] EPSILONS = {16, 64, 256};
+    public static final int LOOKUPS = 1_000_000;
+    public static final int ITERATIONS_PER_SIZE = 5;
+
+    /** Accumulates lookup results so the JIT cannot discard the searches. */
+    private static long sink;
+
+    public static void main(String[] args) {
+        String[] colHeaders = new String[SIZES.length + 1];
+        colHeaders[0] = "Index";
+        for (int i = 0; i < SIZES.length; i++) {
+            colHeaders[i + 1] = Main.df.format(SIZES[i]) + " Keys";
+        }
+        String[] rowHeaders = new String[EPSILONS.length + 2];
+        for (int i = 0; i < EPSILONS.length; i++) {
+            rowHeaders[i] = "PGM Index (epsilon = " + EPSILONS[i] + ")";
+        }
+        rowHeaders[EPSILONS.length] = "Int Eytzinger Array";
+        rowHeaders[EPSILONS.length + 1] = "Arrays.binarySearch";
+
+        long[][] buildTimes = new long[rowHeaders.length][SIZES.length];
+        long[][] sizes = new long[rowHeaders.length][SIZES.length];
+        long[][] lookupTimes = new long[rowHeaders.length][SIZES.length];
+        Random random = new Random(1);
+        for (int s = 0; s < SIZES.length; s++) {
+            int[] keys = randomSortedKeys(SIZES[s], random);
+            int[] lookups = new int[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) lookups[i] = keys[0] + random.nextInt(keys[keys.length - 1] - keys[0]);
+
+            for (int e = 0; e < EPSILONS.length; e++) {
+                int epsilon = EPSILONS[e];
+                PGMIndex index = build(() -> new PGMIndex(keys, epsilon), buildTimes[e], s);
+                sizes[e][s] = index.sizeInBytes();
+                lookupTimes[e][s] = time(lookups, index::contains);
+            }
+
+            int eytzingerRow = EPSILONS.length;
+            IntEytzingerArray eytzinger = build(() -> new IntEytzingerArray(keys), buildTimes[eytzingerRow], s);
+            sizes[eytzingerRow][s] = 4L * eytzinger.size(); // a full copy of the keys
+            lookupTimes[eytzingerRow][s] = time(lookups, eytzinger::contains);
+
+            // the binary search needs no structure beyond the sorted keys themselves
+            lookupTimes[eytzingerRow + 1][s] = time(lookups, key -> Arrays.binarySearch(keys, key) >= 0);
+        }
+
+        printTable("Build Time", colHeaders, rowHeaders, buildTimes, Format.TIME, Main.CSV_TIME_FACTOR);
+        printTable("Index Size (excluding the keys)", colHeaders, rowHeaders, sizes, Format.MEMORY, Main.CSV_BYTE_FACTOR);
+        printTable("Time for " + Main.df.format(LOOKUPS) + " Random Lookups", colHeaders, rowHeaders, lookupTimes, Format.TIME, Main.CSV_TIME_FACTOR);
+        System.out.println("(" + sink + " hits)");
+    }
+
+    /**
+     * Generates distinct sorted keys with random gaps of 1 to 200, so the key density varies along the range.
+     *
+     * @param n The number of keys.
+     * @param random The source of the gaps.
+     * @return The keys in strictly ascending order.
+     */
+    private static int[] randomSortedKeys(int n, Random random) {
+        int[] keys = new int[n];
+        int key = 0;
+        for (int i = 0; i < n; i++) {
+            key += 1 + random.nextInt(200);
+            keys[i] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Builds an index {@link #ITERATIONS_PER_SIZE} times and records the average build time.
+     *
+     * @param builder Builds the index.
+     * @param row The row of build times to record into.
+     * @param column The column to record into.
+     * @return The last index built.
+     */
+    private static <I> I build(Supplier<I> builder, long[] row, int column) {
+        I index = null;
+        long total = 0;
+        for (int i = 0; i < ITERATIONS_PER_SIZE; i++) {
+            long startTime = System.nanoTime();
+            index = builder.get();
+            total += System.nanoTime() - startTime;
+        }
+        row[column] = total / ITERATIONS_PER_SIZE;
+        return index;
+    }
+
+    /**
+     * Times the lookups {@link #ITERATIONS_PER_SIZE} times.
+     *
+     * @param lookups The keys to look up.
+     * @param search The lookup, returning whether the key was found.
+     * @return The average time for all the lookups in nanoseconds.
+     */
+    private static long time(int[] lookups, IntPredicate search) {
+        long total = 0;
+        for (int i = 0; i < ITERATIONS_PER_SIZE; i++) {
+            long hits = 0;
+            long startTime = System.nanoTime();
+            for (int key : lookups) {
+                if (search.test(key)) hits++;
+            }
+            total += System.nanoTime() - startTime;
+            sink += hits;
+        }
+        return total / ITERATIONS_PER_SIZE;
+    }
+
+    private static void printTable(String title, String[] colHeaders, String[] rowHeaders, long[][] rows, Format format, long csvFactor) {
+        DataTable table = new DataTable(title, colHeaders, rowHeaders);
+        for (long[] row : rows) table.AddRow(row);
+        table.print(format);
+        System.out.println("\n");
+        table.printCSV(csvFactor);
+        System.out.println("\n");
+    }
+}
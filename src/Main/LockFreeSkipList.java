@@ -0,0 +1,219 @@
+package Main;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free concurrent skip list in the style of Harris and Fraser, following the LockFreeSkipList of
+ * Herlihy and Shavit, "The Art of Multiprocessor Programming".
+ *
+ * Every forward link carries a mark bit. A delete first marks the victim's links from the top level down
+ * (logical deletion, linearized at the bottom-level mark), and traversals that meet a marked node unlink it
+ * with a compare-and-set (physical deletion). An insert links the new node at the bottom level with one
+ * compare-and-set, which is its linearization point, and then links the upper levels. Searches never write.
+ * Levels are drawn from the calling thread's {@link ThreadLocalRandom}, so there is no shared random state.
+ *
+ * @param <T> The type of elements stored in the list. Must be Comparable.
+ */
+public class LockFreeSkipList<T extends Comparable<T>> implements BaseOperations<T> {
+
+    /** The highest level a node can have; 25 levels index well beyond ten million elements. */
+    private static final int MAX_LEVEL = 24;
+
+    /**
+     * Represents a node in the skip list.
+     */
+    private static final class Node<T> {
+        final T key;
+        final AtomicMarkableReference<Node<T>>[] next; // the successor at each level; marked once the node is deleted
+        final int topLevel;
+
+        @SuppressWarnings("unchecked")
+        Node(T key, int topLevel) {
+            this.key = key;
+            this.topLevel = topLevel;
+            this.next = (AtomicMarkableReference<Node<T>>[]) new AtomicMarkableReference<?>[topLevel + 1];
+            for (int level = 0; level <= topLevel; level++) {
+                next[level] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    /** A sentinel that precedes every node at every level. A null link marks the end of a level. */
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+
+    /** The number of elements in the list. */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Draws a level from a geometric distribution with p = 1/2.
+     *
+     * @return A level between 0 and MAX_LEVEL.
+     */
+    private static int randomLevel() {
+        return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << MAX_LEVEL));
+    }
+
+    /**
+     * Finds the predecessor and successor of a key at every level, unlinking any marked node on the way.
+     * Restarts from the head if an unlink fails, since the predecessor has changed.
+     *
+     * @param key The key to look for.
+     * @param preds Receives, for each level, the last node with a smaller key.
+     * @param succs Receives, for each level, the first node with a key greater than or equal to the key.
+     * @return True if an unmarked node with the key is linked at the bottom level.
+     */
+    private boolean find(T key, Node<T>[] preds, Node<T>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<T> pred = head;
+            Node<T> curr = null;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (curr != null) {
+                    Node<T> succ = curr.next[level].get(marked);
+                    while (marked[0]) {
+                        // curr is deleted: unlink it at this level before moving on
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) continue retry;
+                        curr = succ;
+                        if (curr == null) break;
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (curr == null || curr.key.compareTo(key) >= 0) break;
+                    pred = curr;
+                    curr = succ;
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != null && curr.key.compareTo(key) == 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newPath() {
+        return (Node<T>[]) new Node<?>[MAX_LEVEL + 1];
+    }
+
+    /**
+     * Inserts the specified element if it is not already present.
+     *
+     * @param element The element to insert.
+     * @return True if the element was inserted, false if it was already present.
+     */
+    @Override
+    public boolean insert(T element) {
+        if (element == null) return false;
+        int topLevel = randomLevel();
+        Node<T>[] preds = newPath();
+        Node<T>[] succs = newPath();
+
+        while (true) {
+            if (find(element, preds, succs)) return false;
+
+            Node<T> newNode = new Node<>(element, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                newNode.next[level].set(succs[level], false);
+            }
+
+            // linking the bottom level makes the element visible
+            if (!preds[0].next[0].compareAndSet(succs[0], newNode, false, false)) continue;
+            size.increment();
+
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node<T> pred = preds[level];
+                    Node<T> succ = succs[level];
+
+                    // point the new node at the current successor, unless a delete has already marked it
+                    Node<T> expected = newNode.next[level].getReference();
+                    if (expected != succ && !newNode.next[level].compareAndSet(expected, succ, false, false)) return true;
+
+                    if (pred.next[level].compareAndSet(succ, newNode, false, false)) break;
+
+                    // the predecessor changed; stop if the new node has meanwhile been deleted
+                    if (!find(element, preds, succs) || succs[0] != newNode) return true;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the specified element.
+     *
+     * @param element The element to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @Override
+    public T delete(T element) {
+        Node<T>[] preds = newPath();
+        Node<T>[] succs = newPath();
+        boolean[] marked = {false};
+
+        if (!find(element, preds, succs)) return null;
+        Node<T> victim = succs[0];
+
+        // mark the upper levels first, so no insert can link past the victim
+        for (int level = victim.topLevel; level >= 1; level--) {
+            Node<T> succ = victim.next[level].get(marked);
+            while (!marked[0]) {
+                victim.next[level].compareAndSet(succ, succ, false, true);
+                succ = victim.next[level].get(marked);
+            }
+        }
+
+        // whoever marks the bottom level deletes the element
+        Node<T> succ = victim.next[0].get(marked);
+        while (true) {
+            boolean markedByThisThread = victim.next[0].compareAndSet(succ, succ, false, true);
+            succ = victim.next[0].get(marked);
+            if (markedByThisThread) {
+                size.decrement();
+                find(element, preds, succs); // unlinks the victim
+                return victim.key;
+            } else if (marked[0]) {
+                return null; // another thread deleted it first
+            }
+        }
+    }
+
+    /**
+     * Searches for the specified element without writing to the list; marked nodes are skipped, not unlinked.
+     *
+     * @param element The element to search for.
+     * @return The element if found, or null if not found.
+     */
+    @Override
+    public T search(T element) {
+        boolean[] marked = {false};
+        Node<T> pred = head;
+        Node<T> curr = null;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (curr != null) {
+                Node<T> succ = curr.next[level].get(marked);
+                while (marked[0]) {
+                    curr = succ;
+                    if (curr == null) break;
+                    succ = curr.next[level].get(marked);
+                }
+                if (curr == null || curr.key.compareTo(element) >= 0) break;
+                pred = curr;
+                curr = succ;
+            }
+        }
+        return (curr != null && curr.key.compareTo(element) == 0) ? curr.key : null;
+    }
+
+    /**
+     * Returns the number of elements in the list. While updates are in flight this is only a moment-in-time estimate.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size.intValue();
+    }
+}
@@ -0,0 +1,96 @@
+package Main;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Makes any {@link BaseOperations} safe to share between threads by guarding every operation with one global lock.
+ * By default searches take the same exclusive lock as updates, since a search may restructure the data structure
+ * (as it does in a {@link SplayTree}); see {@link Locking} for the alternatives.
+ *
+ * @param <T> The type of elements handled by the data structure.
+ */
+public class LockedOperations<T> implements BaseOperations<T> {
+
+    /**
+     * The kinds of lock that can guard the data structure.
+     * <ul>
+     *     <li>Exclusive: a non-fair {@link ReentrantLock} for every operation.</li>
+     *     <li>Fair: a fair {@link ReentrantLock}, which hands the lock to the longest-waiting thread, trading
+     *     throughput for even latencies across threads.</li>
+     *     <li>ReadWrite: a {@link ReentrantReadWriteLock}, whose read lock lets searches run concurrently. Only
+     *     safe for data structures whose searches do not modify them, so not for a {@link SplayTree}.</li>
+     * </ul>
+     */
+    public enum Locking {
+        Exclusive, Fair, ReadWrite
+    }
+
+    private final BaseOperations<T> delegate;
+    private final Lock searchLock; // the lock taken by searches
+    private final Lock updateLock; // the lock taken by inserts and deletes
+
+    /**
+     * Wraps a data structure that is not thread-safe behind an exclusive lock.
+     *
+     * @param delegate The data structure to guard. It must not be used directly while wrapped.
+     */
+    public LockedOperations(BaseOperations<T> delegate) {
+        this(delegate, Locking.Exclusive);
+    }
+
+    /**
+     * Wraps a data structure that is not thread-safe.
+     *
+     * @param delegate The data structure to guard. It must not be used directly while wrapped.
+     * @param locking The kind of lock to guard it with.
+     */
+    public LockedOperations(BaseOperations<T> delegate, Locking locking) {
+        this.delegate = delegate;
+        switch (locking) {
+            case ReadWrite:
+                ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+                searchLock = readWriteLock.readLock();
+                updateLock = readWriteLock.writeLock();
+                break;
+            case Fair:
+                searchLock = updateLock = new ReentrantLock(true);
+                break;
+            case Exclusive:
+            default:
+                searchLock = updateLock = new ReentrantLock();
+                break;
+        }
+    }
+
+    @Override
+    public boolean insert(T element) {
+        updateLock.lock();
+        try {
+            return delegate.insert(element);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public T delete(T element) {
+        updateLock.lock();
+        try {
+            return delegate.delete(element);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public T search(T element) {
+        searchLock.lock();
+        try {
+            return delegate.search(element);
+        } finally {
+            searchLock.unlock();
+        }
+    }
+}
@@ -3,65 +3,95 @@ package Main;
 import Main.HashTable.CollisionBehavior;
 import Main.DataTable.Format;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
 
 public class Main {
     public static final int SMALL_N  = 1_000;
     public static final int MEDIUM_N = 10_000;
     public static final int LARGE_N  = 100_000;
-    public static final int ITERATIONS_PER_DATASET = 1; //for some reason, running more trials makes the averages decrease (I suspect the dataset is being cached or something)
+    public static final int WARMUP_ROUNDS = Benchmarker.DEFAULT_WARMUP_ROUNDS; // discarded, so JIT warm-up does not leak into the times
+    public static final int TRIALS = Benchmarker.DEFAULT_TRIALS;
     public static final long CSV_TIME_FACTOR = 1_000_000;
     public static final long CSV_BYTE_FACTOR = 1;//1_000;
+    public static final int[] SIZES = new int[] {SMALL_N, MEDIUM_N, LARGE_N};
+    public static final long SEED = 1; // fixed, so that runs compared with CompareResults time the same inputs
 
     public static DecimalFormat df = new DecimalFormat("#,###");
     public static final String[] colHeaders = new String[] {
             "Data Structure", (df.format(SMALL_N) + " Elements"), (df.format(MEDIUM_N) + " Elements"), (df.format(LARGE_N) + " Elements")
     };
     public static final String[] rowHeaders = new String[] {
-            "AVL Tree", "Splay Tree", "Hash Table (Chaining)", "Hash Table (Quadratic Probing)"
+            "AVL Tree", "Splay Tree", "B+ Tree", "Lock-free Skip List", "Roaring Bitmap", "Hash Table (Chaining)", "Hash Table (Quadratic Probing)"
     };
 
-    public static void main(String[] args) {
-        // generate the datasets
-        Integer[][] datasets = new Integer[3][];
-        datasets[0] = new Integer[SMALL_N];
-        datasets[1] = new Integer[MEDIUM_N];
-        datasets[2] = new Integer[LARGE_N];
+    /**
+     * Returns a factory for each structure that is benchmarked, in the order of {@link #rowHeaders}.
+     *
+     * @return The factories, each of which makes a new empty instance.
+     */
+    public static List<Supplier<BaseOperations<Integer>>> structures() {
+        return List.of(
+                AVLTree::new,
+                SplayTree::new,
+                BPlusTree::new,
+                LockFreeSkipList::new,
+                RoaringBitmap::new,
+                () -> new HashTable<Integer, Integer>(CollisionBehavior.Chaining, x -> x),
+                () -> new HashTable<Integer, Integer>(CollisionBehavior.QuadraticProbing, x -> x)
+        );
+    }
+
+    /**
+     * Generates one dataset of each of the {@link #SIZES}, with keys drawn uniformly from 1 to half the dataset
+     * size, so that many of them repeat. The keys come from {@link #SEED}, so every run gets the same datasets.
+     *
+     * @return The datasets, in the order of {@link #SIZES}.
+     */
+    public static Integer[][] datasets() {
+        Random random = new Random(SEED);
+        Integer[][] datasets = new Integer[SIZES.length][];
         for (int i = 0; i < datasets.length; i++) {
+            datasets[i] = new Integer[SIZES[i]];
             for (int j = 0; j < datasets[i].length; j++) {
-                datasets[i][j] = (int)(Math.random() * (datasets[i].length/2.0)) + 1;;
+                datasets[i][j] = random.nextInt(datasets[i].length / 2) + 1;
             }
         }
+        return datasets;
+    }
 
-
-        // create the benchmarkers
-        Benchmarker<Integer> avlTreeBenchmarker = new Benchmarker<Integer>(new AVLTree<Integer>());
-        Benchmarker<Integer> splayTreeBenchmarker = new Benchmarker<Integer>(new SplayTree<Integer>());
-        Benchmarker<Integer> chainingHashTableBenchmarker = new Benchmarker<Integer>(new HashTable<Integer, Integer>(CollisionBehavior.Chaining, x -> x));
-        Benchmarker<Integer> probingHashTableBenchmarker = new Benchmarker<Integer>(new HashTable<Integer, Integer>(CollisionBehavior.QuadraticProbing, x -> x));
+    /**
+     * Runs every benchmark and prints the tables.
+     *
+     * @param args An optional file to save the timing results to, for {@link CompareResults} to check later
+     *             runs against.
+     * @throws IOException If the results file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Integer[][] datasets = datasets();
+
+        // create the benchmarkers, which measure every round on a fresh instance
+        ArrayList<Benchmarker<Integer>> benchmarkers = new ArrayList<>();
+        for (Supplier<BaseOperations<Integer>> structure : structures()) {
+            benchmarkers.add(new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS));
+        }
 
 
-        // create the table for insertion performance
+        // create the tables for insertion, search and deletion performance
         DataTable insertionTimesTable = new DataTable("Insertion Performance Comparison (Time in milliseconds)", colHeaders, rowHeaders);
-        insertionTimesTable.AddRow(avlTreeBenchmarker.benchmarkInsertTime(datasets, ITERATIONS_PER_DATASET ));
-        insertionTimesTable.AddRow(splayTreeBenchmarker.benchmarkInsertTime(datasets, ITERATIONS_PER_DATASET));
-        insertionTimesTable.AddRow(chainingHashTableBenchmarker.benchmarkInsertTime(datasets, ITERATIONS_PER_DATASET));
-        insertionTimesTable.AddRow(probingHashTableBenchmarker.benchmarkInsertTime(datasets, ITERATIONS_PER_DATASET));
-
-
-        // create the table for search performance
         DataTable searchTimesTable = new DataTable("Search Performance Comparison (Time in milliseconds)", colHeaders, rowHeaders);
-        searchTimesTable.AddRow(avlTreeBenchmarker.benchmarkSearchTime(datasets, ITERATIONS_PER_DATASET));
-        searchTimesTable.AddRow(splayTreeBenchmarker.benchmarkSearchTime(datasets, ITERATIONS_PER_DATASET));
-        searchTimesTable.AddRow(chainingHashTableBenchmarker.benchmarkSearchTime(datasets, ITERATIONS_PER_DATASET));
-        searchTimesTable.AddRow(probingHashTableBenchmarker.benchmarkSearchTime(datasets, ITERATIONS_PER_DATASET));
-
-        // create the table for search performance
         DataTable deletionTimesTable = new DataTable("Deletion Performance Comparison (Time in milliseconds)", colHeaders, rowHeaders);
-        deletionTimesTable.AddRow(avlTreeBenchmarker.benchmarkDeleteTime(datasets, ITERATIONS_PER_DATASET));
-        deletionTimesTable.AddRow(splayTreeBenchmarker.benchmarkDeleteTime(datasets, ITERATIONS_PER_DATASET));
-        deletionTimesTable.AddRow(chainingHashTableBenchmarker.benchmarkDeleteTime(datasets, ITERATIONS_PER_DATASET));
-        deletionTimesTable.AddRow(probingHashTableBenchmarker.benchmarkDeleteTime(datasets, ITERATIONS_PER_DATASET));
+        for (Benchmarker<Integer> benchmarker : benchmarkers) {
+            insertionTimesTable.AddRow(benchmarker.benchmarkInsertTime(datasets));
+            searchTimesTable.AddRow(benchmarker.benchmarkSearchTime(datasets));
+            deletionTimesTable.AddRow(benchmarker.benchmarkDeleteTime(datasets));
+        }
 
 
         // print the tables
@@ -72,35 +102,42 @@ public class Main {
         deletionTimesTable.print(Format.TIME);
         System.out.println("\n\n");
 
-        // create the table for insertion performance
-        DataTable insertionMemTable = new DataTable("Insertion Performance Comparison (Memory in Kilobytes)", colHeaders, rowHeaders);
-        insertionMemTable.AddRow(avlTreeBenchmarker.benchmarkInsertMemory(datasets, ITERATIONS_PER_DATASET));
-        insertionMemTable.AddRow(splayTreeBenchmarker.benchmarkInsertMemory(datasets, ITERATIONS_PER_DATASET));
-        insertionMemTable.AddRow(chainingHashTableBenchmarker.benchmarkInsertMemory(datasets, ITERATIONS_PER_DATASET));
-        insertionMemTable.AddRow(probingHashTableBenchmarker.benchmarkInsertMemory(datasets, ITERATIONS_PER_DATASET));
-
+        // print the full summaries of the trials
+        insertionTimesTable.printSummary(Format.TIME);
+        System.out.println("\n");
+        searchTimesTable.printSummary(Format.TIME);
+        System.out.println("\n");
+        deletionTimesTable.printSummary(Format.TIME);
+        System.out.println("\n\n");
 
-        // create the table for search performance
-        DataTable searchMemTable = new DataTable("Search Performance Comparison (Memory in Kilobytes)", colHeaders, rowHeaders);
-        searchMemTable.AddRow(avlTreeBenchmarker.benchmarkSearchMemory(datasets, ITERATIONS_PER_DATASET));
-        searchMemTable.AddRow(splayTreeBenchmarker.benchmarkSearchMemory(datasets, ITERATIONS_PER_DATASET));
-        searchMemTable.AddRow(chainingHashTableBenchmarker.benchmarkSearchMemory(datasets, ITERATIONS_PER_DATASET));
-        searchMemTable.AddRow(probingHashTableBenchmarker.benchmarkSearchMemory(datasets, ITERATIONS_PER_DATASET));
+        // save the timing results, so that a later run can be checked against them
+        if (args.length > 0) {
+            LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
+            parameters.put("sizes", SMALL_N + " " + MEDIUM_N + " " + LARGE_N);
+            parameters.put("warmup.rounds", "" + WARMUP_ROUNDS);
+            parameters.put("trials", "" + TRIALS);
+            parameters.put("seed", "" + SEED);
+            ResultsStore results = new ResultsStore(parameters);
+            insertionTimesTable.record(results);
+            searchTimesTable.record(results);
+            deletionTimesTable.record(results);
+            results.save(new File(args[0]));
+            System.out.println("Saved the results to " + args[0] + "\n\n");
+        }
 
-        // create the table for search performance
-        DataTable deletionMemTable = new DataTable("Deletion Performance Comparison (Memory in Kilobytes)", colHeaders, rowHeaders);
-        deletionMemTable.AddRow(avlTreeBenchmarker.benchmarkDeleteMemory(datasets, ITERATIONS_PER_DATASET));
-        deletionMemTable.AddRow(splayTreeBenchmarker.benchmarkDeleteMemory(datasets, ITERATIONS_PER_DATASET));
-        deletionMemTable.AddRow(chainingHashTableBenchmarker.benchmarkDeleteMemory(datasets, ITERATIONS_PER_DATASET));
-        deletionMemTable.AddRow(probingHashTableBenchmarker.benchmarkDeleteMemory(datasets, ITERATIONS_PER_DATASET));
+        // create the tables for the memory retained after insertion
+        DataTable retainedSizeTable = new DataTable("Retained Size after Insertion", colHeaders, rowHeaders);
+        DataTable bytesPerElementTable = new DataTable("Bytes per Element", colHeaders, rowHeaders);
+        for (Benchmarker<Integer> benchmarker : benchmarkers) {
+            retainedSizeTable.AddRow(benchmarker.benchmarkRetainedSize(datasets));
+            bytesPerElementTable.AddRow(benchmarker.benchmarkBytesPerElement(datasets));
+        }
 
 
         // print the tables
-        insertionMemTable.print(Format.MEMORY);
+        retainedSizeTable.print(Format.MEMORY);
         System.out.println("\n");
-        searchMemTable.print(Format.MEMORY);
-        System.out.println("\n");
-        deletionMemTable.print(Format.MEMORY);
+        bytesPerElementTable.print(Format.CSV);
         System.out.println("\n\n");
 
         // print the tables in csv format
@@ -112,11 +149,9 @@ public class Main {
         System.out.println("\n");
 
         // print the tables in csv format
-        insertionMemTable.printCSV(CSV_BYTE_FACTOR);
-        System.out.println("\n");
-        searchMemTable.printCSV(CSV_BYTE_FACTOR);
+        retainedSizeTable.printCSV(CSV_BYTE_FACTOR);
         System.out.println("\n");
-        deletionMemTable.printCSV(CSV_BYTE_FACTOR);
+        bytesPerElementTable.printCSV(1);
         System.out.println("\n\n");
 
     }
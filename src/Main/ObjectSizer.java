@@ -0,0 +1,256 @@
+package Main;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+/**
+ * Measures the heap footprint of objects by walking their object graph, rather than sampling
+ * {@link Runtime#freeMemory()}.
+ *
+ * The shallow size of an object is computed the way HotSpot lays it out: the object header, then the fields of
+ * each class from the top of the hierarchy down, the larger primitives first and the references last, each placed
+ * in the first gap aligned to its size, and the end rounded up to the object alignment. The header size, the
+ * reference size (4 bytes with compressed oops, 8 without) and the alignment are read from the JVM's flags, so the
+ * sizes are right for whatever flags the benchmarks run with. An array is its header plus its elements, rounded
+ * up the same way.
+ *
+ * The deep size of an object is the sum of the shallow sizes of every object reachable from it, each counted
+ * once. Static fields are not followed, and classes, class loaders, threads and enum constants are not counted,
+ * since they are shared with the rest of the program rather than owned by a data structure. The fields of JDK
+ * classes can only be followed if their package is opened, as with --add-opens java.base/java.util=ALL-UNNAMED;
+ * otherwise collections, maps and atomic references are followed through their public methods, which misses
+ * their internal nodes, and a warning names the flag that would make the size exact.
+ */
+public final class ObjectSizer {
+    private static final boolean COMPRESSED_OOPS = readBooleanFlag("UseCompressedOops", true);
+    private static final boolean COMPRESSED_CLASS_POINTERS = readBooleanFlag("UseCompressedClassPointers", COMPRESSED_OOPS);
+    private static final int REFERENCE_SIZE = COMPRESSED_OOPS ? 4 : 8;
+    // the mark word, then the class pointer
+    private static final int OBJECT_HEADER_SIZE = 8 + (COMPRESSED_CLASS_POINTERS ? 4 : 8);
+    // the object header and the length, padded to a whole word
+    private static final int ARRAY_HEADER_SIZE = (OBJECT_HEADER_SIZE + 4 + 7) / 8 * 8;
+    private static final int OBJECT_ALIGNMENT = readObjectAlignment();
+
+    private static final ConcurrentHashMap<Class<?>, ClassLayout> layouts = new ConcurrentHashMap<>();
+    private static final Set<String> warnedPackages = ConcurrentHashMap.newKeySet();
+
+    private ObjectSizer() { }
+
+    /**
+     * The layout of the instances of a class and the fields through which they reference other objects.
+     */
+    private static final class ClassLayout {
+        final BitSet occupied; // the bytes taken by the header and the fields, which subclasses lay out around
+        final long shallowSize;
+        final Field[] referenceFields; // the reference fields that could be made accessible
+        final boolean opaque; // some reference fields could not be made accessible
+
+        ClassLayout(BitSet occupied, long shallowSize, Field[] referenceFields, boolean opaque) {
+            this.occupied = occupied;
+            this.shallowSize = shallowSize;
+            this.referenceFields = referenceFields;
+            this.opaque = opaque;
+        }
+    }
+
+    private static boolean readBooleanFlag(String name, boolean defaultValue) {
+        try {
+            return Boolean.parseBoolean(hotSpot().getVMOption(name).getValue());
+        } catch (RuntimeException e) {
+            return defaultValue; // not HotSpot, or a JVM without the flag
+        }
+    }
+
+    private static int readObjectAlignment() {
+        try {
+            return Integer.parseInt(hotSpot().getVMOption("ObjectAlignmentInBytes").getValue());
+        } catch (RuntimeException e) {
+            return 8; // the HotSpot default
+        }
+    }
+
+    private static com.sun.management.HotSpotDiagnosticMXBean hotSpot() {
+        return ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+    }
+
+    /**
+     * Returns the size of a reference field or array element.
+     *
+     * @return 4 with compressed oops, otherwise 8.
+     */
+    public static int referenceSize() {
+        return REFERENCE_SIZE;
+    }
+
+    /**
+     * Returns the alignment of objects on the heap.
+     *
+     * @return The alignment in bytes.
+     */
+    public static int objectAlignment() {
+        return OBJECT_ALIGNMENT;
+    }
+
+    /**
+     * Returns the size of an object itself, not counting the objects it references.
+     *
+     * @param object The object to measure.
+     * @return The size in bytes.
+     */
+    public static long shallowSizeOf(Object object) {
+        Class<?> type = object.getClass();
+        if (!type.isArray()) return layoutOf(type).shallowSize;
+        long length = java.lang.reflect.Array.getLength(object);
+        return align(ARRAY_HEADER_SIZE + length * sizeOfField(type.getComponentType()));
+    }
+
+    /**
+     * Returns the size of an object and of every object reachable from it.
+     *
+     * @param root The object to measure, or null.
+     * @return The size in bytes, or 0 for null.
+     */
+    public static long deepSizeOf(Object root) {
+        if (root == null || isShared(root)) return 0;
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> stack = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+
+        long size = 0;
+        while (!stack.isEmpty()) {
+            Object object = stack.pop();
+            size += shallowSizeOf(object);
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (type.getComponentType().isPrimitive()) continue;
+                for (Object element : (Object[]) object) visit(element, visited, stack);
+                continue;
+            }
+
+            ClassLayout layout = layoutOf(type);
+            for (Field field : layout.referenceFields) {
+                try {
+                    visit(field.get(object), visited, stack);
+                } catch (IllegalAccessException e) {
+                    // cannot happen, since only fields that were made accessible are kept
+                }
+            }
+            if (layout.opaque) visitPublicView(object, visited, stack);
+        }
+        return size;
+    }
+
+    private static void visit(Object object, Set<Object> visited, ArrayDeque<Object> stack) {
+        if (object != null && !isShared(object) && visited.add(object)) stack.push(object);
+    }
+
+    /**
+     * Follows what a JDK object whose fields are closed to reflection exposes through its public methods.
+     */
+    private static void visitPublicView(Object object, Set<Object> visited, ArrayDeque<Object> stack) {
+        if (object instanceof Collection) {
+            for (Object element : (Collection<?>) object) visit(element, visited, stack);
+        } else if (object instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                visit(entry.getKey(), visited, stack);
+                visit(entry.getValue(), visited, stack);
+            }
+        } else if (object instanceof AtomicReference) {
+            visit(((AtomicReference<?>) object).get(), visited, stack);
+        } else if (object instanceof AtomicMarkableReference) {
+            visit(((AtomicMarkableReference<?>) object).getReference(), visited, stack);
+        } else if (object instanceof AtomicStampedReference) {
+            visit(((AtomicStampedReference<?>) object).getReference(), visited, stack);
+        }
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Class || object instanceof ClassLoader || object instanceof Thread || object instanceof Enum;
+    }
+
+    private static ClassLayout layoutOf(Class<?> type) {
+        ClassLayout layout = layouts.get(type);
+        if (layout == null) {
+            layout = computeLayout(type);
+            layouts.putIfAbsent(type, layout);
+        }
+        return layout;
+    }
+
+    private static ClassLayout computeLayout(Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        BitSet occupied = new BitSet();
+        ArrayList<Field> referenceFields = new ArrayList<>();
+        boolean opaque = false;
+        if (superclass == null) {
+            occupied.set(0, OBJECT_HEADER_SIZE);
+        } else {
+            ClassLayout superLayout = layoutOf(superclass);
+            occupied.or(superLayout.occupied);
+            Collections.addAll(referenceFields, superLayout.referenceFields);
+            opaque = superLayout.opaque;
+        }
+
+        // HotSpot places the primitives from largest to smallest, then the references, each in the first gap that fits
+        ArrayList<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) fields.add(field);
+        }
+        fields.sort((first, second) -> {
+            boolean firstIsReference = !first.getType().isPrimitive(), secondIsReference = !second.getType().isPrimitive();
+            if (firstIsReference != secondIsReference) return firstIsReference ? 1 : -1;
+            return sizeOfField(second.getType()) - sizeOfField(first.getType());
+        });
+        for (Field field : fields) {
+            int fieldSize = sizeOfField(field.getType());
+            int offset = 0;
+            while (occupied.get(offset, offset + fieldSize).cardinality() > 0) offset += fieldSize;
+            occupied.set(offset, offset + fieldSize);
+
+            if (field.getType().isPrimitive()) continue;
+            if (field.trySetAccessible()) {
+                referenceFields.add(field);
+            } else {
+                opaque = true;
+                warnClosed(type);
+            }
+        }
+
+        long shallowSize = align(Math.max(OBJECT_HEADER_SIZE, occupied.length()));
+        return new ClassLayout(occupied, shallowSize, referenceFields.toArray(new Field[0]), opaque);
+    }
+
+    private static void warnClosed(Class<?> type) {
+        String flag = "--add-opens " + type.getModule().getName() + "/" + type.getPackageName() + "=ALL-UNNAMED";
+        if (warnedPackages.add(flag)) {
+            System.err.println("ObjectSizer: the fields of " + type.getName() + " are closed to reflection, so only what it"
+                    + " exposes publicly is counted; run with " + flag + " for exact sizes");
+        }
+    }
+
+    private static int sizeOfField(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        if (type == byte.class || type == boolean.class) return 1;
+        return REFERENCE_SIZE;
+    }
+
+    private static long align(long size) {
+        return (size + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+}
@@ -0,0 +1,121 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.Random;
+
+/**
+ * Compares the average number of key comparisons per lookup of a splay tree, the same tree rebuilt into a
+ * nearly optimal static shape by {@link SplayTree#rebuildOptimal()}, and an AVL tree, on Zipfian lookups.
+ * Each tree first sees a training trace (which the rebuilt tree counts accesses on), then the comparisons are
+ * counted over a fresh trace drawn from the same distribution. The entropy H of the distribution, in bits, is
+ * reported alongside: any tree needs at least H / log2(3) three-way comparisons per lookup on average, and
+ * Mehlhorn's rule guarantees at most about H + 2.
+ */
+public class OptimalRebuildBenchmark {
+    public static final int KEY_COUNT = 1_000_000;
+    public static final int SEARCHES = 2_000_000;
+    public static final double[] thetas = new double[] {0.8, 0.99};
+
+    public static final String[] colHeaders = new String[] {
+            "Tree", "Zipfian (theta = " + thetas[0] + ")", "Zipfian (theta = " + thetas[1] + ")"
+    };
+    public static final String[] rowHeaders = new String[] {
+            "Splay Tree", "Splay Tree (rebuilt optimal)", "AVL Tree", "Entropy H (bits)"
+    };
+
+    /** A key that counts how often it is compared. */
+    private static final class CountedKey implements Comparable<CountedKey> {
+        static long comparisons;
+        final int value;
+
+        CountedKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(CountedKey other) {
+            comparisons++;
+            return Integer.compare(value, other.value);
+        }
+    }
+
+    public static void main(String[] args) {
+        // the keys, in a random insertion order; the Zipfian ranks are mapped onto them the same way, so the
+        // hot keys are scattered over the key range rather than clustered at its low end
+        Random random = new Random(1);
+        CountedKey[] keys = new CountedKey[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) keys[i] = new CountedKey(i);
+        for (int i = KEY_COUNT - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            CountedKey swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+
+        long[][] comparisons = new long[rowHeaders.length][thetas.length];
+        for (int t = 0; t < thetas.length; t++) {
+            CountedKey[] training = lookups(new ZipfianGenerator(KEY_COUNT, thetas[t], 2), keys);
+            CountedKey[] test = lookups(new ZipfianGenerator(KEY_COUNT, thetas[t], 3), keys);
+
+            SplayTree<CountedKey> splayTree = new SplayTree<CountedKey>();
+            for (CountedKey key : keys) splayTree.insert(key);
+            for (CountedKey key : training) splayTree.search(key);
+            comparisons[0][t] = countComparisons(splayTree, test);
+
+            SplayTree<CountedKey> rebuiltTree = new SplayTree<CountedKey>();
+            for (CountedKey key : keys) rebuiltTree.insert(key);
+            rebuiltTree.setAccessCounting(true);
+            for (CountedKey key : training) rebuiltTree.search(key);
+            rebuiltTree.setAccessCounting(false);
+            rebuiltTree.rebuildOptimal();
+            comparisons[1][t] = countComparisons(rebuiltTree, test);
+
+            AVLTree<CountedKey> avlTree = new AVLTree<CountedKey>();
+            for (CountedKey key : keys) avlTree.insert(key);
+            comparisons[2][t] = countComparisons(avlTree, test);
+
+            comparisons[3][t] = Math.round(entropy(thetas[t]) * 1_000);
+        }
+
+        DataTable table = new DataTable("Comparisons per 1,000 Lookups over " + Main.df.format(KEY_COUNT) + " Keys", colHeaders, rowHeaders);
+        for (long[] row : comparisons) table.AddRow(row);
+        table.print(Format.CSV);
+    }
+
+    /**
+     * Runs the lookups and counts the comparisons they make.
+     *
+     * @return The comparisons per 1,000 lookups.
+     */
+    private static long countComparisons(BaseOperations<CountedKey> tree, CountedKey[] lookups) {
+        CountedKey.comparisons = 0;
+        for (CountedKey key : lookups) tree.search(key);
+        return CountedKey.comparisons * 1_000 / lookups.length;
+    }
+
+    /**
+     * Draws the lookup keys: each drawn rank selects a key by its position in the insertion order. The lookups
+     * are fresh objects, so no lookup is answered by identity.
+     */
+    private static CountedKey[] lookups(ZipfianGenerator ranks, CountedKey[] keys) {
+        CountedKey[] lookups = new CountedKey[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) lookups[i] = new CountedKey(keys[ranks.nextInt()].value);
+        return lookups;
+    }
+
+    /**
+     * Computes the entropy, in bits, of the Zipfian distribution over KEY_COUNT ranks, where rank i is drawn
+     * with probability proportional to 1 / (i + 1)^theta.
+     */
+    private static double entropy(double theta) {
+        double zeta = 0;
+        for (int i = 1; i <= KEY_COUNT; i++) zeta += Math.pow(i, -theta);
+        double entropy = 0;
+        for (int i = 1; i <= KEY_COUNT; i++) {
+            double p = Math.pow(i, -theta) / zeta;
+            entropy -= p * Math.log(p);
+        }
+        return entropy / Math.log(2);
+    }
+}
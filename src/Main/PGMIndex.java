@@ -0,0 +1,227 @@
+package Main;
+
+import java.util.ArrayList;
+
+/**
+ * A learned index over a sorted array of distinct ints, after the PGM-index of Ferragina and Vinciguerra.
+ *
+ * The positions of the keys are approximated by piecewise linear segments, each guaranteed to predict the
+ * position of every key it covers to within epsilon. The segments are fitted greedily with a shrinking cone:
+ * a segment is extended while some slope through its first point still keeps every point within epsilon.
+ * The first keys of the segments are then indexed the same way, level after level, until a single segment
+ * remains. A lookup makes one prediction per level and corrects it with a binary search over a window of
+ * 2 * epsilon + 3 entries, so it touches O(log(epsilon)) entries per level instead of O(log(n)) overall.
+ *
+ * The index stores only the segments; the keys stay in the caller's array.
+ */
+public class PGMIndex {
+    public static final int DEFAULT_EPSILON = 64;
+
+    /**
+     * The segments of one level. Segment i covers the entries of the level below from position intercepts[i]
+     * onwards, starting with the key firstKeys[i].
+     */
+    private static final class Level {
+        final int[] firstKeys;
+        final double[] slopes;
+        final int[] intercepts;
+
+        Level(int[] firstKeys, double[] slopes, int[] intercepts) {
+            this.firstKeys = firstKeys;
+            this.slopes = slopes;
+            this.intercepts = intercepts;
+        }
+
+        int size() {
+            return firstKeys.length;
+        }
+    }
+
+    private final int[] keys;
+    private final int epsilon;
+    private final Level[] levels; // levels[0] indexes the keys, and the last level has a single segment
+
+    /**
+     * Builds an index with the default error bound.
+     *
+     * @param sortedKeys The keys in strictly ascending order. The array is kept, not copied, and must not be modified.
+     */
+    public PGMIndex(int[] sortedKeys) {
+        this(sortedKeys, DEFAULT_EPSILON);
+    }
+
+    /**
+     * Builds an index over the contents of an AVL tree, which are copied into a new array.
+     *
+     * @param tree The tree to index.
+     * @param epsilon The maximum distance between a predicted and an actual position.
+     */
+    public PGMIndex(AVLTree<Integer> tree, int epsilon) {
+        this(toArray(tree), epsilon);
+    }
+
+    /**
+     * Builds an index over a sorted array.
+     *
+     * @param sortedKeys The keys in strictly ascending order. The array is kept, not copied, and must not be modified.
+     * @param epsilon The maximum distance between a predicted and an actual position.
+     * @throws IllegalArgumentException If epsilon is not positive or the keys are not strictly ascending.
+     */
+    public PGMIndex(int[] sortedKeys, int epsilon) {
+        if (epsilon < 1) throw new IllegalArgumentException("Epsilon must be positive: " + epsilon);
+        for (int i = 1; i < sortedKeys.length; i++) {
+            if (sortedKeys[i - 1] >= sortedKeys[i])
+                throw new IllegalArgumentException("Keys are not in strictly ascending order: " + sortedKeys[i - 1] + ", " + sortedKeys[i]);
+        }
+        this.keys = sortedKeys;
+        this.epsilon = epsilon;
+
+        ArrayList<Level> built = new ArrayList<>();
+        int[] below = sortedKeys;
+        do {
+            Level level = fit(below, epsilon);
+            built.add(level);
+            below = level.firstKeys;
+        } while (below.length > 1);
+        this.levels = built.toArray(new Level[0]);
+    }
+
+    private static int[] toArray(AVLTree<Integer> tree) {
+        int[] keys = new int[tree.size()];
+        int i = 0;
+        for (Integer key : tree) keys[i++] = key;
+        return keys;
+    }
+
+    /**
+     * Covers sorted keys with as few segments as the greedy shrinking cone finds. The line of each segment
+     * passes through its first point, and the cone [low, high] holds the slopes that keep every point added so
+     * far within epsilon; a point that would empty the cone starts a new segment.
+     *
+     * @param keys The keys to cover, in strictly ascending order.
+     * @param epsilon The maximum prediction error.
+     * @return The segments.
+     */
+    private static Level fit(int[] keys, int epsilon) {
+        ArrayList<int[]> starts = new ArrayList<>(); // {first key, first position}
+        ArrayList<Double> slopes = new ArrayList<>();
+
+        int start = 0;
+        double low = 0, high = Double.POSITIVE_INFINITY;
+        for (int i = 1; i <= keys.length; i++) {
+            if (i < keys.length) {
+                double dx = (double) keys[i] - keys[start];
+                double dy = i - start;
+                if ((dy + epsilon) / dx >= low && (dy - epsilon) / dx <= high) {
+                    low = Math.max(low, (dy - epsilon) / dx);
+                    high = Math.min(high, (dy + epsilon) / dx);
+                    continue;
+                }
+            }
+            starts.add(new int[] {keys.length == 0 ? 0 : keys[start], start});
+            slopes.add(high == Double.POSITIVE_INFINITY ? 0 : (low + high) / 2);
+            start = i;
+            low = 0;
+            high = Double.POSITIVE_INFINITY;
+        }
+
+        int count = starts.size();
+        int[] firstKeys = new int[count];
+        double[] slopeArray = new double[count];
+        int[] intercepts = new int[count];
+        for (int i = 0; i < count; i++) {
+            firstKeys[i] = starts.get(i)[0];
+            intercepts[i] = starts.get(i)[1];
+            slopeArray[i] = slopes.get(i);
+        }
+        return new Level(firstKeys, slopeArray, intercepts);
+    }
+
+    /**
+     * Predicts the position of a key in the level below a segment. The prediction is exact to within epsilon
+     * for keys the segment covers, and never leaves the segment's range of positions.
+     */
+    private static int predict(Level level, int segment, int key, int belowSize) {
+        long position = level.intercepts[segment] + (long) (level.slopes[segment] * ((double) key - level.firstKeys[segment]));
+        int end = segment + 1 < level.size() ? level.intercepts[segment + 1] : belowSize;
+        return (int) Math.max(level.intercepts[segment], Math.min(position, end));
+    }
+
+    /**
+     * Finds the first position in [from, to) holding a key greater than or equal to the given key.
+     *
+     * @return The position, or to if every key in the range is smaller.
+     */
+    private static int lowerBound(int[] sorted, int from, int to, int key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] < key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    /**
+     * Finds the position of the first key greater than or equal to the given key.
+     *
+     * @param key The key to look for.
+     * @return The position in the key array, or the array's length if every key is smaller.
+     */
+    public int lowerBound(int key) {
+        if (keys.length == 0) return 0;
+        int segment = 0;
+        for (int l = levels.length - 1; l >= 0; l--) {
+            int[] below = l == 0 ? keys : levels[l - 1].firstKeys;
+            int predicted = predict(levels[l], segment, key, below.length);
+            int from = Math.max(0, predicted - epsilon - 1);
+            int to = Math.min(below.length, predicted + epsilon + 2);
+            int position = lowerBound(below, from, to, key);
+            if (l == 0) return position;
+
+            // the segment to use below is the last one starting at or before the key
+            segment = (position < below.length && below[position] == key) ? position : Math.max(0, position - 1);
+        }
+        throw new AssertionError("unreachable");
+    }
+
+    /**
+     * Checks whether the specified key is present.
+     *
+     * @param key The key to look for.
+     * @return True if the key is present.
+     */
+    public boolean contains(int key) {
+        int position = lowerBound(key);
+        return position < keys.length && keys[position] == key;
+    }
+
+    /**
+     * Returns the number of keys indexed.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of segments over all levels.
+     *
+     * @return The number of segments.
+     */
+    public int segmentCount() {
+        int count = 0;
+        for (Level level : levels) count += level.size();
+        return count;
+    }
+
+    /**
+     * Returns the memory taken by the segments, excluding the keys and object headers. Each segment holds an
+     * int key, a double slope and an int intercept.
+     *
+     * @return The size in bytes.
+     */
+    public long sizeInBytes() {
+        return 16L * segmentCount();
+    }
+}
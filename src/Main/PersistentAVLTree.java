@@ -0,0 +1,319 @@
+package Main;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A persistent AVL tree. Nodes are immutable, so insert and delete copy only the O(log n) nodes on the path
+ * they change and then publish the new root atomically. Every published root is a consistent, never-changing
+ * version of the tree: {@link #snapshot()} is O(1), and any number of threads can search or iterate a snapshot
+ * without synchronization while writers keep going.
+ *
+ * @param <T> The type of elements stored in the tree. Must be Comparable.
+ */
+public class PersistentAVLTree<T extends Comparable<T>> implements BaseOperations<T>, Iterable<T> {
+
+    /**
+     * An immutable node. Since every field is final, a node is safely visible to any thread that reads a root.
+     */
+    private static final class Node<T> {
+        final T data;
+        final Node<T> left, right;
+        final int height; // the height of the subtree rooted here
+        final int size;   // the number of nodes in the subtree rooted here
+
+        Node(Node<T> left, T data, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    /** The current version of the tree. */
+    private final AtomicReference<Node<T>> root = new AtomicReference<>();
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Creates a node from two subtrees whose heights differ by at most two, rotating if needed.
+     * The rotations build new nodes instead of changing the old ones.
+     *
+     * @param left The left subtree.
+     * @param data The data of the new node.
+     * @param right The right subtree.
+     * @return The root of the balanced subtree.
+     */
+    private static <T> Node<T> balance(Node<T> left, T data, Node<T> right) {
+        if (height(left) > height(right) + 1) { // left-heavy
+            if (height(left.left) >= height(left.right)) // right rotation
+                return new Node<>(left.left, left.data, new Node<>(left.right, data, right));
+
+            // left-right rotation
+            Node<T> pivot = left.right;
+            return new Node<>(new Node<>(left.left, left.data, pivot.left), pivot.data, new Node<>(pivot.right, data, right));
+        } else if (height(right) > height(left) + 1) { // right-heavy
+            if (height(right.right) >= height(right.left)) // left rotation
+                return new Node<>(new Node<>(left, data, right.left), right.data, right.right);
+
+            // right-left rotation
+            Node<T> pivot = right.left;
+            return new Node<>(new Node<>(left, data, pivot.left), pivot.data, new Node<>(pivot.right, right.data, right.right));
+        }
+
+        return new Node<>(left, data, right);
+    }
+
+    /**
+     * Returns a version of the subtree with the key inserted, copying only the nodes on the search path.
+     *
+     * @param node The root of the subtree.
+     * @param key The key to insert.
+     * @return The new root, or the same node if the key was already present.
+     */
+    private static <T extends Comparable<T>> Node<T> insertNode(Node<T> node, T key) {
+        if (node == null) return new Node<>(null, key, null);
+
+        int compareResult = key.compareTo(node.data);
+        if (compareResult == 0) return node; // no duplicates
+
+        if (compareResult < 0) {
+            Node<T> left = insertNode(node.left, key);
+            return (left == node.left) ? node : balance(left, node.data, node.right);
+        } else {
+            Node<T> right = insertNode(node.right, key);
+            return (right == node.right) ? node : balance(node.left, node.data, right);
+        }
+    }
+
+    /**
+     * Returns a version of the subtree with the key removed, copying only the nodes on the search path.
+     *
+     * @param node The root of the subtree.
+     * @param key The key to delete.
+     * @return The new root, or the same node if the key was not present.
+     */
+    private static <T extends Comparable<T>> Node<T> deleteNode(Node<T> node, T key) {
+        if (node == null) return null;
+
+        int compareResult = key.compareTo(node.data);
+        if (compareResult < 0) {
+            Node<T> left = deleteNode(node.left, key);
+            return (left == node.left) ? node : balance(left, node.data, node.right);
+        } else if (compareResult > 0) {
+            Node<T> right = deleteNode(node.right, key);
+            return (right == node.right) ? node : balance(node.left, node.data, right);
+        }
+
+        // found the node to delete
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+
+        // replace it with its inorder successor (smallest value in right subtree)
+        Node<T> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(node.left, successor.data, deleteMin(node.right));
+    }
+
+    /**
+     * Returns a version of the subtree without its smallest element.
+     *
+     * @param node The root of a non-empty subtree.
+     * @return The new root.
+     */
+    private static <T> Node<T> deleteMin(Node<T> node) {
+        if (node.left == null) return node.right;
+        return balance(deleteMin(node.left), node.data, node.right);
+    }
+
+    /**
+     * Searches a version of the tree for a key.
+     *
+     * @param node The root of the version.
+     * @param key The key to search for.
+     * @return The element equal to the key, or null if not found.
+     */
+    private static <T extends Comparable<T>> T searchNode(Node<T> node, T key) {
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult == 0) return node.data;
+            node = (compareResult < 0) ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts the specified element and publishes the new version of the tree.
+     * Concurrent writers are safe: a writer whose root was replaced meanwhile simply retries on the newer version.
+     *
+     * @param element The element to insert.
+     * @return True if the element was inserted, false if it was already present.
+     */
+    @Override
+    public boolean insert(T element) {
+        while (true) {
+            Node<T> current = root.get();
+            Node<T> updated = insertNode(current, element);
+            if (updated == current) return false;
+            if (root.compareAndSet(current, updated)) return true;
+        }
+    }
+
+    /**
+     * Deletes the specified element and publishes the new version of the tree.
+     *
+     * @param element The element to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @Override
+    public T delete(T element) {
+        while (true) {
+            Node<T> current = root.get();
+            T deleted = searchNode(current, element);
+            if (deleted == null) return null;
+            if (root.compareAndSet(current, deleteNode(current, element))) return deleted;
+        }
+    }
+
+    /**
+     * Searches the current version of the tree for the specified element.
+     *
+     * @param element The element to search for.
+     * @return The element if found, or null if not found.
+     */
+    @Override
+    public T search(T element) {
+        return searchNode(root.get(), element);
+    }
+
+    /**
+     * Returns the number of elements in the current version of the tree.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size(root.get());
+    }
+
+    /**
+     * Captures the current version of the tree in O(1).
+     * The snapshot never changes, whatever is inserted or deleted afterwards.
+     *
+     * @return An immutable view of the tree as it is now.
+     */
+    public Snapshot<T> snapshot() {
+        return new Snapshot<>(root.get());
+    }
+
+    /**
+     * Returns an in-order iterator over the current version of the tree.
+     * Later writes are not visible to the iterator.
+     *
+     * @return An in-order iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * An immutable version of a {@link PersistentAVLTree}, safe to share between threads without synchronization.
+     *
+     * @param <T> The type of elements stored in the tree.
+     */
+    public static final class Snapshot<T extends Comparable<T>> implements Iterable<T> {
+        private final Node<T> root;
+
+        private Snapshot(Node<T> root) {
+            this.root = root;
+        }
+
+        /**
+         * Searches the snapshot for the specified element.
+         *
+         * @param element The element to search for.
+         * @return The element if found, or null if not found.
+         */
+        public T search(T element) {
+            return searchNode(root, element);
+        }
+
+        /**
+         * Returns the number of elements in the snapshot.
+         *
+         * @return The number of elements.
+         */
+        public int size() {
+            return PersistentAVLTree.size(root);
+        }
+
+        /**
+         * Returns a lazy iterator over every element of the snapshot in ascending order.
+         *
+         * @return An in-order iterator.
+         */
+        @Override
+        public Iterator<T> iterator() {
+            return iterator(null, null);
+        }
+
+        /**
+         * Returns a lazy iterator over the elements of the snapshot in the half-open range [from, to).
+         *
+         * @param from The lower bound (inclusive), or null for no lower bound.
+         * @param to The upper bound (exclusive), or null for no upper bound.
+         * @return An in-order iterator over the range.
+         */
+        public Iterator<T> iterator(T from, T to) {
+            return new RangeIterator<>(root, from, to);
+        }
+    }
+
+    /**
+     * An in-order iterator over an immutable version of the tree that keeps pending ancestors on an explicit stack.
+     */
+    private static final class RangeIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack;
+        private final T to;
+
+        RangeIterator(Node<T> root, T from, T to) {
+            this.stack = new ArrayDeque<>(Math.max(height(root), 1));
+            this.to = to;
+
+            // descend towards the lower bound, remembering every node that is still to be visited
+            Node<T> node = root;
+            while (node != null) {
+                if (from == null || from.compareTo(node.data) <= 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (to == null || stack.peek().data.compareTo(to) < 0);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<T> node = stack.pop();
+            for (Node<T> child = node.right; child != null; child = child.left) {
+                stack.push(child);
+            }
+            return node.data;
+        }
+    }
+}
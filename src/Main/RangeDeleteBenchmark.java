@@ -0,0 +1,74 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.Random;
+
+/**
+ * Compares {@link SplayTree#deleteRange} with deleting the same keys one at a time, for ranges of one to a
+ * million keys. The range delete costs two splays and a join whatever the range size.
+ */
+public class RangeDeleteBenchmark {
+    public static final int KEY_COUNT = 1_100_000;
+    public static final int[] RANGE_SIZES = {1, 1_000, 1_000_000};
+
+    public static final String[] rowHeaders = new String[] {
+            "deleteRange", "delete per key"
+    };
+
+    public static void main(String[] args) {
+        String[] colHeaders = new String[RANGE_SIZES.length + 1];
+        colHeaders[0] = "Method";
+        for (int i = 0; i < RANGE_SIZES.length; i++) {
+            colHeaders[i + 1] = Main.df.format(RANGE_SIZES[i]) + (RANGE_SIZES[i] == 1 ? " Key" : " Keys");
+        }
+
+        Integer[] shuffled = new Integer[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) shuffled[i] = i;
+        Random random = new Random(1);
+        for (int i = KEY_COUNT - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+
+        long[] rangeRow = new long[RANGE_SIZES.length];
+        long[] perKeyRow = new long[RANGE_SIZES.length];
+        for (int r = 0; r < RANGE_SIZES.length; r++) {
+            // a range in the middle of the key space
+            int from = (KEY_COUNT - RANGE_SIZES[r]) / 2, to = from + RANGE_SIZES[r];
+
+            SplayTree<Integer> tree = build(shuffled);
+            long startTime = System.nanoTime();
+            tree.deleteRange(from, to);
+            rangeRow[r] = System.nanoTime() - startTime;
+
+            tree = build(shuffled);
+            startTime = System.nanoTime();
+            for (int key = from; key < to; key++) {
+                tree.delete(key);
+            }
+            perKeyRow[r] = System.nanoTime() - startTime;
+        }
+
+        DataTable table = new DataTable("Range Deletion from " + Main.df.format(KEY_COUNT) + " Keys", colHeaders, rowHeaders);
+        table.AddRow(rangeRow);
+        table.AddRow(perKeyRow);
+        table.print(Format.TIME);
+        System.out.println("\n");
+        table.printCSV(Main.CSV_TIME_FACTOR);
+    }
+
+    /**
+     * Builds a splay tree by inserting keys in the given order, which is not part of any measurement.
+     *
+     * @param keys The keys, in a random order so that the tree starts out reasonably shallow.
+     * @return The tree.
+     */
+    private static SplayTree<Integer> build(Integer[] keys) {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (Integer key : keys) tree.insert(key);
+        return tree;
+    }
+}
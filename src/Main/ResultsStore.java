@@ -0,0 +1,273 @@
+package Main;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The results of a benchmark run, with the metadata needed to tell whether two runs are comparable, saved to and
+ * loaded from a CSV file so that later runs can be checked against it with {@link CompareResults}.
+ *
+ * The file starts with one comment line per metadata entry ("# key = value"), followed by a header and one row
+ * per result: the table, row and column it came from, the number of operations per sample, and every sample
+ * separated by spaces. The samples are kept rather than only the mean, since the comparison needs their spread.
+ */
+public class ResultsStore {
+
+    /**
+     * One measured cell of a benchmark table.
+     */
+    public static final class Result {
+        public final String table;
+        public final String row;
+        public final String column;
+        public final Statistics statistics;
+
+        Result(String table, String row, String column, Statistics statistics) {
+            this.table = table;
+            this.row = row;
+            this.column = column;
+            this.statistics = statistics;
+        }
+
+        /**
+         * Returns a name that identifies the result within a run.
+         *
+         * @return The table, row and column.
+         */
+        public String name() {
+            return table + " / " + row + " / " + column;
+        }
+    }
+
+    private static final String HEADER = "\"Table\",\"Data Structure\",\"Column\",\"Operations per Sample\",\"Samples (ns)\"";
+
+    private final LinkedHashMap<String, String> metadata;
+    private final ArrayList<Result> results = new ArrayList<>();
+
+    /**
+     * Starts an empty store for a run in this JVM, recording the JVM, operating system, CPU, heap and git commit
+     * along with the parameters of the run.
+     *
+     * @param parameters The parameters of the run, such as the dataset sizes and the number of trials.
+     */
+    public ResultsStore(Map<String, String> parameters) {
+        this.metadata = new LinkedHashMap<>();
+        metadata.put("timestamp", Instant.now().toString());
+        metadata.put("commit", commitId());
+        metadata.put("java.version", System.getProperty("java.version"));
+        metadata.put("java.vm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        metadata.put("jvm.arguments", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        metadata.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+        metadata.put("cpu", cpuModel());
+        metadata.put("processors", "" + Runtime.getRuntime().availableProcessors());
+        metadata.put("max.heap", "" + Runtime.getRuntime().maxMemory());
+        metadata.putAll(parameters);
+    }
+
+    private ResultsStore(LinkedHashMap<String, String> metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * Adds a result.
+     *
+     * @param table The name of the table it belongs to.
+     * @param row The row, usually the data structure.
+     * @param column The column, usually the dataset.
+     * @param statistics The samples measured.
+     */
+    public void add(String table, String row, String column, Statistics statistics) {
+        results.add(new Result(table, row, column, statistics));
+    }
+
+    /**
+     * Returns the metadata of the run.
+     *
+     * @return The metadata, in the order it was recorded.
+     */
+    public Map<String, String> metadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    /**
+     * Returns every result.
+     *
+     * @return The results, in the order they were added.
+     */
+    public List<Result> results() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Finds a result by name.
+     *
+     * @param name The name, as given by {@link Result#name()}.
+     * @return The result, or null if there is none.
+     */
+    public Result find(String name) {
+        for (Result result : results) {
+            if (result.name().equals(name)) return result;
+        }
+        return null;
+    }
+
+    /**
+     * Writes the run to a file, replacing it if it exists.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) Files.createDirectories(directory.toPath());
+        try (PrintStream out = new PrintStream(file, "UTF-8")) {
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                out.println("# " + entry.getKey() + " = " + entry.getValue().replace('\n', ' '));
+            }
+            out.println(HEADER);
+            for (Result result : results) {
+                StringBuilder samples = new StringBuilder();
+                for (long sample : result.statistics.samples()) {
+                    if (samples.length() > 0) samples.append(' ');
+                    samples.append(sample);
+                }
+                out.println(quote(result.table) + "," + quote(result.row) + "," + quote(result.column) + ","
+                        + result.statistics.operationsPerSample() + "," + quote(samples.toString()));
+            }
+        }
+    }
+
+    /**
+     * Reads a run written by {@link #save(File)}.
+     *
+     * @param file The file to read.
+     * @return The run.
+     * @throws IOException If the file cannot be read or is not in the expected format.
+     */
+    public static ResultsStore load(File file) throws IOException {
+        LinkedHashMap<String, String> metadata = new LinkedHashMap<>();
+        ResultsStore store = new ResultsStore(metadata);
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.equals(HEADER)) continue;
+                if (line.startsWith("#")) {
+                    int separator = line.indexOf(" = ");
+                    if (separator > 0) metadata.put(line.substring(1, separator).trim(), line.substring(separator + 3));
+                    continue;
+                }
+
+                List<String> fields = parseCSVLine(line);
+                if (fields.size() != 5) throw new IOException(file + ":" + lineNumber + ": expected 5 fields but found " + fields.size());
+                try {
+                    String[] sampleStrings = fields.get(4).trim().split(" +");
+                    long[] samples = new long[sampleStrings.length];
+                    for (int i = 0; i < samples.length; i++) samples[i] = Long.parseLong(sampleStrings[i]);
+                    store.add(fields.get(0), fields.get(1), fields.get(2), new Statistics(samples, Long.parseLong(fields.get(3))));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return store;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Splits a CSV line into its fields, removing the quotes around quoted fields.
+     */
+    private static List<String> parseCSVLine(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"'); // an escaped quote
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Returns the commit the working tree is at, marked as modified if it has uncommitted changes.
+     */
+    private static String commitId() {
+        String commit = runGit("rev-parse", "HEAD");
+        if (commit == null) return "unknown";
+        String status = runGit("status", "--porcelain", "--untracked-files=no");
+        return status == null || status.isEmpty() ? commit : commit + " (modified)";
+    }
+
+    /**
+     * Runs a git command in the working directory.
+     *
+     * @return Its output, trimmed, or null if it could not be run or failed.
+     */
+    private static String runGit(String... args) {
+        ArrayList<String> command = new ArrayList<>();
+        command.add("git");
+        for (String arg : args) command.add(arg);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) output.append(line).append('\n');
+            }
+            return process.waitFor() == 0 ? output.toString().trim() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the CPU model as Linux reports it, or the architecture elsewhere.
+     */
+    private static String cpuModel() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/cpuinfo"))) {
+                if (line.startsWith("model name")) return line.substring(line.indexOf(':') + 1).trim();
+            }
+        } catch (IOException | RuntimeException e) {
+            // not Linux
+        }
+        return System.getProperty("os.arch");
+    }
+}
@@ -0,0 +1,751 @@
+package Main;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed set of ints in the style of Roaring bitmaps (Chambi, Lemire, Kaser and Godin).
+ *
+ * Each value is split into a 16-bit high key and a 16-bit low part. The high keys are kept in a sorted array,
+ * and each one owns a container holding the low parts of its chunk in whichever layout is smallest: a sorted
+ * array for up to 4096 values, a 65536-bit bitmap above that, or a list of runs for long consecutive stretches.
+ * Array and bitmap containers convert into each other automatically; run containers are produced by
+ * {@link #runOptimize()}. A dense set costs well under a byte per value, against 40 or more for a boxed key in
+ * a tree node or hash entry.
+ *
+ * Values are ordered as unsigned ints, so negative values iterate after all non-negative ones.
+ */
+public class RoaringBitmap implements BaseOperations<Integer>, Iterable<Integer> {
+
+    /** Above this many values an array container is larger than a bitmap container, so it is converted. */
+    private static final int ARRAY_MAX_SIZE = 4_096;
+    /** The size of a bitmap container, which is the largest any container needs to be. */
+    private static final int BITMAP_BYTES = 8_192;
+
+    /**
+     * Holds the low 16 bits of every value that shares a high key.
+     */
+    private static abstract class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        /**
+         * Adds a value, converting the container if its layout would become too large.
+         *
+         * @return The container that now holds the values, which may be a new one.
+         */
+        abstract Container add(char low);
+
+        /**
+         * Removes a value, converting the container if a smaller layout now fits.
+         *
+         * @return The container that now holds the values, which may be a new one.
+         */
+        abstract Container remove(char low);
+
+        /**
+         * @return The smallest value greater than or equal to from, or -1 if there is none.
+         */
+        abstract int nextValue(int from);
+
+        abstract Container copy();
+
+        abstract int sizeInBytes();
+
+        /**
+         * @return The value after v, or -1 if v is the last one.
+         */
+        int nextAfter(int v) {
+            return v == 0xFFFF ? -1 : nextValue(v + 1);
+        }
+
+        ArrayContainer toArray() {
+            char[] content = new char[cardinality()];
+            int n = 0;
+            for (int v = nextValue(0); v >= 0; v = nextAfter(v)) content[n++] = (char) v;
+            return new ArrayContainer(content, n);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int v = nextValue(0); v >= 0; v = nextAfter(v)) bitmap.words[v >>> 6] |= 1L << v;
+            bitmap.cardinality = cardinality();
+            return bitmap;
+        }
+
+        RunContainer toRun() {
+            RunContainer runs = new RunContainer();
+            for (int v = nextValue(0); v >= 0; v = nextAfter(v)) runs.add((char) v);
+            return runs;
+        }
+
+        /**
+         * @return An equivalent container in the smallest of the three layouts.
+         */
+        Container optimize() {
+            int runCount = 0;
+            int previous = -2;
+            for (int v = nextValue(0); v >= 0; v = nextAfter(v)) {
+                if (v != previous + 1) runCount++;
+                previous = v;
+            }
+            int cardinality = cardinality();
+            int bestOtherBytes = cardinality <= ARRAY_MAX_SIZE ? 2 * cardinality : BITMAP_BYTES;
+            if (4 * runCount < bestOtherBytes) return this instanceof RunContainer ? this : toRun();
+            if (cardinality <= ARRAY_MAX_SIZE) return this instanceof ArrayContainer ? this : toArray();
+            return this instanceof BitmapContainer ? this : toBitmap();
+        }
+    }
+
+    /**
+     * A sorted array of low parts, used for sparse chunks.
+     */
+    private static final class ArrayContainer extends Container {
+        char[] content;
+        int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(content, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int index = Arrays.binarySearch(content, 0, cardinality, low);
+            if (index >= 0) return this;
+            if (cardinality >= ARRAY_MAX_SIZE) return toBitmap().add(low);
+
+            index = -index - 1;
+            if (cardinality == content.length) content = Arrays.copyOf(content, Math.min(2 * cardinality, ARRAY_MAX_SIZE));
+            System.arraycopy(content, index, content, index + 1, cardinality - index);
+            content[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int index = Arrays.binarySearch(content, 0, cardinality, low);
+            if (index < 0) return this;
+            System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        int nextValue(int from) {
+            int index = Arrays.binarySearch(content, 0, cardinality, (char) from);
+            if (index < 0) index = -index - 1;
+            return index < cardinality ? content[index] : -1;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 2 * cardinality;
+        }
+
+        @Override
+        ArrayContainer toArray() {
+            return (ArrayContainer) copy();
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) bitmap.words[content[i] >>> 6] |= 1L << content[i];
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+
+        /**
+         * @return The values that other contains (keep = true) or does not contain (keep = false), or null if none.
+         */
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] result = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(content[i]) == keep) result[n++] = content[i];
+            }
+            return n == 0 ? null : new ArrayContainer(result, n);
+        }
+    }
+
+    /**
+     * A bitmap over all 65536 low parts, used for dense chunks.
+     */
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1_024];
+        int cardinality;
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return this;
+            words[low >>> 6] &= ~bit;
+            cardinality--;
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        int nextValue(int from) {
+            int index = from >>> 6;
+            long word = words[index] & (-1L << from);
+            while (word == 0) {
+                if (++index == words.length) return -1;
+                word = words[index];
+            }
+            return (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        Container copy() {
+            return toBitmap();
+        }
+
+        @Override
+        int sizeInBytes() {
+            return BITMAP_BYTES;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            System.arraycopy(words, 0, bitmap.words, 0, words.length);
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+
+        /**
+         * Recounts the cardinality after a word-wise operation.
+         *
+         * @return This container, an array container if it has become sparse, or null if it is empty.
+         */
+        Container normalize() {
+            int count = 0;
+            for (long word : words) count += Long.bitCount(word);
+            cardinality = count;
+            if (count == 0) return null;
+            return count <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+    }
+
+    /**
+     * A sorted list of runs of consecutive low parts, used for chunks made of long stretches.
+     */
+    private static final class RunContainer extends Container {
+        char[] runs = new char[8]; // runs[2i] is the start of run i and runs[2i + 1] is its length minus one
+        int runCount;
+        int cardinality;
+
+        private int start(int run) {
+            return runs[2 * run];
+        }
+
+        private int end(int run) {
+            return runs[2 * run] + runs[2 * run + 1];
+        }
+
+        private void setRun(int run, int start, int end) {
+            runs[2 * run] = (char) start;
+            runs[2 * run + 1] = (char) (end - start);
+        }
+
+        /**
+         * @return The index of the last run starting at or before value, or -1 if there is none.
+         */
+        private int floorRun(int value) {
+            int lo = 0, hi = runCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= value) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            return hi;
+        }
+
+        private void insertRun(int run, int start, int end) {
+            if (2 * runCount == runs.length) runs = Arrays.copyOf(runs, 2 * runs.length);
+            System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (runCount - run));
+            runCount++;
+            setRun(run, start, end);
+        }
+
+        private void removeRun(int run) {
+            System.arraycopy(runs, 2 * run + 2, runs, 2 * run, 2 * (runCount - run - 1));
+            runCount--;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            int run = floorRun(low);
+            return run >= 0 && low <= end(run);
+        }
+
+        @Override
+        Container add(char low) {
+            int run = floorRun(low);
+            if (run >= 0 && low <= end(run)) return this;
+            cardinality++;
+
+            boolean extendsPrevious = run >= 0 && end(run) + 1 == low;
+            boolean extendsNext = run + 1 < runCount && start(run + 1) == low + 1;
+            if (extendsPrevious && extendsNext) {
+                setRun(run, start(run), end(run + 1));
+                removeRun(run + 1);
+            } else if (extendsPrevious) {
+                setRun(run, start(run), low);
+            } else if (extendsNext) {
+                setRun(run + 1, low, end(run + 1));
+            } else {
+                insertRun(run + 1, low, low);
+                if (sizeInBytes() > BITMAP_BYTES) return toBitmap();
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int run = floorRun(low);
+            if (run < 0 || low > end(run)) return this;
+            cardinality--;
+
+            int start = start(run), end = end(run);
+            if (start == end) {
+                removeRun(run);
+            } else if (low == start) {
+                setRun(run, start + 1, end);
+            } else if (low == end) {
+                setRun(run, start, end - 1);
+            } else {
+                setRun(run, start, low - 1);
+                insertRun(run + 1, low + 1, end);
+                if (sizeInBytes() > BITMAP_BYTES) return toBitmap();
+            }
+            return this;
+        }
+
+        @Override
+        int nextValue(int from) {
+            int run = floorRun(from);
+            if (run >= 0 && from <= end(run)) return from;
+            return run + 1 < runCount ? start(run + 1) : -1;
+        }
+
+        @Override
+        Container copy() {
+            RunContainer copy = new RunContainer();
+            copy.runs = Arrays.copyOf(runs, runs.length);
+            copy.runCount = runCount;
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 4 * runCount;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int run = 0; run < runCount; run++) {
+                for (int v = start(run), end = end(run); v <= end; v++) bitmap.words[v >>> 6] |= 1L << v;
+            }
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+    }
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int containerCount;
+    private long cardinality;
+    private int modCount;
+
+    private static char highBits(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, containerCount, high);
+    }
+
+    private void insertContainer(int index, char high, Container container) {
+        if (containerCount == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+            containers = Arrays.copyOf(containers, 2 * containers.length);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        keys[index] = high;
+        containers[index] = container;
+        containerCount++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+        containers[--containerCount] = null;
+    }
+
+    /**
+     * Appends a container whose high key is greater than every key already present. Used to build results.
+     */
+    private void append(char high, Container container) {
+        if (container == null) return;
+        insertContainer(containerCount, high, container);
+        cardinality += container.cardinality();
+    }
+
+    /**
+     * Adds the specified value to the set.
+     *
+     * @param value The value to add.
+     * @return True if the value was added, false if it was already present.
+     */
+    public boolean add(int value) {
+        char high = highBits(value);
+        int index = indexOf(high);
+        if (index < 0) {
+            insertContainer(-index - 1, high, new ArrayContainer().add(lowBits(value)));
+        } else {
+            Container container = containers[index];
+            int before = container.cardinality();
+            containers[index] = container.add(lowBits(value));
+            if (containers[index].cardinality() == before) return false;
+        }
+        cardinality++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the specified value from the set.
+     *
+     * @param value The value to remove.
+     * @return True if the value was removed, false if it was not present.
+     */
+    public boolean remove(int value) {
+        int index = indexOf(highBits(value));
+        if (index < 0) return false;
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.remove(lowBits(value));
+        if (containers[index].cardinality() == before) return false;
+        if (containers[index].cardinality() == 0) removeContainer(index);
+        cardinality--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Checks whether the specified value is in the set.
+     *
+     * @param value The value to look for.
+     * @return True if the value is present.
+     */
+    public boolean contains(int value) {
+        int index = indexOf(highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    /**
+     * Inserts the specified element.
+     *
+     * @param element The element to insert.
+     * @return True if the element was inserted, false if it was null or already present.
+     */
+    @Override
+    public boolean insert(Integer element) {
+        return element != null && add(element);
+    }
+
+    /**
+     * Deletes the specified element.
+     *
+     * @param element The element to delete.
+     * @return The deleted element, or null if it was not present.
+     */
+    @Override
+    public Integer delete(Integer element) {
+        return (element != null && remove(element)) ? element : null;
+    }
+
+    /**
+     * Searches for the specified element.
+     *
+     * @param element The element to search for.
+     * @return The element if found, or null if not found.
+     */
+    @Override
+    public Integer search(Integer element) {
+        return (element != null && contains(element)) ? element : null;
+    }
+
+    /**
+     * Returns the number of values in the set. A set can hold up to 2^32 values, hence the long.
+     *
+     * @return The number of values.
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Removes all values from the set.
+     */
+    public void clear() {
+        keys = new char[4];
+        containers = new Container[4];
+        containerCount = 0;
+        cardinality = 0;
+        modCount++;
+    }
+
+    /**
+     * Converts every container to whichever of the array, bitmap and run layouts is smallest. Worth calling
+     * once a set of mostly consecutive values has been built.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < containerCount; i++) containers[i] = containers[i].optimize();
+        modCount++;
+    }
+
+    /**
+     * Returns an estimate of the memory held by the containers and keys, excluding object headers.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 2L * containerCount;
+        for (int i = 0; i < containerCount; i++) bytes += containers[i].sizeInBytes();
+        return bytes;
+    }
+
+    /**
+     * Computes the intersection of two sets. Neither input is modified.
+     *
+     * @param first The first set.
+     * @param second The second set.
+     * @return A new set holding the values present in both sets.
+     */
+    public static RoaringBitmap and(RoaringBitmap first, RoaringBitmap second) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < first.containerCount && j < second.containerCount) {
+            if (first.keys[i] < second.keys[j]) i++;
+            else if (first.keys[i] > second.keys[j]) j++;
+            else result.append(first.keys[i], and(first.containers[i++], second.containers[j++]));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the union of two sets. Neither input is modified.
+     *
+     * @param first The first set.
+     * @param second The second set.
+     * @return A new set holding the values present in either set.
+     */
+    public static RoaringBitmap or(RoaringBitmap first, RoaringBitmap second) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < first.containerCount || j < second.containerCount) {
+            if (j == second.containerCount || (i < first.containerCount && first.keys[i] < second.keys[j])) {
+                result.append(first.keys[i], first.containers[i++].copy());
+            } else if (i == first.containerCount || first.keys[i] > second.keys[j]) {
+                result.append(second.keys[j], second.containers[j++].copy());
+            } else {
+                result.append(first.keys[i], or(first.containers[i++], second.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the difference of two sets. Neither input is modified.
+     *
+     * @param first The set to subtract from.
+     * @param second The set whose values are removed.
+     * @return A new set holding the values of the first set that are not in the second.
+     */
+    public static RoaringBitmap andNot(RoaringBitmap first, RoaringBitmap second) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < first.containerCount) {
+            if (j == second.containerCount || first.keys[i] < second.keys[j]) {
+                result.append(first.keys[i], first.containers[i++].copy());
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                result.append(first.keys[i], andNot(first.containers[i++], second.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    private static long[] wordsOf(Container container) {
+        return container instanceof BitmapContainer ? ((BitmapContainer) container).words : container.toBitmap().words;
+    }
+
+    private static Container and(Container first, Container second) {
+        if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, true);
+        if (second instanceof ArrayContainer) return ((ArrayContainer) second).filter(first, true);
+
+        BitmapContainer result = first.toBitmap();
+        long[] words = wordsOf(second);
+        for (int i = 0; i < words.length; i++) result.words[i] &= words[i];
+        return result.normalize();
+    }
+
+    private static Container or(Container first, Container second) {
+        if (first instanceof ArrayContainer && second instanceof ArrayContainer
+                && first.cardinality() + second.cardinality() <= ARRAY_MAX_SIZE) {
+            ArrayContainer a = (ArrayContainer) first, b = (ArrayContainer) second;
+            char[] merged = new char[a.cardinality + b.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < a.cardinality && j < b.cardinality) {
+                if (a.content[i] < b.content[j]) merged[n++] = a.content[i++];
+                else if (a.content[i] > b.content[j]) merged[n++] = b.content[j++];
+                else { merged[n++] = a.content[i++]; j++; }
+            }
+            while (i < a.cardinality) merged[n++] = a.content[i++];
+            while (j < b.cardinality) merged[n++] = b.content[j++];
+            return new ArrayContainer(merged, n);
+        }
+
+        if (first instanceof ArrayContainer) {
+            Container swap = first;
+            first = second;
+            second = swap;
+        }
+        BitmapContainer result = first.toBitmap();
+        if (second instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) second;
+            for (int i = 0; i < array.cardinality; i++) result.words[array.content[i] >>> 6] |= 1L << array.content[i];
+        } else {
+            long[] words = wordsOf(second);
+            for (int i = 0; i < words.length; i++) result.words[i] |= words[i];
+        }
+        return result.normalize();
+    }
+
+    private static Container andNot(Container first, Container second) {
+        if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, false);
+
+        BitmapContainer result = first.toBitmap();
+        if (second instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) second;
+            for (int i = 0; i < array.cardinality; i++) result.words[array.content[i] >>> 6] &= ~(1L << array.content[i]);
+        } else {
+            long[] words = wordsOf(second);
+            for (int i = 0; i < words.length; i++) result.words[i] &= ~words[i];
+        }
+        return result.normalize();
+    }
+
+    /**
+     * Returns an iterator over the values in unsigned ascending order. The iterator is fail-fast.
+     *
+     * @return An iterator over the values.
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new BitmapIterator();
+    }
+
+    /**
+     * Walks the containers in key order, and each container's values in ascending order.
+     */
+    private class BitmapIterator implements Iterator<Integer> {
+        private int index;
+        private int nextLow;
+        private final int expectedModCount = modCount;
+
+        BitmapIterator() {
+            advance(0);
+        }
+
+        /**
+         * Moves to the first value at or after from in the current container, or to the start of a later one.
+         */
+        private void advance(int from) {
+            while (index < containerCount) {
+                int low = from > 0xFFFF ? -1 : containers[index].nextValue(from);
+                if (low >= 0) {
+                    nextLow = low;
+                    return;
+                }
+                index++;
+                from = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < containerCount;
+        }
+
+        @Override
+        public Integer next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            int value = (keys[index] << 16) | nextLow;
+            advance(nextLow + 1);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package Main;
+
+import Main.Benchmarker.ThreadKind;
+import Main.Benchmarker.ThroughputResult;
+import Main.DataTable.Format;
+import Main.HashTable.CollisionBehavior;
+import Main.LockedOperations.Locking;
+import Main.Workload.KeyDistribution;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Replays one workload from 1 up to as many threads as there are cores, against every structure, and prints a
+ * scalability curve for each: the aggregate throughput, the speedup over one thread, and the 99th percentile
+ * latency of the slowest thread. The structures that are not thread-safe run behind a {@link LockedOperations}.
+ *
+ * Usage: ScalabilityBenchmark [locking] [thread kind], where locking is one of {@link Locking} (Exclusive by
+ * default) and the thread kind one of {@link ThreadKind} (Platform by default).
+ */
+public class ScalabilityBenchmark {
+    public static final int INITIAL_KEYS = 50_000;
+    public static final int OPERATIONS = 200_000;
+    public static final int READ_PERCENTAGE = 90;
+    public static final int INSERT_PERCENTAGE = 5;
+    public static final KeyDistribution DISTRIBUTION = KeyDistribution.Zipfian;
+    public static final int WARMUP_ROUNDS = 3;
+    public static final int TRIALS = 5;
+    public static final long SEED = 1;
+
+    public static void main(String[] args) throws InterruptedException {
+        Locking locking = args.length > 0 ? Locking.valueOf(args[0]) : Locking.Exclusive;
+        ThreadKind threadKind = args.length > 1 ? ThreadKind.valueOf(args[1]) : ThreadKind.Platform;
+        if (threadKind == ThreadKind.Virtual && !Benchmarker.virtualThreadsSupported()) {
+            System.err.println("Virtual threads need Java 21 or later");
+            return;
+        }
+
+        String[] rowHeaders = new String[] {
+                "Concurrent AVL Tree", "Concurrent Splay Tree", "Lock-free Skip List",
+                "AVL Tree (" + locking + " lock)", "Splay Tree (Exclusive lock)", "B+ Tree (" + locking + " lock)",
+                "Roaring Bitmap (" + locking + " lock)", "Hash Table (Chaining, " + locking + " lock)",
+                "Hash Table (Quadratic Probing, " + locking + " lock)"
+        };
+        ArrayList<Supplier<BaseOperations<Integer>>> structures = new ArrayList<>();
+        structures.add(ConcurrentAVLTree::new);
+        structures.add(ConcurrentSplayTree::new);
+        structures.add(LockFreeSkipList::new);
+        structures.add(() -> new LockedOperations<Integer>(new AVLTree<Integer>(), locking));
+        // searches restructure a splay tree, so it can never share a read lock
+        structures.add(() -> new LockedOperations<Integer>(new SplayTree<Integer>(), Locking.Exclusive));
+        structures.add(() -> new LockedOperations<Integer>(new BPlusTree<Integer>(), locking));
+        structures.add(() -> new LockedOperations<Integer>(new RoaringBitmap(), locking));
+        structures.add(() -> new LockedOperations<Integer>(new HashTable<Integer, Integer>(CollisionBehavior.Chaining, x -> x), locking));
+        structures.add(() -> new LockedOperations<Integer>(new HashTable<Integer, Integer>(CollisionBehavior.QuadraticProbing, x -> x), locking));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        String[] colHeaders = new String[cores + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 1; i <= cores; i++) colHeaders[i] = i + (i == 1 ? " Thread" : " Threads");
+
+        Workload<Integer> workload = new Workload<Integer>(INITIAL_KEYS, OPERATIONS, READ_PERCENTAGE, INSERT_PERCENTAGE,
+                DISTRIBUTION, SEED, Integer::valueOf);
+        String description = READ_PERCENTAGE + "% reads, " + DISTRIBUTION + " keys, " + threadKind + " threads";
+        DataTable throughputTable = new DataTable("Operations per Second (" + description + ")", colHeaders, rowHeaders);
+        DataTable speedupTable = new DataTable("Speedup over One Thread (x100)", colHeaders, rowHeaders);
+        DataTable latencyTable = new DataTable("99th Percentile Latency of the Slowest Thread", colHeaders, rowHeaders);
+
+        for (Supplier<BaseOperations<Integer>> structure : structures) {
+            long[] throughputs = new long[cores];
+            long[] speedups = new long[cores];
+            long[] latencies = new long[cores];
+            for (int threads = 1; threads <= cores; threads++) {
+                Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS);
+                ThroughputResult result = benchmarker.benchmarkThroughput(workload, threads, threadKind);
+                throughputs[threads - 1] = Math.round(result.opsPerSecond());
+                speedups[threads - 1] = Math.round(100.0 * throughputs[threads - 1] / Math.max(1, throughputs[0]));
+                for (LatencyHistogram threadLatencies : result.threadLatencies) {
+                    latencies[threads - 1] = Math.max(latencies[threads - 1], threadLatencies.valueAtPercentile(99));
+                }
+            }
+            throughputTable.AddRow(throughputs);
+            speedupTable.AddRow(speedups);
+            latencyTable.AddRow(latencies);
+        }
+
+        throughputTable.print(Format.CSV);
+        System.out.println("\n");
+        speedupTable.print(Format.CSV);
+        System.out.println("\n");
+        latencyTable.print(Format.LATENCY);
+    }
+}
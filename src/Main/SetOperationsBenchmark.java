@@ -0,0 +1,105 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+
+/**
+ * Measures how the join-based set operations on {@link AVLTree} scale with the number of cores,
+ * next to the element-by-element insertion they replace.
+ */
+public class SetOperationsBenchmark {
+    public static final int SET_SIZE = 1_000_000;
+    public static final int ITERATIONS_PER_LEVEL = 5;
+
+    public static final String[] colHeaders = new String[] {
+            "Parallelism", "Union", "Intersection", "Difference", "Element-wise Union"
+    };
+
+    public static void main(String[] args) {
+        // two overlapping key sets, drawn from a range twice their size so roughly half of the keys are shared
+        Integer[] first = randomSortedKeys(SET_SIZE);
+        Integer[] second = randomSortedKeys(SET_SIZE);
+
+        // 1, 2, 4, ... threads, always ending with every available core
+        ArrayList<Integer> levels = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p < cores; p *= 2) levels.add(p);
+        levels.add(cores);
+
+        String[] rowHeaders = new String[levels.size()];
+        for (int i = 0; i < levels.size(); i++) {
+            rowHeaders[i] = levels.get(i) + (levels.get(i) == 1 ? " thread" : " threads");
+        }
+
+        DataTable table = new DataTable("Set Operations on " + Main.df.format(SET_SIZE) + " Keys (Time in milliseconds)", colHeaders, rowHeaders);
+        for (int parallelism : levels) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            long[] row = new long[colHeaders.length - 1];
+            for (int i = 0; i < ITERATIONS_PER_LEVEL; i++) {
+                row[0] += time(first, second, (a, b) -> AVLTree.union(a, b, pool));
+                row[1] += time(first, second, (a, b) -> AVLTree.intersection(a, b, pool));
+                row[2] += time(first, second, (a, b) -> AVLTree.difference(a, b, pool));
+                row[3] += timeElementWiseUnion(first, second);
+            }
+            for (int j = 0; j < row.length; j++) row[j] /= ITERATIONS_PER_LEVEL;
+            table.AddRow(row);
+            pool.shutdown();
+        }
+
+        table.print(Format.TIME);
+        System.out.println("\n");
+        table.printCSV(Main.CSV_TIME_FACTOR);
+    }
+
+    /**
+     * Generates sorted random keys in [1, 2 * n], so that building a tree from them takes O(n).
+     *
+     * @param n The number of keys to draw (duplicates are dropped when the tree is built).
+     * @return The keys in ascending order.
+     */
+    private static Integer[] randomSortedKeys(int n) {
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (int) (Math.random() * (2.0 * n)) + 1;
+        }
+        Arrays.parallelSort(keys);
+        return keys;
+    }
+
+    /**
+     * Times one set operation on freshly built operand trees, since the operations consume their inputs.
+     * Building the operands is not part of the measurement.
+     *
+     * @param first The keys of the first operand.
+     * @param second The keys of the second operand.
+     * @param operation The set operation to run.
+     * @return The time taken by the set operation in nanoseconds.
+     */
+    private static long time(Integer[] first, Integer[] second, BinaryOperator<AVLTree<Integer>> operation) {
+        AVLTree<Integer> firstTree = new AVLTree<Integer>(first);
+        AVLTree<Integer> secondTree = new AVLTree<Integer>(second);
+        long startTime = System.nanoTime();
+        operation.apply(firstTree, secondTree);
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Times the single-threaded alternative to a union: inserting every element of the second tree into the first.
+     *
+     * @param first The keys of the tree to insert into.
+     * @param second The keys to insert.
+     * @return The time taken in nanoseconds.
+     */
+    private static long timeElementWiseUnion(Integer[] first, Integer[] second) {
+        AVLTree<Integer> tree = new AVLTree<Integer>(first);
+        long startTime = System.nanoTime();
+        for (Integer key : second) {
+            tree.insert(key);
+        }
+        return System.nanoTime() - startTime;
+    }
+}
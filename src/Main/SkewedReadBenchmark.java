@@ -0,0 +1,60 @@
+package Main;
+
+import Main.Benchmarker.ThreadKind;
+import Main.DataTable.Format;
+import Main.Workload.KeyDistribution;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Measures read-only throughput under a Zipfian key distribution as the number of threads grows, comparing
+ * {@link ConcurrentSplayTree} with a {@link SplayTree} behind a global lock and with {@link ConcurrentAVLTree}.
+ * Each cell is the mean of {@link #TRIALS} replays on a freshly filled tree, after {@link #WARMUP_ROUNDS}
+ * discarded ones.
+ */
+public class SkewedReadBenchmark {
+    public static final int KEY_COUNT = 1_000_000;
+    public static final int SEARCHES = 2_000_000;
+    public static final int WARMUP_ROUNDS = 3;
+    public static final int TRIALS = 5;
+    public static final long SEED = 1;
+
+    public static final String[] rowHeaders = new String[] {
+            "Concurrent Splay Tree", "Splay Tree (global lock)", "Concurrent AVL Tree"
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        ArrayList<Supplier<BaseOperations<Integer>>> structures = new ArrayList<>();
+        structures.add(ConcurrentSplayTree::new);
+        structures.add(() -> new LockedOperations<Integer>(new SplayTree<Integer>()));
+        structures.add(ConcurrentAVLTree::new);
+
+        // 1, 2, 4, ... threads, always ending with every available core
+        ArrayList<Integer> threadCounts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int t = 1; t < cores; t *= 2) threadCounts.add(t);
+        threadCounts.add(cores);
+
+        String[] colHeaders = new String[threadCounts.size() + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 0; i < threadCounts.size(); i++) {
+            colHeaders[i + 1] = threadCounts.get(i) + (threadCounts.get(i) == 1 ? " Thread" : " Threads");
+        }
+
+        // the keys are inserted in a scattered order, and the Zipfian searches favour the first ones inserted,
+        // so the hot keys are scattered over the key range
+        Workload<Integer> workload = new Workload<Integer>(KEY_COUNT, SEARCHES, 100, 0, KeyDistribution.Zipfian, SEED, Integer::valueOf);
+
+        DataTable table = new DataTable("Searches per Second (Zipfian, theta = " + ZipfianGenerator.DEFAULT_THETA + ")", colHeaders, rowHeaders);
+        for (Supplier<BaseOperations<Integer>> structure : structures) {
+            Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS);
+            long[] row = new long[threadCounts.size()];
+            for (int i = 0; i < threadCounts.size(); i++) {
+                row[i] = Math.round(benchmarker.benchmarkThroughput(workload, threadCounts.get(i), ThreadKind.Platform).opsPerSecond());
+            }
+            table.AddRow(row);
+        }
+        table.print(Format.CSV);
+    }
+}
@@ -0,0 +1,172 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Measures reader throughput while a single writer keeps inserting, comparing lock-free reads of
+ * {@link PersistentAVLTree} snapshots with an {@link AVLTree} guarded by a read-write lock. Each cell is the mean
+ * of {@link #TRIALS} timed runs, after {@link #WARMUP_ROUNDS} discarded ones.
+ *
+ * The writer and the readers do different work, so this does not fit {@link Benchmarker#benchmarkThroughput}, which
+ * splits one workload between identical threads; it runs for a fixed time instead.
+ */
+public class SnapshotReadBenchmark {
+    public static final int INITIAL_SIZE = 1_000_000;
+    public static final long RUN_MILLIS = 2_000;
+    public static final int WARMUP_ROUNDS = 1;
+    public static final int TRIALS = 3;
+
+    public static final String[] rowHeaders = new String[] {
+            "Persistent AVL Tree (snapshots)", "AVL Tree (read-write lock)"
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        // 1, 2, 4, ... reader threads, always ending with every available core
+        ArrayList<Integer> readerCounts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int r = 1; r < cores; r *= 2) readerCounts.add(r);
+        readerCounts.add(cores);
+
+        String[] colHeaders = new String[readerCounts.size() + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 0; i < readerCounts.size(); i++) {
+            colHeaders[i + 1] = readerCounts.get(i) + (readerCounts.get(i) == 1 ? " Reader" : " Readers");
+        }
+
+        long[] persistentRow = new long[readerCounts.size()];
+        long[] lockedRow = new long[readerCounts.size()];
+        for (int i = 0; i < readerCounts.size(); i++) {
+            persistentRow[i] = measurePersistent(readerCounts.get(i));
+            lockedRow[i] = measureLocked(readerCounts.get(i));
+        }
+
+        DataTable table = new DataTable("Reads per Second with One Concurrent Writer", colHeaders, rowHeaders);
+        table.AddRow(persistentRow);
+        table.AddRow(lockedRow);
+        table.print(Format.CSV);
+    }
+
+    /**
+     * Runs the readers against snapshots of a persistent tree. Each reader takes a fresh snapshot per batch of reads.
+     *
+     * @param readers The number of reader threads.
+     * @return The aggregate number of reads per second.
+     */
+    private static long measurePersistent(int readers) throws InterruptedException {
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<Integer>();
+        for (int i = 0; i < INITIAL_SIZE; i++) tree.insert(i * 2);
+
+        return run(readers,
+                () -> tree.insert(ThreadLocalRandom.current().nextInt(4 * INITIAL_SIZE)),
+                () -> {
+                    PersistentAVLTree.Snapshot<Integer> snapshot = tree.snapshot();
+                    for (int j = 0; j < 64; j++) {
+                        snapshot.search(ThreadLocalRandom.current().nextInt(2 * INITIAL_SIZE));
+                    }
+                });
+    }
+
+    /**
+     * Runs the readers against an AVL tree behind a read-write lock, so the writer blocks every reader.
+     *
+     * @param readers The number of reader threads.
+     * @return The aggregate number of reads per second.
+     */
+    private static long measureLocked(int readers) throws InterruptedException {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        for (int i = 0; i < INITIAL_SIZE; i++) tree.insert(i * 2);
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        return run(readers,
+                () -> {
+                    lock.writeLock().lock();
+                    try {
+                        tree.insert(ThreadLocalRandom.current().nextInt(4 * INITIAL_SIZE));
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                },
+                () -> {
+                    lock.readLock().lock();
+                    try {
+                        for (int j = 0; j < 64; j++) {
+                            tree.search(ThreadLocalRandom.current().nextInt(2 * INITIAL_SIZE));
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                });
+    }
+
+    /**
+     * Runs one writer thread and a number of reader threads for {@link #RUN_MILLIS} milliseconds, {@link #WARMUP_ROUNDS}
+     * times to warm up and then {@link #TRIALS} times to measure.
+     *
+     * @param readers The number of reader threads.
+     * @param write One write.
+     * @param readBatch A batch of 64 reads.
+     * @return The mean aggregate number of reads per second of the measured runs.
+     */
+    private static long run(int readers, Runnable write, Runnable readBatch) throws InterruptedException {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) runOnce(readers, write, readBatch);
+        long total = 0;
+        for (int trial = 0; trial < TRIALS; trial++) total += runOnce(readers, write, readBatch);
+        return total / TRIALS;
+    }
+
+    /**
+     * Runs one writer thread and a number of reader threads for {@link #RUN_MILLIS} milliseconds. The first exception
+     * or error thrown by any of them is rethrown once all of them finished, since a dead writer would leave the
+     * readers timing a tree that no longer changes.
+     *
+     * @param readers The number of reader threads.
+     * @param write One write.
+     * @param readBatch A batch of 64 reads.
+     * @return The aggregate number of reads per second.
+     */
+    private static long runOnce(int readers, Runnable write, Runnable readBatch) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ArrayList<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            try {
+                while (running.get()) write.run();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                running.set(false);
+            }
+        }));
+        for (int i = 0; i < readers; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        readBatch.run();
+                        reads.add(64);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    running.set(false);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) thread.start();
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) thread.join();
+
+        Throwable thrown = failure.get();
+        if (thrown instanceof RuntimeException) throw (RuntimeException) thrown;
+        if (thrown instanceof Error) throw (Error) thrown;
+        return reads.sum() * 1_000 / RUN_MILLIS;
+    }
+}
@@ -0,0 +1,70 @@
+package Main;
+
+import Main.DataTable.Format;
+
+import java.util.Random;
+
+/**
+ * Measures how long {@link SplayTree} takes to insert sorted, reverse-sorted and randomly ordered keys,
+ * up to ten million of them. Sorted orders are the cheap case for a splay tree, since every insert lands
+ * next to the root, but they also build a path as deep as the tree is large.
+ */
+public class SplayInsertOrderBenchmark {
+    public static final int[] SIZES = {100_000, 1_000_000, 10_000_000};
+    public static final int ITERATIONS_PER_SIZE = 3;
+
+    public static final String[] rowHeaders = new String[] {
+            "Sorted", "Reverse-sorted", "Random"
+    };
+
+    public static void main(String[] args) {
+        String[] colHeaders = new String[SIZES.length + 1];
+        colHeaders[0] = "Insert Order";
+        for (int i = 0; i < SIZES.length; i++) {
+            colHeaders[i + 1] = Main.df.format(SIZES[i]) + " Keys";
+        }
+
+        long[][] rows = new long[rowHeaders.length][SIZES.length];
+        Random random = new Random(1);
+        for (int s = 0; s < SIZES.length; s++) {
+            int n = SIZES[s];
+            Integer[] sorted = new Integer[n];
+            Integer[] reversed = new Integer[n];
+            Integer[] shuffled = new Integer[n];
+            for (int i = 0; i < n; i++) sorted[i] = reversed[n - 1 - i] = shuffled[i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer swap = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = swap;
+            }
+
+            Integer[][] orders = {sorted, reversed, shuffled};
+            for (int i = 0; i < ITERATIONS_PER_SIZE; i++) {
+                for (int o = 0; o < orders.length; o++) rows[o][s] += timeInserts(orders[o]);
+            }
+            for (long[] row : rows) row[s] /= ITERATIONS_PER_SIZE;
+        }
+
+        DataTable table = new DataTable("Splay Tree Insertion by Key Order", colHeaders, rowHeaders);
+        for (long[] row : rows) table.AddRow(row);
+        table.print(Format.TIME);
+        System.out.println("\n");
+        table.printCSV(Main.CSV_TIME_FACTOR);
+    }
+
+    /**
+     * Inserts keys into an empty splay tree.
+     *
+     * @param keys The keys, in the order to insert them.
+     * @return The time taken in nanoseconds.
+     */
+    private static long timeInserts(Integer[] keys) {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        long startTime = System.nanoTime();
+        for (Integer key : keys) {
+            tree.insert(key);
+        }
+        return System.nanoTime() - startTime;
+    }
+}
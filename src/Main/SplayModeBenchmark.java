@@ -0,0 +1,93 @@
+package Main;
+
+import Main.DataTable.Format;
+import Main.SplayTree.SplayMode;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the search modes of {@link SplayTree} on read-only workloads, reporting the time taken and the
+ * number of rotations per search. Under a skewed workload, the lighter modes should keep the hot keys near
+ * the root while rotating far less than a full splay.
+ */
+public class SplayModeBenchmark {
+    public static final int KEY_COUNT = 1_000_000;
+    public static final int SEARCHES = 5_000_000;
+    public static final int ITERATIONS = 3;
+
+    public static final String[] colHeaders = new String[] {
+            "Splay Mode", "Uniform", "Zipfian (theta = " + ZipfianGenerator.DEFAULT_THETA + ")"
+    };
+    public static final String[] rowHeaders = new String[] {
+            "Full", "Semi", "Depth threshold (32)", "Randomized (p = 0.1)"
+    };
+    public static final SplayMode[] modes = new SplayMode[] {
+            SplayMode.Full, SplayMode.Semi, SplayMode.DepthThreshold, SplayMode.Randomized
+    };
+
+    public static void main(String[] args) {
+        // the keys, in a random insertion order; the Zipfian ranks are mapped onto them the same way, so the
+        // hot keys are scattered over the key range rather than clustered at its low end
+        Random random = new Random(1);
+        Integer[] keys = new Integer[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) keys[i] = i;
+        for (int i = KEY_COUNT - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+
+        Random uniform = new Random(2);
+        Integer[] uniformLookups = lookups(() -> uniform.nextInt(KEY_COUNT), keys);
+        ZipfianGenerator zipfian = new ZipfianGenerator(KEY_COUNT, 3);
+        Integer[] zipfianLookups = lookups(zipfian::nextInt, keys);
+        Integer[][] workloads = {uniformLookups, zipfianLookups};
+
+        long[][] times = new long[modes.length][workloads.length];
+        long[][] rotations = new long[modes.length][workloads.length];
+        for (int m = 0; m < modes.length; m++) {
+            for (int w = 0; w < workloads.length; w++) {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    SplayTree<Integer> tree = new SplayTree<Integer>(modes[m]);
+                    for (Integer key : keys) tree.insert(key);
+
+                    long rotationsBefore = tree.rotationCount();
+                    long startTime = System.nanoTime();
+                    for (Integer key : workloads[w]) {
+                        tree.search(key);
+                    }
+                    times[m][w] += System.nanoTime() - startTime;
+                    rotations[m][w] += tree.rotationCount() - rotationsBefore;
+                }
+                times[m][w] /= ITERATIONS;
+                rotations[m][w] = rotations[m][w] * 1_000 / ((long) ITERATIONS * SEARCHES);
+            }
+        }
+
+        DataTable timeTable = new DataTable("Time for " + Main.df.format(SEARCHES) + " Searches over " + Main.df.format(KEY_COUNT) + " Keys", colHeaders, rowHeaders);
+        for (long[] row : times) timeTable.AddRow(row);
+        timeTable.print(Format.TIME);
+        System.out.println("\n");
+        timeTable.printCSV(Main.CSV_TIME_FACTOR);
+        System.out.println("\n");
+
+        DataTable rotationTable = new DataTable("Rotations per 1,000 Searches", colHeaders, rowHeaders);
+        for (long[] row : rotations) rotationTable.AddRow(row);
+        rotationTable.print(Format.CSV);
+    }
+
+    /**
+     * Draws the lookup keys: each drawn rank selects a key by its position in the insertion order.
+     *
+     * @param ranks Draws ranks in [0, KEY_COUNT).
+     * @param keys The keys.
+     * @return The keys to look up.
+     */
+    private static Integer[] lookups(IntSupplier ranks, Integer[] keys) {
+        Integer[] lookups = new Integer[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) lookups[i] = keys[ranks.getAsInt()];
+        return lookups;
+    }
+}
@@ -1,14 +1,25 @@
 package Main;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * A Splay Tree implementation (self-balancing BST).
  * Every time a node is accessed, it is moved to the root via rotations.
  * This provides good average performance for a sequence of operations, with the complexity
  * of a single operation being O(log n) on average, though it can degrade to O(n) in the worst case.
  *
+ * When the access distribution is skewed but stable, the tree can instead count accesses per node and be
+ * rebuilt once into a nearly optimal static shape with {@link #rebuildOptimal()}, after which searches no longer
+ * splay until the tree is next modified.
+ *
  * @param <T> The type of elements stored in the tree. Must be Comparable.
  */
-public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
+public class SplayTree<T extends Comparable<T>> implements BaseOperations<T>, Iterable<T> {
 
     /**
      * Represents a node in the Splay Tree.
@@ -16,6 +27,7 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
     private class SplayNode {
         public T data;       // The data stored in the node
         public SplayNode left, right;  // Left and right child nodes
+        public long accessCount;  // The number of successful searches, while access counting is enabled
 
         /**
          * Constructs a new node with the given data.
@@ -27,50 +39,123 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
         }
     }
 
+    /**
+     * Specifies how much restructuring a search does. Inserts and deletes always splay fully, since they need
+     * the key at the root.
+     * <ul>
+     *     <li>Full: splay the accessed node to the root (Sleator and Tarjan's top-down splay).</li>
+     *     <li>Semi: semi-splay, which only about halves the depth of the accessed node, with one rotation per
+     *     zig-zig step instead of two.</li>
+     *     <li>DepthThreshold: splay fully only when the node was found deeper than a threshold, so a tree that
+     *     is already shallow for the working set is left alone.</li>
+     *     <li>Randomized: splay fully with a fixed probability, and otherwise just search.</li>
+     * </ul>
+     */
+    public enum SplayMode {
+        Full, Semi, DepthThreshold, Randomized
+    }
+
+    private static final int DEFAULT_DEPTH_THRESHOLD = 32;
+    private static final double DEFAULT_SPLAY_PROBABILITY = 0.1;
+
     private SplayNode root; // The root node of the tree
+    private int modCount; // Counts restructurings (including those done by search) so iterators can fail fast
+    private final SplayNode header = new SplayNode(null); // The scratch root of the assembly trees used while splaying
+    private final ArrayList<SplayNode> path = new ArrayList<>(); // The scratch access path used by semi-splaying
+    private long rotations; // The number of rotations performed, counting each top-down link step as one
+    private boolean countingAccesses; // Whether successful searches increment the accessCount of their node
+    private boolean optimalShape; // Whether the tree has been rebuilt by rebuildOptimal and not modified since
+
+    private final SplayMode splayMode;
+    private final int depthThreshold;
+    private final double splayProbability;
 
     /**
-     * Splays the tree by bringing the node with the specified key to the root.
+     * Constructs an empty tree whose searches splay fully.
+     */
+    public SplayTree() {
+        this(SplayMode.Full);
+    }
+
+    /**
+     * Constructs an empty tree with the given search mode, a depth threshold of 32 and a splay probability of 0.1.
+     *
+     * @param splayMode How much restructuring a search does.
+     */
+    public SplayTree(SplayMode splayMode) {
+        this(splayMode, DEFAULT_DEPTH_THRESHOLD, DEFAULT_SPLAY_PROBABILITY);
+    }
+
+    /**
+     * Constructor for full customization.
+     *
+     * @param splayMode How much restructuring a search does.
+     * @param depthThreshold The depth (the root is at depth 0) beyond which a DepthThreshold search splays.
+     * @param splayProbability The probability with which a Randomized search splays.
+     */
+    public SplayTree(SplayMode splayMode, int depthThreshold, double splayProbability) {
+        if (depthThreshold < 0) throw new IllegalArgumentException("Depth threshold must not be negative: " + depthThreshold);
+        if (splayProbability < 0 || splayProbability > 1) throw new IllegalArgumentException("Splay probability must be in [0, 1]: " + splayProbability);
+        this.splayMode = splayMode;
+        this.depthThreshold = depthThreshold;
+        this.splayProbability = splayProbability;
+    }
+
+    /**
+     * Splays the tree by bringing the node with the specified key to the root, using Sleator and Tarjan's
+     * top-down splay. Nodes smaller than the key are hung off the right spine of a left assembly tree and
+     * nodes larger than it off the left spine of a right assembly tree on the way down, and the two are
+     * reattached under the final node, so a splay is a single loop with no recursion. If the key is absent,
+     * the last node on its search path becomes the root.
      *
      * @param root The root of the subtree to splay.
      * @param key The key of the node to splay.
      * @return The new root of the subtree after splaying.
      */
     private SplayNode splay(SplayNode root, T key) {
-        if (root == null || root.data.equals(key)) return root; // the key was found or the tree is empty
-
-        // If key lies in the left subtree
-        if (key.compareTo(root.data) < 0) {
-            if (root.left == null) return root; // the key is not in the tree
-
-            // Perform zig-zig or zig-zag if needed
-            if (key.compareTo(root.left.data) < 0) { // Zig-Zig (Left Left)
-                root.left.left = splay(root.left.left, key);
-                root = rotateRight(root);
-            } else if (key.compareTo(root.left.data) > 0) { // Zig-Zag (Left Right)
-                root.left.right = splay(root.left.right, key);
-                if (root.left.right != null)
-                    root.left = rotateLeft(root.left);
-            }
+        if (root == null) return null;
 
-            // no left child exists or key is left child
-            return (root.left == null) ? root : rotateRight(root);
-        } else { // If key lies in the right subtree
-            if (root.right == null) return root; // the key is not in the tree
-
-            // Perform zag-zig or zag-zag if needed
-            if (key.compareTo(root.right.data) < 0) { // Zag-Zig (Right Left)
-                root.right.left = splay(root.right.left, key);
-                if (root.right.left != null)
-                    root.right = rotateRight(root.right);
-            } else if (key.compareTo(root.right.data) > 0) { // Zag-Zag (Right Right)
-                root.right.right = splay(root.right.right, key);
-                root = rotateLeft(root);
-            }
+        // header.right collects the left assembly tree and header.left the right assembly tree
+        header.left = header.right = null;
+        SplayNode leftTreeMax = header, rightTreeMin = header;
+        SplayNode current = root;
 
-            // no right child exists or key is right child
-            return (root.right == null) ? root : rotateLeft(root);
+        while (true) {
+            int comparisonValue = key.compareTo(current.data);
+            if (comparisonValue < 0) {
+                if (current.left == null) break; // the key is not in the tree
+                if (key.compareTo(current.left.data) < 0) { // Zig-Zig (Left Left): rotate first
+                    current = rotateRight(current);
+                    if (current.left == null) break;
+                }
+                // link right: current and its right subtree are all larger than the key
+                rightTreeMin.left = current;
+                rightTreeMin = current;
+                rotations++;
+                current = current.left;
+            } else if (comparisonValue > 0) {
+                if (current.right == null) break; // the key is not in the tree
+                if (key.compareTo(current.right.data) > 0) { // Zag-Zag (Right Right): rotate first
+                    current = rotateLeft(current);
+                    if (current.right == null) break;
+                }
+                // link left: current and its left subtree are all smaller than the key
+                leftTreeMax.right = current;
+                leftTreeMax = current;
+                rotations++;
+                current = current.right;
+            } else {
+                break; // the key was found
+            }
         }
+
+        // reassemble: the final node's subtrees go to the inner spines, and the assembly trees become its children
+        leftTreeMax.right = current.left;
+        rightTreeMin.left = current.right;
+        current.left = header.right;
+        current.right = header.left;
+        header.left = header.right = null; // do not keep nodes reachable from the header
+        return current;
     }
 
     /**
@@ -81,6 +166,7 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
      * @return The new root of the subtree after rotation.
      */
     private SplayNode rotateRight(SplayNode parent) {
+        rotations++;
         SplayNode pivot = parent.left;  // pivot is the left child of parent
         SplayNode rightChildOfPivot = pivot.right;  // store the right child of pivot
 
@@ -99,6 +185,7 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
      * @return The new root of the subtree after rotation.
      */
     private SplayNode rotateLeft(SplayNode parent) {
+        rotations++;
         SplayNode pivot = parent.right;  // pivot is the right child of parent
         SplayNode leftChildOfPivot = pivot.left;  // store the left child of pivot
 
@@ -117,6 +204,8 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
      */
     @Override
     public boolean insert(T key) {
+        modCount++;
+        optimalShape = false;
         if (root == null) {
             root = new SplayNode(key);
             return true;
@@ -154,6 +243,8 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
     public T delete(T key) {
         if (root == null) return null;
 
+        modCount++;
+        optimalShape = false;
         root = splay(root, key);
 
         if (!root.data.equals(key)) return null; // Key not found
@@ -181,26 +272,595 @@ public class SplayTree<T extends Comparable<T>> implements BaseOperations<T> {
      */
     @Override
     public T search(T key) {
+        return access(key);
+    }
+
+    /**
+     * Looks a key up and restructures the tree as the splay mode prescribes.
+     *
+     * @param key The key to look up.
+     * @return The key if found, or null if the key is not in the tree.
+     */
+    private T access(T key) {
+        if (root == null) return null;
+        SplayNode found;
+        if (optimalShape) {
+            found = find(key); // a rebuilt tree is already shaped for the access distribution
+        } else {
+            switch (splayMode) {
+                case Semi:
+                    found = semiSplay(key);
+                    break;
+                case DepthThreshold: {
+                    // a plain descent first; only a deep node is worth the rotations
+                    int depth = 0;
+                    SplayNode node = root;
+                    while (true) {
+                        int comparisonValue = key.compareTo(node.data);
+                        SplayNode next = comparisonValue < 0 ? node.left : node.right;
+                        if (comparisonValue == 0 || next == null) break;
+                        node = next;
+                        depth++;
+                    }
+                    if (depth > depthThreshold) {
+                        modCount++;
+                        root = splay(root, key);
+                    }
+                    found = node.data.compareTo(key) == 0 ? node : null;
+                    break;
+                }
+                case Randomized:
+                    found = ThreadLocalRandom.current().nextDouble() < splayProbability ? fullSplay(key) : find(key);
+                    break;
+                case Full:
+                default:
+                    found = fullSplay(key);
+                    break;
+            }
+        }
+
+        if (found == null) return null;
+        if (countingAccesses) found.accessCount++;
+        return found.data;
+    }
+
+    /**
+     * Splays the node with the given key, or the last node on its search path, all the way to the root.
+     *
+     * @param key The key to look up.
+     * @return The new root if it has the key, or null if the key is not in the tree.
+     */
+    private SplayNode fullSplay(T key) {
+        modCount++;
         root = splay(root, key);
-        return (root != null && root.data.equals(key)) ? root.data : null;
+        return root.data.compareTo(key) == 0 ? root : null;
     }
 
     /**
-     * Prints the elements of the tree in in-order traversal.
+     * Finds the node with the given key without restructuring the tree.
+     *
+     * @param key The key to look for.
+     * @return The node, or null if the key is not in the tree.
+     */
+    private SplayNode find(T key) {
+        SplayNode node = root;
+        while (node != null) {
+            int comparisonValue = key.compareTo(node.data);
+            if (comparisonValue == 0) return node;
+            node = comparisonValue < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Semi-splays the node with the given key, or the last node on its search path, as in section 5 of
+     * Sleator and Tarjan's "Self-Adjusting Binary Search Trees". Working up the path two levels at a time, a
+     * zig-zig step rotates only the parent over the grandparent and continues from the parent, and a zig-zag
+     * step lifts the node over both. The node ends up at about half its depth, and so does the rest of the path.
+     *
+     * @param key The key to look up.
+     * @return The node with the key, or null if the key is not in the tree.
+     */
+    private SplayNode semiSplay(T key) {
+        // record the access path; path[0] is the root
+        SplayNode node = root;
+        path.add(node);
+        while (true) {
+            int comparisonValue = key.compareTo(node.data);
+            SplayNode next = comparisonValue < 0 ? node.left : node.right;
+            if (comparisonValue == 0 || next == null) break;
+            node = next;
+            path.add(node);
+        }
+        SplayNode found = node.data.compareTo(key) == 0 ? node : null;
+
+        int last = path.size() - 1;
+        if (last >= 2) modCount++;
+        for (int i = last; i >= 2; i -= 2) {
+            node = path.get(i);
+            SplayNode parent = path.get(i - 1), grandparent = path.get(i - 2);
+            boolean nodeIsLeft = parent.left == node, parentIsLeft = grandparent.left == parent;
+            SplayNode top;
+            if (nodeIsLeft == parentIsLeft) { // zig-zig: the parent takes the grandparent's place
+                top = parentIsLeft ? rotateRight(grandparent) : rotateLeft(grandparent);
+            } else { // zig-zag: the node takes the grandparent's place
+                if (parentIsLeft) {
+                    grandparent.left = rotateLeft(parent);
+                    top = rotateRight(grandparent);
+                } else {
+                    grandparent.right = rotateRight(parent);
+                    top = rotateLeft(grandparent);
+                }
+            }
+
+            // hang the rotated subtree where the grandparent was, and continue from its root
+            if (i == 2) root = top;
+            else if (path.get(i - 3).left == grandparent) path.get(i - 3).left = top;
+            else path.get(i - 3).right = top;
+            path.set(i - 2, top);
+        }
+        path.clear(); // do not keep nodes reachable from the scratch path
+        return found;
+    }
+
+    /**
+     * Turns per-node access counting on or off. While it is on, every successful search increments a counter on
+     * the node it found, which {@link #rebuildOptimal()} uses as the node's weight. It is off by default.
+     *
+     * @param enabled Whether to count accesses.
+     */
+    public void setAccessCounting(boolean enabled) {
+        countingAccesses = enabled;
+    }
+
+    /**
+     * Rebuilds the tree into a nearly optimal static shape for the access counts gathered so far, using
+     * Mehlhorn's bisection rule: the root of every subtree is the node whose weight straddles the middle of the
+     * subtree's total weight, where a node's weight is its access count plus one. The expected number of
+     * comparisons per search is then within a small additive constant of the entropy of the access distribution.
+     * Takes O(n log n) time, as each root is found by binary search over prefix sums of the weights.
+     *
+     * Until the next insert or delete, searches (in every splay mode) descend without restructuring, so the
+     * shape is kept. The access counts are kept too, so later rebuilds use the accumulated history.
+     */
+    public void rebuildOptimal() {
+        ArrayList<SplayNode> nodes = new ArrayList<>();
+        ArrayDeque<SplayNode> stack = new ArrayDeque<>();
+        SplayNode node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            nodes.add(node);
+            node = node.right;
+        }
+
+        // prefixWeights[i] is the total weight of the first i nodes
+        long[] prefixWeights = new long[nodes.size() + 1];
+        for (int i = 0; i < nodes.size(); i++) prefixWeights[i + 1] = prefixWeights[i] + nodes.get(i).accessCount + 1;
+
+        root = buildWeightBalanced(nodes, prefixWeights, 0, nodes.size() - 1);
+        optimalShape = true;
+        modCount++;
+    }
+
+    /**
+     * Links the nodes in [from, to] into a subtree rooted at the node that straddles the subtree's weight midpoint.
+     * The depth of the recursion is logarithmic in the total weight, since each level at least halves the weight.
+     *
+     * @param nodes The nodes in ascending order.
+     * @param prefixWeights The prefix sums of the node weights.
+     * @param from The first node of the subtree.
+     * @param to The last node of the subtree.
+     * @return The root of the subtree, or null if the range is empty.
+     */
+    private SplayNode buildWeightBalanced(ArrayList<SplayNode> nodes, long[] prefixWeights, int from, int to) {
+        if (from > to) return null;
+
+        // the first node whose weight interval reaches the midpoint
+        long midpoint = prefixWeights[from] + (prefixWeights[to + 1] - prefixWeights[from]) / 2;
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prefixWeights[mid + 1] <= midpoint) lo = mid + 1;
+            else hi = mid;
+        }
+
+        SplayNode subtreeRoot = nodes.get(lo);
+        subtreeRoot.left = buildWeightBalanced(nodes, prefixWeights, from, lo - 1);
+        subtreeRoot.right = buildWeightBalanced(nodes, prefixWeights, lo + 1, to);
+        return subtreeRoot;
+    }
+
+    /**
+     * Returns the number of rotations performed since the tree was created, counting each link step of the
+     * top-down splay as one rotation, since it is what a bottom-up splay would spend a rotation on.
+     *
+     * @return The number of rotations.
+     */
+    public long rotationCount() {
+        return rotations;
+    }
+
+    /**
+     * Prints the elements of the tree in in-order traversal. Walks with the iterator's explicit stack rather
+     * than recursion, since a splay tree can be a path as long as the number of elements.
      */
     public void printTree() {
-        printInOrder(root);
+        for (T element : this) System.out.print(element + " ");
+    }
+
+    /**
+     * Returns the smallest element in the tree and splays it.
+     *
+     * @return The smallest element, or null if the tree is empty.
+     */
+    public T first() {
+        if (root == null) return null;
+        SplayNode current = root;
+        while (current.left != null) current = current.left;
+        return splayTo(current.data);
+    }
+
+    /**
+     * Returns the largest element in the tree and splays it.
+     *
+     * @return The largest element, or null if the tree is empty.
+     */
+    public T last() {
+        if (root == null) return null;
+        SplayNode current = root;
+        while (current.right != null) current = current.right;
+        return splayTo(current.data);
     }
 
     /**
-     * Recursively prints the elements of the tree in in-order traversal.
+     * Returns the largest element less than or equal to the given key, splaying it.
      *
-     * @param node The current node to print.
+     * @param key The key to compare against.
+     * @return The floor of the key, or null if there is none.
      */
-    private void printInOrder(SplayNode node) {
-        if (node == null) return;
-        printInOrder(node.left);
-        System.out.print(node.data + " ");
-        printInOrder(node.right);
+    public T floor(T key) {
+        return splayTo(below(key, true));
+    }
+
+    /**
+     * Returns the largest element strictly less than the given key, splaying it.
+     *
+     * @param key The key to compare against.
+     * @return The predecessor of the key, or null if there is none.
+     */
+    public T lower(T key) {
+        return splayTo(below(key, false));
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the given key, splaying it.
+     *
+     * @param key The key to compare against.
+     * @return The ceiling of the key, or null if there is none.
+     */
+    public T ceiling(T key) {
+        return splayTo(above(key, true));
+    }
+
+    /**
+     * Returns the smallest element strictly greater than the given key, splaying it.
+     *
+     * @param key The key to compare against.
+     * @return The successor of the key, or null if there is none.
+     */
+    public T higher(T key) {
+        return splayTo(above(key, false));
+    }
+
+    /**
+     * Accesses an element that is known to be in the tree, splaying it as the splay mode prescribes, which pays
+     * for the descent that found it.
+     *
+     * @param element The element to splay, or null to leave the tree untouched.
+     * @return The element.
+     */
+    private T splayTo(T element) {
+        if (element != null) access(element);
+        return element;
+    }
+
+    /**
+     * Finds the largest element below (or, if inclusive, equal to) the given key without restructuring the tree.
+     *
+     * @param key The key to compare against.
+     * @param inclusive Whether an element equal to the key qualifies.
+     * @return The matching element, or null if there is none.
+     */
+    private T below(T key, boolean inclusive) {
+        T best = null;
+        SplayNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult > 0 || (compareResult == 0 && inclusive)) {
+                best = node.data;
+                if (compareResult == 0) break;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the smallest element above (or, if inclusive, equal to) the given key without restructuring the tree.
+     *
+     * @param key The key to compare against.
+     * @param inclusive Whether an element equal to the key qualifies.
+     * @return The matching element, or null if there is none.
+     */
+    private T above(T key, boolean inclusive) {
+        T best = null;
+        SplayNode node = root;
+        while (node != null) {
+            int compareResult = key.compareTo(node.data);
+            if (compareResult < 0 || (compareResult == 0 && inclusive)) {
+                best = node.data;
+                if (compareResult == 0) break;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The result of {@link #split}: the elements below the split key, the element equal to it, and those above it.
+     *
+     * @param <T> The type of elements in the trees.
+     */
+    public static final class Split<T extends Comparable<T>> {
+        /** A tree holding every element smaller than the split key. */
+        public final SplayTree<T> left;
+
+        /** The element equal to the split key, or null if the tree did not contain it. */
+        public final T match;
+
+        /** A tree holding every element larger than the split key. */
+        public final SplayTree<T> right;
+
+        private Split(SplayTree<T> left, T match, SplayTree<T> right) {
+            this.left = left;
+            this.match = match;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Creates an empty tree with the same search mode as this one.
+     */
+    private SplayTree<T> emptyLike() {
+        return new SplayTree<T>(splayMode, depthThreshold, splayProbability);
+    }
+
+    /**
+     * Splits the tree by a key with a single splay, in amortized O(log n). The nodes are moved into the
+     * resulting trees, so this tree is left empty.
+     *
+     * @param key The key to split by.
+     * @return The elements smaller than, equal to, and larger than the key.
+     */
+    public Split<T> split(T key) {
+        SplayTree<T> left = emptyLike(), right = emptyLike();
+        T match = null;
+        if (root != null) {
+            root = splay(root, key);
+            int comparisonValue = key.compareTo(root.data);
+            if (comparisonValue == 0) {
+                match = root.data;
+                left.root = root.left;
+                right.root = root.right;
+            } else if (comparisonValue > 0) {
+                left.root = root;
+                right.root = root.right;
+                root.right = null;
+            } else {
+                right.root = root;
+                left.root = root.left;
+                root.left = null;
+            }
+        }
+        root = null;
+        modCount++;
+        optimalShape = false;
+        return new Split<T>(left, match, right);
+    }
+
+    /**
+     * Joins two splay trees in amortized O(log n) by splaying the largest element of the left tree to its root
+     * and hanging the right tree off it. The nodes are moved into the result, so both input trees are left empty.
+     * The result searches with the left tree's splay mode.
+     *
+     * @param left A tree whose elements are all smaller than those of the right tree.
+     * @param right A tree whose elements are all larger than those of the left tree.
+     * @param <T> The type of elements in the trees.
+     * @return A tree holding the elements of both trees.
+     * @throws IllegalArgumentException If the trees overlap; they are then left unchanged apart from splaying.
+     */
+    public static <T extends Comparable<T>> SplayTree<T> join(SplayTree<T> left, SplayTree<T> right) {
+        if (left.root != null && right.root != null) {
+            // when the trees are ordered, these splays bring the largest element of left and the smallest element
+            // of right to the roots, leaving no right and no left child respectively; anything else is an overlap
+            left.modCount++;
+            left.optimalShape = false;
+            right.modCount++;
+            right.optimalShape = false;
+            left.root = left.splay(left.root, right.root.data);
+            right.root = right.splay(right.root, left.root.data);
+            if (left.root.right != null || right.root.left != null || left.root.data.compareTo(right.root.data) >= 0)
+                throw new IllegalArgumentException("Every element of the left tree must be smaller than every element of the right tree");
+        }
+
+        SplayTree<T> joined = left.emptyLike();
+        joined.root = left.joinNodes(left.root, right.root);
+        left.root = right.root = null;
+        left.modCount++;
+        right.modCount++;
+        return joined;
+    }
+
+    /**
+     * Joins two subtrees whose keys are all smaller in the left one.
+     *
+     * @param left The root of the smaller-keyed subtree.
+     * @param right The root of the larger-keyed subtree.
+     * @return The root of the joined subtree.
+     */
+    private SplayNode joinNodes(SplayNode left, SplayNode right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        left = splay(left, right.data); // the key is larger than all of left, so its largest node comes up with no right child
+        left.right = right;
+        return left;
+    }
+
+    /**
+     * Removes every element in the half-open range [from, to) and returns them as a new tree, using two splays
+     * and a join: amortized O(log n) however many elements the range holds.
+     *
+     * @param from The lower bound (inclusive).
+     * @param to The upper bound (exclusive).
+     * @return A tree holding the removed elements, with the same search mode as this one.
+     */
+    public SplayTree<T> extractRange(T from, T to) {
+        SplayTree<T> extracted = emptyLike();
+        if (root == null || from.compareTo(to) >= 0) return extracted;
+        modCount++;
+        optimalShape = false;
+
+        // cut off the elements smaller than from
+        SplayNode below, rest;
+        root = splay(root, from);
+        if (root.data.compareTo(from) < 0) {
+            below = root;
+            rest = root.right;
+            root.right = null;
+        } else {
+            below = root.left;
+            rest = root;
+            root.left = null;
+        }
+
+        // cut the remainder into the range and the elements from to upwards
+        SplayNode range = null, above = null;
+        if (rest != null) {
+            rest = splay(rest, to);
+            if (rest.data.compareTo(to) < 0) {
+                range = rest;
+                above = rest.right;
+                rest.right = null;
+            } else {
+                range = rest.left;
+                above = rest;
+                rest.left = null;
+            }
+        }
+
+        root = joinNodes(below, above);
+        extracted.root = range;
+        return extracted;
+    }
+
+    /**
+     * Deletes every element in the half-open range [from, to) in amortized O(log n), however many elements the
+     * range holds; the detached subtree is simply left to the garbage collector.
+     *
+     * @param from The lower bound (inclusive).
+     * @param to The upper bound (exclusive).
+     */
+    public void deleteRange(T from, T to) {
+        extractRange(from, to);
+    }
+
+    /**
+     * Copies the elements into a read-only {@link EytzingerArray}, for searching an index that is no longer
+     * updated. Neither the tree's shape nor its splaying is carried over.
+     *
+     * @return A frozen copy of the tree.
+     */
+    public EytzingerArray<T> freeze() {
+        ArrayList<T> elements = new ArrayList<>();
+        for (T element : this) elements.add(element);
+        return new EytzingerArray<T>(elements.iterator(), elements.size());
+    }
+
+    /**
+     * Returns a lazy iterator over every element of the tree in ascending order.
+     * Iterating does not splay.
+     *
+     * @return An in-order iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RangeIterator(null, null);
+    }
+
+    /**
+     * Returns a lazy iterator over the elements in the half-open range [from, to) in ascending order.
+     * The iterator walks the tree as it is and never splays, so a scan of k elements costs O(depth + k).
+     * Since searching restructures a splay tree, no other operation may be called while the iterator is in use.
+     *
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound (exclusive), or null for no upper bound.
+     * @return An in-order iterator over the range.
+     */
+    public Iterator<T> iterator(T from, T to) {
+        return new RangeIterator(from, to);
+    }
+
+    /**
+     * An in-order iterator that keeps the path of pending ancestors on an explicit stack,
+     * so it never materializes the tree and does not allocate per element.
+     */
+    private class RangeIterator implements Iterator<T> {
+        private final ArrayDeque<SplayNode> stack = new ArrayDeque<>(); // pending nodes; the top is the next element
+        private final T to; // the exclusive upper bound, or null for none
+        private final int expectedModCount; // the modification count the iterator was created at
+
+        RangeIterator(T from, T to) {
+            this.to = to;
+            this.expectedModCount = modCount;
+
+            // descend towards the lower bound, remembering every node that is still to be visited
+            SplayNode node = root;
+            while (node != null) {
+                if (from == null || from.compareTo(node.data) <= 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return !stack.isEmpty() && (to == null || stack.peek().data.compareTo(to) < 0);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            SplayNode node = stack.pop();
+
+            // the successor is the leftmost node of the right subtree, or the next pending ancestor
+            SplayNode child = node.right;
+            while (child != null) {
+                stack.push(child);
+                child = child.left;
+            }
+            return node.data;
+        }
     }
 }
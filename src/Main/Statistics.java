@@ -0,0 +1,225 @@
+package Main;
+
+import java.util.Arrays;
+
+/**
+ * A summary of repeated measurements of the same quantity, such as the times of the trials of a benchmark.
+ *
+ * The confidence interval uses Student's t distribution, since benchmarks rarely run enough trials for the
+ * normal approximation to hold.
+ */
+public class Statistics {
+
+    // the two-sided 95% critical values of Student's t distribution for 1 to 30 degrees of freedom
+    private static final double[] T_CRITICAL_95 = new double[] {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_95 = 1.959964;
+
+    private final long[] sortedSamples;
+    private final long operationsPerSample;
+    private final double mean;
+    private final double standardDeviation;
+
+    /**
+     * Summarizes measurements that are not tied to a number of operations.
+     *
+     * @param samples The measurements. At least one is required.
+     */
+    public Statistics(long[] samples) {
+        this(samples, 1);
+    }
+
+    /**
+     * Summarizes the times of trials that each performed the same number of operations.
+     *
+     * @param samples The time of each trial in nanoseconds. At least one is required.
+     * @param operationsPerSample The number of operations each trial performed, used by {@link #opsPerSecond()}.
+     * @throws IllegalArgumentException If there are no samples.
+     */
+    public Statistics(long[] samples, long operationsPerSample) {
+        if (samples.length == 0) throw new IllegalArgumentException("At least one sample is required");
+        this.sortedSamples = samples.clone();
+        Arrays.sort(sortedSamples);
+        this.operationsPerSample = operationsPerSample;
+
+        double sum = 0;
+        for (long sample : samples) sum += sample;
+        this.mean = sum / samples.length;
+
+        double squaredDeviations = 0;
+        for (long sample : samples) squaredDeviations += (sample - mean) * (sample - mean);
+        this.standardDeviation = samples.length > 1 ? Math.sqrt(squaredDeviations / (samples.length - 1)) : 0;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return The number of samples.
+     */
+    public int count() {
+        return sortedSamples.length;
+    }
+
+    /**
+     * Returns the samples in ascending order.
+     *
+     * @return A copy of the samples.
+     */
+    public long[] samples() {
+        return sortedSamples.clone();
+    }
+
+    /**
+     * Returns the arithmetic mean of the samples.
+     *
+     * @return The mean.
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Returns the median of the samples, averaging the middle two when there is an even number of them.
+     *
+     * @return The median.
+     */
+    public double median() {
+        int middle = sortedSamples.length / 2;
+        if (sortedSamples.length % 2 == 1) return sortedSamples[middle];
+        return (sortedSamples[middle - 1] + sortedSamples[middle]) / 2.0;
+    }
+
+    /**
+     * Returns the sample standard deviation (with Bessel's correction), or 0 for a single sample.
+     *
+     * @return The standard deviation.
+     */
+    public double standardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * Returns the smallest sample.
+     *
+     * @return The minimum.
+     */
+    public long min() {
+        return sortedSamples[0];
+    }
+
+    /**
+     * Returns the largest sample.
+     *
+     * @return The maximum.
+     */
+    public long max() {
+        return sortedSamples[sortedSamples.length - 1];
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the mean, so that the interval is
+     * mean() &plusmn; confidenceInterval95(). A single sample gives no interval, and 0 is returned.
+     *
+     * @return The half-width of the interval.
+     */
+    public double confidenceInterval95() {
+        int n = sortedSamples.length;
+        if (n < 2) return 0;
+        return tCritical95(n - 1) * standardDeviation / Math.sqrt(n);
+    }
+
+    /**
+     * Returns the mean rate of operations, taking the samples to be times in nanoseconds.
+     *
+     * @return The operations per second, or 0 if the mean time is 0.
+     */
+    public double opsPerSecond() {
+        return mean == 0 ? 0 : operationsPerSample * 1e9 / mean;
+    }
+
+    /**
+     * Returns the number of operations each sample measured.
+     *
+     * @return The operations per sample.
+     */
+    public long operationsPerSample() {
+        return operationsPerSample;
+    }
+
+    /**
+     * Returns Welch's t statistic for the difference between the means of two sets of samples, which does not
+     * assume they have the same variance. Positive values mean the first mean is the larger.
+     *
+     * @param first The first set of samples.
+     * @param second The second set of samples.
+     * @return The t statistic; infinite if the means differ but neither set varies, and NaN if they are equal.
+     */
+    public static double welchT(Statistics first, Statistics second) {
+        double standardError = Math.sqrt(varianceOfMean(first) + varianceOfMean(second));
+        return (first.mean - second.mean) / standardError;
+    }
+
+    /**
+     * Returns the degrees of freedom of Welch's t statistic, by the Welch-Satterthwaite equation.
+     *
+     * @param first The first set of samples.
+     * @param second The second set of samples.
+     * @return The degrees of freedom, or n1 + n2 - 2 if neither set varies.
+     */
+    public static double welchDegreesOfFreedom(Statistics first, Statistics second) {
+        double firstVariance = varianceOfMean(first), secondVariance = varianceOfMean(second);
+        double sum = firstVariance + secondVariance;
+        if (sum == 0) return first.count() + second.count() - 2;
+        double denominator = 0;
+        if (first.count() > 1) denominator += firstVariance * firstVariance / (first.count() - 1);
+        if (second.count() > 1) denominator += secondVariance * secondVariance / (second.count() - 1);
+        return sum * sum / denominator;
+    }
+
+    /**
+     * Checks whether the mean of one set of samples differs from another's at the 5% significance level, by
+     * Welch's t-test.
+     *
+     * @param first The first set of samples.
+     * @param second The second set of samples.
+     * @return True if the difference is significant; false if it is not, or if either set has a single sample.
+     */
+    public static boolean differSignificantly(Statistics first, Statistics second) {
+        if (first.count() < 2 || second.count() < 2) return false;
+        double t = welchT(first, second);
+        if (Double.isNaN(t)) return false;
+        return Math.abs(t) > tCritical95(welchDegreesOfFreedom(first, second));
+    }
+
+    private static double varianceOfMean(Statistics statistics) {
+        return statistics.standardDeviation * statistics.standardDeviation / statistics.count();
+    }
+
+    /**
+     * Returns the two-sided 95% critical value of Student's t distribution. Fractional degrees of freedom (as
+     * in Welch's test) are interpolated within the table, and beyond it the Cornish-Fisher expansion around the
+     * normal value is accurate to three decimal places.
+     *
+     * @param degreesOfFreedom The degrees of freedom; values below 1 are treated as 1.
+     * @return The critical value.
+     */
+    static double tCritical95(double degreesOfFreedom) {
+        double df = Math.max(1, degreesOfFreedom);
+        if (df <= T_CRITICAL_95.length) {
+            int below = (int) Math.floor(df), above = (int) Math.ceil(df);
+            double fraction = df - below;
+            return T_CRITICAL_95[below - 1] * (1 - fraction) + T_CRITICAL_95[above - 1] * fraction;
+        }
+        double z = Z_95;
+        return z + (z * z * z + z) / (4 * df) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.1f, median %.1f, stdev %.1f, min %d, max %d, 95%% CI +/- %.1f (n = %d)",
+                mean, median(), standardDeviation, min(), max(), confidenceInterval95(), count());
+    }
+}
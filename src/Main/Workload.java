@@ -0,0 +1,268 @@
+package Main;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * A reproducible stream of interleaved inserts, searches and deletes, in the style of the Yahoo! Cloud Serving
+ * Benchmark (YCSB). A workload starts with a load phase that inserts the initial keys, followed by a run phase
+ * in which each operation is drawn independently according to the read, insert and delete percentages.
+ *
+ * Keys are identified by their rank, the order in which they are first inserted: the initial keys have ranks
+ * 0 to initialKeyCount - 1, and each insert in the run phase adds the next rank, so inserts always add new keys,
+ * as in YCSB. Searches and deletes pick one of the ranks inserted so far according to the key distribution,
+ * so they can miss a key that an earlier delete removed. The distribution also decides how ranks map to
+ * keys; see {@link KeyDistribution}. The same parameters and seed always give the same workload.
+ *
+ * @param <T> The type of the keys, made from the generated ints.
+ */
+public class Workload<T> {
+
+    /**
+     * The kinds of operations in a workload.
+     */
+    public enum Operation {
+        Insert, Search, Delete
+    }
+
+    /**
+     * How searches and deletes choose their keys, and how ranks map to keys.
+     * <ul>
+     *     <li>Uniform: every rank inserted so far is equally likely; keys are scattered over the int range.</li>
+     *     <li>Zipfian: low ranks are far more likely (theta = 0.99), as in YCSB's scrambled Zipfian; keys are
+     *     scattered, so the popular keys are spread over the key range.</li>
+     *     <li>Latest: recently inserted ranks are far more likely, with Zipfian skew over their recency.</li>
+     *     <li>Sequential: keys are the ranks themselves, inserted in ascending order and visited in ascending
+     *     order, wrapping around.</li>
+     *     <li>ReverseSorted: keys are the negated ranks, so they are inserted and visited in descending order.</li>
+     *     <li>HashColliding: ranks are chosen uniformly, but the keys are multiples of the capacity a
+     *     {@link HashTable} grows to for the workload, so they pile into as few buckets as the int range allows.</li>
+     * </ul>
+     */
+    public enum KeyDistribution {
+        Uniform, Zipfian, Latest, Sequential, ReverseSorted, HashColliding
+    }
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9; // odd, so multiplying by it permutes the ints
+
+    private final Object[] initialKeys;
+    private final Operation[] operations;
+    private final Object[] keys;
+    private final Object[] insertedKeys; // the key of every rank, which are all the keys the workload inserts
+    private final KeyDistribution distribution;
+    private final long seed;
+
+    /**
+     * Generates a workload.
+     *
+     * @param initialKeyCount The number of keys inserted by the load phase.
+     * @param operationCount The number of operations in the run phase.
+     * @param readPercentage The percentage of operations that are searches.
+     * @param insertPercentage The percentage of operations that are inserts; the rest are deletes.
+     * @param distribution How keys are chosen.
+     * @param seed The seed, so that a workload can be generated again.
+     * @param keyOf Makes a key from a generated int.
+     * @throws IllegalArgumentException If a count is negative or the percentages do not add up to at most 100.
+     */
+    public Workload(int initialKeyCount, int operationCount, int readPercentage, int insertPercentage,
+                    KeyDistribution distribution, long seed, IntFunction<T> keyOf) {
+        if (initialKeyCount < 0 || operationCount < 0)
+            throw new IllegalArgumentException("Counts must not be negative: " + initialKeyCount + ", " + operationCount);
+        if (readPercentage < 0 || insertPercentage < 0 || readPercentage + insertPercentage > 100)
+            throw new IllegalArgumentException("Invalid operation mix: " + readPercentage + "% reads, " + insertPercentage + "% inserts");
+        this.distribution = distribution;
+        this.seed = seed;
+
+        Random random = new Random(seed);
+        int maxRanks = initialKeyCount + operationCount;
+        ZipfianGenerator zipfian = (distribution == KeyDistribution.Zipfian || distribution == KeyDistribution.Latest)
+                ? new ZipfianGenerator(Math.max(1, maxRanks), random.nextLong()) : null;
+
+        // draw the operations and the ranks they use first; the keys of colliding ranks depend on how many there are
+        operations = new Operation[operationCount];
+        int[] ranks = new int[operationCount];
+        int nextRank = initialKeyCount;
+        long cursor = 0; // the next position of a sequential or reverse-sorted visit
+        for (int i = 0; i < operationCount; i++) {
+            int roll = random.nextInt(100);
+            if (roll >= readPercentage && roll < readPercentage + insertPercentage || nextRank == 0) {
+                operations[i] = Operation.Insert;
+                ranks[i] = nextRank++;
+                continue;
+            }
+
+            operations[i] = roll < readPercentage ? Operation.Search : Operation.Delete;
+            switch (distribution) {
+                case Zipfian:
+                    ranks[i] = nextZipfian(zipfian, nextRank);
+                    break;
+                case Latest:
+                    ranks[i] = nextRank - 1 - nextZipfian(zipfian, nextRank);
+                    break;
+                case Sequential:
+                case ReverseSorted:
+                    ranks[i] = (int) (cursor++ % nextRank);
+                    break;
+                case Uniform:
+                case HashColliding:
+                default:
+                    ranks[i] = random.nextInt(nextRank);
+                    break;
+            }
+        }
+
+        // the capacity a hash table reaches holding every key of the workload
+        int collidingModulus = HashTable.capacityAfter(nextRank);
+        int multiplesInRange = Math.max(1, Integer.MAX_VALUE / collidingModulus);
+
+        insertedKeys = new Object[nextRank];
+        for (int rank = 0; rank < nextRank; rank++) {
+            insertedKeys[rank] = keyOf.apply(keyOfRank(rank, collidingModulus, multiplesInRange));
+        }
+        initialKeys = new Object[initialKeyCount];
+        System.arraycopy(insertedKeys, 0, initialKeys, 0, initialKeyCount);
+        keys = new Object[operationCount];
+        for (int i = 0; i < operationCount; i++) keys[i] = insertedKeys[ranks[i]];
+    }
+
+    /**
+     * Draws from the Zipfian distribution truncated to [0, bound), by drawing again until the value is below the
+     * bound. A truncated Zipfian distribution is still Zipfian with the same skew.
+     */
+    private static int nextZipfian(ZipfianGenerator zipfian, int bound) {
+        int value;
+        do {
+            value = zipfian.nextInt();
+        } while (value >= bound);
+        return value;
+    }
+
+    /**
+     * Maps a rank to its key according to the distribution.
+     */
+    private int keyOfRank(int rank, int collidingModulus, int multiplesInRange) {
+        switch (distribution) {
+            case Sequential:
+                return rank;
+            case ReverseSorted:
+                return -rank;
+            case HashColliding:
+                // multiples of the modulus first, then the same multiples shifted into the next bucket, and so on
+                return (rank % multiplesInRange) * collidingModulus + rank / multiplesInRange;
+            case Uniform:
+            case Zipfian:
+            case Latest:
+            default:
+                return rank * GOLDEN_RATIO;
+        }
+    }
+
+    /**
+     * Returns the number of operations in the run phase.
+     *
+     * @return The number of operations.
+     */
+    public int size() {
+        return operations.length;
+    }
+
+    /**
+     * Returns an operation of the run phase.
+     *
+     * @param index The position of the operation.
+     * @return The operation.
+     */
+    public Operation operation(int index) {
+        return operations[index];
+    }
+
+    /**
+     * Returns the key of an operation of the run phase.
+     *
+     * @param index The position of the operation.
+     * @return The key.
+     */
+    @SuppressWarnings("unchecked")
+    public T key(int index) {
+        return (T) keys[index];
+    }
+
+    /**
+     * Returns the number of keys the load phase inserts.
+     *
+     * @return The number of initial keys.
+     */
+    public int initialKeyCount() {
+        return initialKeys.length;
+    }
+
+    /**
+     * Returns the key distribution the workload was generated with.
+     *
+     * @return The distribution.
+     */
+    public KeyDistribution distribution() {
+        return distribution;
+    }
+
+    /**
+     * Returns the seed the workload was generated with.
+     *
+     * @return The seed.
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Runs the load phase, inserting the initial keys in rank order.
+     *
+     * @param target The data structure to load.
+     */
+    @SuppressWarnings("unchecked")
+    public void load(BaseOperations<? super T> target) {
+        for (Object key : initialKeys) target.insert((T) key);
+    }
+
+    /**
+     * Applies one operation of the run phase.
+     *
+     * @param index The position of the operation.
+     * @param target The data structure to apply it to.
+     */
+    public void apply(int index, BaseOperations<? super T> target) {
+        T key = key(index);
+        switch (operations[index]) {
+            case Insert:
+                target.insert(key);
+                break;
+            case Search:
+                target.search(key);
+                break;
+            case Delete:
+            default:
+                target.delete(key);
+                break;
+        }
+    }
+
+    /**
+     * Applies every operation of the run phase in order.
+     *
+     * @param target The data structure to apply them to.
+     */
+    public void replay(BaseOperations<? super T> target) {
+        for (int i = 0; i < operations.length; i++) apply(i, target);
+    }
+
+    /**
+     * Deletes every key the load and run phases may have inserted, so a data structure that held none of them
+     * beforehand is left as it was.
+     *
+     * @param target The data structure to clear of the workload's keys.
+     */
+    @SuppressWarnings("unchecked")
+    public void unload(BaseOperations<? super T> target) {
+        for (Object key : insertedKeys) target.delete((T) key);
+    }
+}
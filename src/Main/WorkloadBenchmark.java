@@ -0,0 +1,56 @@
+package Main;
+
+import Main.DataTable.Format;
+import Main.Workload.KeyDistribution;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Replays YCSB-style workloads against every structure and reports the throughput for each key distribution,
+ * for a read-heavy mix and for a mix with as many writes as reads. A structure that fails on a workload gets -1
+ * in that cell.
+ */
+public class WorkloadBenchmark {
+    public static final int INITIAL_KEYS = 5_000;
+    public static final int OPERATIONS = 20_000;
+    public static final int WARMUP_ROUNDS = 3;
+    public static final int TRIALS = 5;
+    public static final long SEED = 1;
+    // {read, insert} percentages; the rest of each mix are deletes
+    public static final int[][] mixes = new int[][] {{95, 5}, {50, 25}};
+
+    public static void main(String[] args) {
+        KeyDistribution[] distributions = KeyDistribution.values();
+        String[] colHeaders = new String[distributions.length + 1];
+        colHeaders[0] = "Data Structure";
+        for (int i = 0; i < distributions.length; i++) colHeaders[i + 1] = distributions[i].toString();
+
+        for (int[] mix : mixes) {
+            ArrayList<Benchmarker<Integer>> benchmarkers = new ArrayList<>();
+            for (Supplier<BaseOperations<Integer>> structure : Main.structures()) {
+                benchmarkers.add(new Benchmarker<Integer>(structure, WARMUP_ROUNDS, TRIALS));
+            }
+
+            int deletePercentage = 100 - mix[0] - mix[1];
+            DataTable table = new DataTable("Operations per Second (" + mix[0] + "% reads, " + mix[1] + "% inserts, " + deletePercentage + "% deletes)",
+                    colHeaders, Main.rowHeaders);
+            for (int s = 0; s < benchmarkers.size(); s++) {
+                long[] row = new long[distributions.length];
+                for (int d = 0; d < distributions.length; d++) {
+                    Workload<Integer> workload = new Workload<Integer>(INITIAL_KEYS, OPERATIONS, mix[0], mix[1], distributions[d], SEED, Integer::valueOf);
+                    try {
+                        row[d] = Math.round(benchmarkers.get(s).benchmarkWorkloadTime(workload).opsPerSecond());
+                    } catch (RuntimeException e) {
+                        // a structure that cannot hold the workload's keys should not end the whole run
+                        System.err.println(Main.rowHeaders[s] + " failed on " + distributions[d] + " keys (" + e.getMessage() + "); its cell shows -1");
+                        row[d] = -1;
+                    }
+                }
+                table.AddRow(row);
+            }
+            table.print(Format.CSV);
+            System.out.println("\n");
+        }
+    }
+}
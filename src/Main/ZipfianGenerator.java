@@ -0,0 +1,80 @@
+package Main;
+
+import java.util.Random;
+
+/**
+ * Draws ints in [0, n) from a Zipfian distribution, in which value i is drawn with probability proportional
+ * to 1 / (i + 1)^theta, so 0 is the most frequent. Uses the method of Gray et al., "Quickly Generating
+ * Billion-Record Synthetic Databases", as YCSB does: after an O(n) setup, each draw takes constant time.
+ */
+public class ZipfianGenerator {
+    /** The skew YCSB uses by default. */
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final int n;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+    private final Random random;
+
+    /**
+     * Constructs a generator with the default skew.
+     *
+     * @param n The number of distinct values.
+     * @param seed The seed, so that a sequence can be replayed.
+     */
+    public ZipfianGenerator(int n, long seed) {
+        this(n, DEFAULT_THETA, seed);
+    }
+
+    /**
+     * Constructs a generator.
+     *
+     * @param n The number of distinct values.
+     * @param theta The skew, strictly between 0 and 1; larger is more skewed.
+     * @param seed The seed, so that a sequence can be replayed.
+     * @throws IllegalArgumentException If n is not positive or theta is out of range.
+     */
+    public ZipfianGenerator(int n, double theta, long seed) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive: " + n);
+        if (theta <= 0 || theta >= 1) throw new IllegalArgumentException("Theta must be strictly between 0 and 1: " + theta);
+        this.n = n;
+        this.theta = theta;
+        this.alpha = 1 / (1 - theta);
+        this.zetaN = zeta(n, theta);
+        this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Computes the generalized harmonic number, the sum of 1 / i^theta for i from 1 to n.
+     */
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) sum += 1 / Math.pow(i, theta);
+        return sum;
+    }
+
+    /**
+     * Draws the next value.
+     *
+     * @return A value in [0, n).
+     */
+    public int nextInt() {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) return 0;
+        if (uz < 1 + Math.pow(0.5, theta)) return Math.min(1, n - 1);
+        return (int) Math.min(n - 1, n * Math.pow(eta * u - eta + 1, alpha));
+    }
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return n.
+     */
+    public int size() {
+        return n;
+    }
+}
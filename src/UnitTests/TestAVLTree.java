@@ -111,6 +111,165 @@ public class TestAVLTree {
         assertNull(tree.search(30));
     }
 
+    @Test
+    void testSelectAndRankAfterRotations() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        for (int i = 1; i <= 100; i++) tree.insert(i * 10); // sequential inserts force many rotations
+
+        assertEquals(100, tree.size());
+        assertEquals(10, tree.select(0));
+        assertEquals(500, tree.select(49));
+        assertEquals(1000, tree.select(99));
+        assertEquals(0, tree.rank(10));
+        assertEquals(49, tree.rank(500));
+        assertEquals(50, tree.rank(505)); // keys that are not in the tree can be ranked too
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(100));
+    }
+
+    @Test
+    void testCountAndAggregateRangeAfterDeletes() {
+        AVLTree<Integer> tree = new AVLTree<Integer>(x -> x);
+        for (int i = 1; i <= 20; i++) tree.insert(i);
+        tree.delete(5);
+        tree.delete(10); // has two children, so the successor's data is moved up
+
+        assertEquals(18, tree.size());
+        assertEquals(5, tree.countRange(3, 8)); // 3, 4, 6, 7, 8
+        assertEquals(3 + 4 + 6 + 7 + 8, tree.aggregateRange(3, 8));
+        assertEquals(0, tree.countRange(8, 3));
+        assertEquals(210 - 15, tree.aggregateRange(0, 100));
+    }
+
+    @Test
+    void testAggregateRangeRequiresWeigher() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        tree.insert(1);
+        assertThrows(IllegalStateException.class, () -> tree.aggregateRange(0, 2));
+    }
+
+    @Test
+    void testNavigationQueries() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        for (int i = 10; i <= 50; i += 10) tree.insert(i);
+
+        assertEquals(10, tree.first());
+        assertEquals(50, tree.last());
+        assertEquals(20, tree.floor(25));
+        assertEquals(20, tree.floor(20));
+        assertEquals(10, tree.lower(20));
+        assertEquals(30, tree.ceiling(25));
+        assertEquals(30, tree.higher(20));
+        assertNull(tree.lower(10));
+        assertNull(tree.higher(50));
+    }
+
+    @Test
+    void testRangeIteratorIsHalfOpen() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        for (int i = 1; i <= 100; i++) tree.insert(i);
+
+        StringBuilder sb = new StringBuilder();
+        java.util.Iterator<Integer> it = tree.iterator(40, 45);
+        while (it.hasNext()) sb.append(it.next()).append(' ');
+        assertEquals("40 41 42 43 44 ", sb.toString());
+
+        int count = 0, previous = 0;
+        for (int value : tree) {
+            assertTrue(value > previous);
+            previous = value;
+            count++;
+        }
+        assertEquals(100, count);
+    }
+
+    @Test
+    void testIteratorFailsFastOnModification() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        tree.insert(1);
+        tree.insert(2);
+        java.util.Iterator<Integer> it = tree.iterator();
+        tree.insert(3);
+        assertThrows(java.util.ConcurrentModificationException.class, it::hasNext);
+    }
+
+    @Test
+    void testBulkBuildSortsAndDeduplicates() {
+        AVLTree<Integer> tree = new AVLTree<Integer>(new Integer[] {30, 10, 20, 10, 40, 30});
+
+        assertEquals(4, tree.size());
+        assertEquals("10 20 30 40 ", captureInOrder(tree));
+        assertEquals(20, tree.search(20));
+    }
+
+    @Test
+    void testBulkBuildFromSortedIterator() {
+        java.util.List<Integer> keys = new java.util.ArrayList<>();
+        for (int i = 0; i < 1000; i++) keys.add(i);
+        AVLTree<Integer> tree = new AVLTree<Integer>(keys.iterator(), keys.size());
+
+        assertEquals(1000, tree.size());
+        assertEquals(500, tree.select(500));
+        tree.insert(1000); // the bulk-built tree must keep working as a normal AVL tree
+        assertEquals(1000, tree.last());
+
+        java.util.List<Integer> unsorted = java.util.Arrays.asList(2, 1);
+        assertThrows(IllegalArgumentException.class, () -> new AVLTree<Integer>(unsorted.iterator(), 2));
+    }
+
+    @Test
+    void testSplitAndJoin() {
+        AVLTree<Integer> tree = new AVLTree<Integer>(x -> x);
+        for (int i = 1; i <= 100; i++) tree.insert(i);
+
+        AVLTree.Split<Integer> parts = tree.split(40);
+        assertEquals(0, tree.size());
+        assertEquals(39, parts.left.size());
+        assertEquals(40, parts.match);
+        assertEquals(60, parts.right.size());
+        assertEquals(39, parts.left.last());
+        assertEquals(41, parts.right.first());
+        assertEquals(41 + 42, parts.right.aggregateRange(0, 42));
+
+        AVLTree<Integer> joined = AVLTree.join(parts.left, 40, parts.right);
+        assertEquals(100, joined.size());
+        assertEquals(5050, joined.aggregateRange(1, 100));
+        assertEquals(40, joined.select(39));
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.join(joined, 50, new AVLTree<Integer>()));
+    }
+
+    @Test
+    void testSetOperations() {
+        Integer[] evens = new Integer[10_000], threes = new Integer[10_000];
+        for (int i = 0; i < 10_000; i++) {
+            evens[i] = 2 * i;
+            threes[i] = 3 * i;
+        }
+
+        // large enough to cross the parallel cutoff
+        AVLTree<Integer> union = AVLTree.union(new AVLTree<Integer>(evens), new AVLTree<Integer>(threes));
+        AVLTree<Integer> both = AVLTree.intersection(new AVLTree<Integer>(evens), new AVLTree<Integer>(threes));
+        AVLTree<Integer> onlyEvens = AVLTree.difference(new AVLTree<Integer>(evens), new AVLTree<Integer>(threes));
+
+        assertEquals(10_000 + 10_000 - 3_334, union.size()); // multiples of 6 below 20,000 are in both
+        assertEquals(3_334, both.size());
+        assertEquals(6, both.select(1));
+        assertEquals(10_000 - 3_334, onlyEvens.size());
+        assertNull(onlyEvens.search(6));
+        assertEquals(4, onlyEvens.search(4));
+    }
+
+    @Test
+    void testSetOperationsConsumeTheirInputs() {
+        AVLTree<Integer> first = new AVLTree<Integer>(new Integer[] {1, 2, 3});
+        AVLTree<Integer> second = new AVLTree<Integer>(new Integer[] {3, 4});
+        AVLTree<Integer> union = AVLTree.union(first, second);
+
+        assertEquals("1 2 3 4 ", captureInOrder(union));
+        assertEquals(0, first.size());
+        assertEquals(0, second.size());
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.union(union, union));
+    }
+
     // Helper to capture in-order traversal output
     private String captureInOrder(AVLTree<Integer> tree) {
         java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
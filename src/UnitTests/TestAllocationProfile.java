@@ -0,0 +1,47 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.AllocationProfile;
+import Main.Benchmarker;
+import Main.ObjectSizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAllocationProfile {
+
+    @Test
+    void testRates() {
+        AllocationProfile profile = new AllocationProfile(2_000, 64_000, 3, 5);
+        assertEquals(32, profile.bytesPerOperation(), 1e-9);
+        assertEquals(2_500, profile.gcMillisPerMillionOperations(), 1e-9);
+
+        AllocationProfile sum = profile.plus(new AllocationProfile(2_000, 0, 1, 1));
+        assertEquals(4_000, sum.operations());
+        assertEquals(16, sum.bytesPerOperation(), 1e-9);
+        assertEquals(4, sum.collections());
+        assertEquals(1_500, sum.gcMillisPerMillionOperations(), 1e-9);
+
+        assertEquals(0, new AllocationProfile(0, 0, 0, 0).bytesPerOperation());
+        assertThrows(IllegalArgumentException.class, () -> new AllocationProfile(1, -1, 0, 0));
+    }
+
+    @Test
+    void testBenchmarkerCountsAllocations() {
+        Integer[][] datasets = new Integer[1][10_000];
+        for (int i = 0; i < datasets[0].length; i++) datasets[0][i] = 1_000 + i; // not in the Integer cache
+
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(tree, 2, 3);
+        AllocationProfile inserts = benchmarker.benchmarkInsertAllocation(datasets)[0];
+        assertEquals(3L * datasets[0].length, inserts.operations());
+        // every insert allocates at least a node, which holds a reference to its key
+        assertTrue(inserts.bytesPerOperation() >= ObjectSizer.shallowSizeOf(new Object()) + ObjectSizer.referenceSize(),
+                inserts.toString());
+
+        // searching a tree allocates nothing; allow a little for the allocation counters themselves
+        AllocationProfile searches = benchmarker.benchmarkSearchAllocation(datasets)[0];
+        assertTrue(searches.bytesPerOperation() < 1, searches.toString());
+        assertEquals(datasets[0].length, tree.size());
+    }
+}
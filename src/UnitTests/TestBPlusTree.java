@@ -0,0 +1,81 @@
+package UnitTests;
+
+import Main.BPlusTree;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBPlusTree {
+
+    // Helper to capture in-order output
+    private String captureInOrder(BPlusTree<Integer> tree) {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(out));
+        tree.printTree();
+        return out.toString();
+    }
+
+    @Test
+    void testInsertAndSearch() {
+        BPlusTree<Integer> tree = new BPlusTree<Integer>();
+        assertTrue(tree.insert(20));
+        assertTrue(tree.insert(10));
+        assertFalse(tree.insert(20)); // duplicates are ignored
+
+        assertEquals(10, tree.search(10));
+        assertNull(tree.search(15));
+        assertEquals("10 20 ", captureInOrder(tree));
+    }
+
+    @Test
+    void testSplitsKeepOrder() {
+        BPlusTree<Integer> tree = new BPlusTree<Integer>(4); // a small order forces several levels
+        for (int i = 100; i >= 1; i--) tree.insert(i);
+
+        assertEquals(100, tree.size());
+        for (int i = 1; i <= 100; i++) assertEquals(i, tree.search(i));
+        int expected = 1;
+        for (int value : tree) assertEquals(expected++, value);
+    }
+
+    @Test
+    void testDeleteBorrowsAndMerges() {
+        BPlusTree<Integer> tree = new BPlusTree<Integer>(4);
+        for (int i = 1; i <= 100; i++) tree.insert(i);
+        for (int i = 1; i <= 100; i += 3) assertEquals(i, tree.delete(i));
+
+        assertNull(tree.delete(1));
+        assertEquals(66, tree.size());
+        for (int i = 1; i <= 100; i++) assertEquals(i % 3 != 1, tree.search(i) != null, "key " + i);
+
+        for (int i = 1; i <= 100; i++) tree.delete(i);
+        assertEquals(0, tree.size());
+        assertEquals("", captureInOrder(tree));
+    }
+
+    @Test
+    void testRandomOperationsMatchTreeSet() {
+        BPlusTree<Integer> tree = new BPlusTree<Integer>(5);
+        java.util.TreeSet<Integer> reference = new java.util.TreeSet<>();
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(1_000);
+            if (random.nextBoolean()) assertEquals(reference.add(key), tree.insert(key));
+            else assertEquals(reference.remove(key), tree.delete(key) != null);
+        }
+
+        assertEquals(reference.size(), tree.size());
+        java.util.Iterator<Integer> expected = reference.iterator();
+        for (int value : tree) assertEquals(expected.next(), value);
+    }
+
+    @Test
+    void testRangeIteratorFollowsLeafLinks() {
+        BPlusTree<Integer> tree = new BPlusTree<Integer>(4);
+        for (int i = 0; i < 100; i += 2) tree.insert(i);
+
+        StringBuilder sb = new StringBuilder();
+        java.util.Iterator<Integer> it = tree.iterator(21, 31);
+        while (it.hasNext()) sb.append(it.next()).append(' ');
+        assertEquals("22 24 26 28 30 ", sb.toString());
+    }
+}
@@ -0,0 +1,103 @@
+package UnitTests;
+
+import Main.BaseOperations;
+import Main.Benchmarker;
+import Main.HashTable;
+import Main.HashTable.CollisionBehavior;
+import Main.Workload;
+import Main.Workload.KeyDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBenchmarker {
+
+    /** A set that records how it is used, to check the state each round starts from. */
+    private static final class RecordingSet implements BaseOperations<Integer> {
+        final java.util.HashSet<Integer> elements = new java.util.HashSet<>();
+        int hits, misses;
+
+        public boolean insert(Integer element) {
+            return elements.add(element);
+        }
+
+        public Integer delete(Integer element) {
+            return count(elements.remove(element)) ? element : null;
+        }
+
+        public Integer search(Integer element) {
+            return count(elements.contains(element)) ? element : null;
+        }
+
+        private boolean count(boolean hit) {
+            if (hit) hits++;
+            else misses++;
+            return hit;
+        }
+    }
+
+    private static Integer[] range(int from, int to) {
+        Integer[] elements = new Integer[to - from];
+        for (int i = from; i < to; i++) elements[i - from] = i;
+        return elements;
+    }
+
+    @Test
+    void testEveryRoundStartsOnAFreshPrepopulatedInstance() {
+        ArrayList<RecordingSet> instances = new ArrayList<>();
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(() -> {
+            RecordingSet set = new RecordingSet();
+            instances.add(set);
+            return set;
+        }, range(-50, 0), 2, 3);
+        Integer[][] datasets = new Integer[][] {range(0, 100)};
+
+        instances.clear();
+        benchmarker.benchmarkInsertTime(datasets);
+        assertEquals(5, instances.size());
+        for (RecordingSet set : instances) assertEquals(150, set.elements.size());
+
+        // searches and deletes find the dataset there, whatever ran before
+        instances.clear();
+        benchmarker.benchmarkDeleteTime(datasets);
+        benchmarker.benchmarkSearchLatency(datasets);
+        assertEquals(10, instances.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(100, instances.get(i).hits);
+            assertEquals(50, instances.get(i).elements.size()); // only the prepopulation is left
+        }
+        for (RecordingSet set : instances) assertEquals(0, set.misses);
+    }
+
+    @Test
+    void testResultsDoNotDependOnWhatRanBefore() {
+        Integer[] small = range(1_000, 2_000), large = range(10_000, 20_000);
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(() -> new HashTable<Integer, Integer>(CollisionBehavior.Chaining, x -> x));
+        long[] afterSmall = benchmarker.benchmarkRetainedSize(new Integer[][] {small, large});
+        long[] alone = benchmarker.benchmarkRetainedSize(new Integer[][] {large});
+        assertEquals(alone[0], afterSmall[1]);
+        assertEquals(benchmarker.benchmarkBytesPerElement(new Integer[][] {large})[0],
+                benchmarker.benchmarkBytesPerElement(new Integer[][] {small, large})[1]);
+    }
+
+    @Test
+    void testWorkloadRoundsStartFresh() {
+        ArrayList<RecordingSet> instances = new ArrayList<>();
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(() -> {
+            RecordingSet set = new RecordingSet();
+            instances.add(set);
+            return set;
+        }, 1, 2);
+        Workload<Integer> workload = new Workload<Integer>(100, 1_000, 100, 0, KeyDistribution.Uniform, 1, Integer::valueOf);
+
+        instances.clear();
+        assertEquals(2, benchmarker.benchmarkWorkloadTime(workload).count());
+        assertEquals(3, instances.size());
+        for (RecordingSet set : instances) {
+            assertEquals(100, set.elements.size()); // loaded and never unloaded
+            assertEquals(1_000, set.hits);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package UnitTests;
+
+import Main.ConcurrentAVLTree;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestConcurrentAVLTree {
+
+    @Test
+    void testInsertSearchDelete() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<Integer>();
+        assertTrue(tree.insert(20));
+        assertTrue(tree.insert(10));
+        assertTrue(tree.insert(30));
+        assertFalse(tree.insert(10)); // duplicates are ignored
+
+        assertEquals(10, tree.search(10));
+        assertNull(tree.search(15));
+        assertEquals(20, tree.delete(20)); // the root has two children, so it becomes a routing node
+        assertNull(tree.search(20));
+        assertNull(tree.delete(20));
+        assertTrue(tree.insert(20)); // reusing the routing node
+        assertEquals(20, tree.search(20));
+        assertEquals(3, tree.size());
+    }
+
+    @Test
+    void testSequentialInsertsStayBalancedEnoughToSearch() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<Integer>();
+        for (int i = 0; i < 100_000; i++) tree.insert(i); // would overflow the recursive search if unbalanced
+        for (int i = 0; i < 100_000; i += 2) tree.delete(i);
+
+        assertEquals(50_000, tree.size());
+        assertNull(tree.search(50_000));
+        assertEquals(50_001, tree.search(50_001));
+    }
+
+    @Test
+    void testConcurrentUpdatesOnDisjointKeys() throws InterruptedException {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<Integer>();
+        int threadCount = 8, keysPerThread = 10_000;
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                // keys are interleaved so that the threads constantly rotate the same nodes
+                for (int i = 0; i < keysPerThread; i++) tree.insert(i * threadCount + id);
+                for (int i = 0; i < keysPerThread; i += 2) tree.delete(i * threadCount + id);
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(threadCount * keysPerThread / 2, tree.size());
+        for (int key = 0; key < threadCount * keysPerThread; key++) {
+            boolean expected = (key / threadCount) % 2 == 1;
+            assertEquals(expected, tree.search(key) != null, "key " + key);
+        }
+    }
+}
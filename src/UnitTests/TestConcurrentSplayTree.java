@@ -0,0 +1,68 @@
+package UnitTests;
+
+import Main.ConcurrentSplayTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestConcurrentSplayTree {
+
+    @Test
+    void testInsertSearchDelete() {
+        ConcurrentSplayTree<Integer> tree = new ConcurrentSplayTree<Integer>();
+        assertTrue(tree.insert(20));
+        assertTrue(tree.insert(10));
+        assertTrue(tree.insert(30));
+        assertFalse(tree.insert(10));
+
+        assertEquals(10, tree.search(10));
+        assertNull(tree.search(15));
+        assertEquals(20, tree.delete(20));
+        assertNull(tree.search(20));
+        assertNull(tree.delete(20));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void testDeepSearchesSplayWithoutOverflow() {
+        ConcurrentSplayTree<Integer> tree = new ConcurrentSplayTree<Integer>(8, 0);
+        for (int i = 0; i < 1_000_000; i++) tree.insert(i); // a path of a million nodes
+
+        assertEquals(0, tree.search(0)); // deeper than the threshold, so it is splayed
+        assertEquals(1, tree.search(1)); // now close to the root
+        assertEquals(1_000_000, tree.size());
+    }
+
+    @Test
+    void testConcurrentSearchesDuringUpdates() throws InterruptedException {
+        // every thread splays on every search, so searches constantly restructure the tree under each other
+        ConcurrentSplayTree<Integer> tree = new ConcurrentSplayTree<Integer>(0, 1);
+        int keyCount = 10_000;
+        for (int i = 0; i < keyCount; i++) tree.insert(2 * i); // even keys are stable
+
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 20; round++) {
+                    for (int i = 0; i < keyCount; i++) {
+                        if (id == 0) { // one writer churns the odd keys
+                            tree.insert(2 * i + 1);
+                            tree.delete(2 * i + 1);
+                        }
+                        int key = 2 * ((i * 7 + id * 13 + round) % keyCount);
+                        if (tree.search(key) == null) failures.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(keyCount, tree.size());
+    }
+}
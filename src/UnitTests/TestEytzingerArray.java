@@ -0,0 +1,61 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.EytzingerArray;
+import Main.IntEytzingerArray;
+import Main.SplayTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEytzingerArray {
+
+    @Test
+    void testSearchAndCeilingAtEverySize() {
+        // odd keys only, so every even key falls between two stored keys
+        for (int n = 0; n <= 70; n++) {
+            Integer[] keys = new Integer[n];
+            int[] primitiveKeys = new int[n];
+            for (int i = 0; i < n; i++) keys[i] = primitiveKeys[i] = 2 * i + 1;
+            EytzingerArray<Integer> array = new EytzingerArray<Integer>(Arrays.asList(keys).iterator(), n);
+            IntEytzingerArray primitiveArray = new IntEytzingerArray(primitiveKeys);
+
+            assertEquals(n, array.size());
+            for (int key = 0; key <= 2 * n + 1; key++) {
+                boolean present = key % 2 == 1 && key < 2 * n;
+                assertEquals(present ? Integer.valueOf(key) : null, array.search(key), "n = " + n + ", key = " + key);
+                assertEquals(present, primitiveArray.contains(key), "n = " + n + ", key = " + key);
+                Integer ceiling = key < 2 * n ? (key % 2 == 1 ? key : key + 1) : null;
+                assertEquals(ceiling, array.ceiling(key), "n = " + n + ", key = " + key);
+            }
+        }
+    }
+
+    @Test
+    void testFreezeTrees() {
+        AVLTree<Integer> avlTree = new AVLTree<Integer>();
+        SplayTree<Integer> splayTree = new SplayTree<Integer>();
+        for (int key : new int[] {50, 20, 80, 10, 30, 70, 90}) {
+            avlTree.insert(key);
+            splayTree.insert(key);
+        }
+
+        for (EytzingerArray<Integer> frozen : Arrays.asList(avlTree.freeze(), splayTree.freeze())) {
+            assertEquals(7, frozen.size());
+            assertEquals(30, frozen.search(30));
+            assertNull(frozen.search(35));
+            assertEquals(70, frozen.ceiling(51));
+            assertNull(frozen.ceiling(91));
+        }
+        assertEquals(50, avlTree.search(50)); // the trees are still usable
+    }
+
+    @Test
+    void testRejectsUnsortedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> new EytzingerArray<Integer>(Arrays.asList(1, 3, 2).iterator(), 3));
+        assertThrows(IllegalArgumentException.class, () -> new EytzingerArray<Integer>(Arrays.asList(1, 2).iterator(), 3));
+        assertThrows(IllegalArgumentException.class, () -> new IntEytzingerArray(new int[] {1, 1}));
+    }
+}
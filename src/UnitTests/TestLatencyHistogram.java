@@ -0,0 +1,71 @@
+package UnitTests;
+
+import Main.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLatencyHistogram {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) histogram.record(i);
+        assertEquals(100, histogram.count());
+        assertEquals(1, histogram.min());
+        assertEquals(100, histogram.max());
+        assertEquals(50.5, histogram.mean(), 1e-9);
+        assertEquals(50, histogram.valueAtPercentile(50));
+        assertEquals(99, histogram.valueAtPercentile(99));
+        assertEquals(100, histogram.valueAtPercentile(100));
+        assertEquals(1, histogram.valueAtPercentile(0));
+    }
+
+    @Test
+    void testLargeValuesAreWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = {1_000, 123_456, 9_999_999, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.record(value);
+            assertEquals(value, single.valueAtPercentile(50)); // capped by the exact maximum
+            histogram.record(value);
+        }
+        // 2 of 5 values lie at or below the 40th percentile
+        long p40 = histogram.valueAtPercentile(40);
+        assertTrue(p40 >= 123_456 && p40 <= 123_456 * 1.01, "p40: " + p40);
+        assertEquals(Long.MAX_VALUE, histogram.max());
+    }
+
+    @Test
+    void testTailPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9_990; i++) histogram.record(200);
+        for (int i = 0; i < 10; i++) histogram.record(50_000); // a resize spike in 0.1% of the operations
+        assertEquals(200, histogram.valueAtPercentile(50));
+        assertEquals(200, histogram.valueAtPercentile(99));
+        assertEquals(200, histogram.valueAtPercentile(99.9));
+        long p9999 = histogram.valueAtPercentile(99.99);
+        assertTrue(p9999 >= 50_000 && p9999 <= 50_000 * 1.01, "p99.99: " + p9999);
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(101));
+    }
+
+    @Test
+    void testAddAndExport() {
+        LatencyHistogram first = new LatencyHistogram(), second = new LatencyHistogram();
+        first.record(10);
+        second.record(10);
+        second.record(1_000);
+        first.add(second);
+        assertEquals(3, first.count());
+        assertEquals(10, first.min());
+        assertEquals(1_000, first.max());
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        first.exportCSV(new java.io.PrintStream(out));
+        String[] lines = out.toString().trim().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith("10,2,"));
+        assertTrue(lines[2].startsWith("1000,1,100.0"));
+    }
+}
@@ -0,0 +1,67 @@
+package UnitTests;
+
+import Main.LockFreeSkipList;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLockFreeSkipList {
+
+    @Test
+    void testInsertSearchDelete() {
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<Integer>();
+        assertTrue(list.insert(20));
+        assertTrue(list.insert(10));
+        assertTrue(list.insert(30));
+        assertFalse(list.insert(10)); // duplicates are ignored
+
+        assertEquals(10, list.search(10));
+        assertNull(list.search(15));
+        assertEquals(20, list.delete(20));
+        assertNull(list.search(20));
+        assertNull(list.delete(20));
+        assertTrue(list.insert(20));
+        assertEquals(20, list.search(20));
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    void testSequentialInsertsAndDeletes() {
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<Integer>();
+        for (int i = 0; i < 100_000; i++) list.insert(i);
+        for (int i = 0; i < 100_000; i += 2) list.delete(i);
+
+        assertEquals(50_000, list.size());
+        assertNull(list.search(50_000));
+        assertEquals(50_001, list.search(50_001));
+    }
+
+    @Test
+    void testConcurrentUpdatesOnSharedKeys() throws InterruptedException {
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<Integer>();
+        int threadCount = 8, keyCount = 20_000;
+        CyclicBarrier insertsDone = new CyclicBarrier(threadCount);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(() -> {
+                // every thread races on every key, so each insert and delete must succeed exactly once
+                for (int i = 0; i < keyCount; i++) list.insert(i);
+                try {
+                    insertsDone.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < keyCount; i += 2) list.delete(i);
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(keyCount / 2, list.size());
+        for (int key = 0; key < keyCount; key++) {
+            assertEquals(key % 2 == 1, list.search(key) != null, "key " + key);
+        }
+    }
+}
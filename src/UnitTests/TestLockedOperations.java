@@ -0,0 +1,76 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.BaseOperations;
+import Main.Benchmarker;
+import Main.Benchmarker.ThreadKind;
+import Main.Benchmarker.ThroughputResult;
+import Main.LockedOperations;
+import Main.LockedOperations.Locking;
+import Main.Workload;
+import Main.Workload.KeyDistribution;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLockedOperations {
+
+    @Test
+    void testConcurrentUpdatesWithEveryLocking() throws InterruptedException {
+        for (Locking locking : Locking.values()) {
+            AVLTree<Integer> tree = new AVLTree<Integer>();
+            LockedOperations<Integer> locked = new LockedOperations<Integer>(tree, locking);
+            int threadCount = 4, keysPerThread = 5_000;
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                int first = t;
+                threads[t] = new Thread(() -> {
+                    // each thread owns the keys congruent to its index, and searches every key as it goes
+                    for (int i = first; i < threadCount * keysPerThread; i += threadCount) {
+                        locked.insert(i);
+                        locked.search(i / 2);
+                    }
+                    for (int i = first; i < threadCount * keysPerThread; i += 2 * threadCount) locked.delete(i);
+                });
+            }
+            for (Thread thread : threads) thread.start();
+            for (Thread thread : threads) thread.join();
+
+            assertEquals(threadCount * keysPerThread / 2, tree.size(), locking.toString());
+            for (int key = 0; key < threadCount * keysPerThread; key++) {
+                assertEquals(key % (2 * threadCount) >= threadCount, locked.search(key) != null, locking + ": key " + key);
+            }
+        }
+    }
+
+    @Test
+    void testThroughputBenchmarkRecordsEveryOperation() throws InterruptedException {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        tree.insert(Integer.MIN_VALUE + 1); // a key the workload never uses
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(new LockedOperations<Integer>(tree, Locking.ReadWrite), 1, 3);
+        Workload<Integer> workload = new Workload<Integer>(1_000, 10_000, 80, 10, KeyDistribution.Uniform, 1, Integer::valueOf);
+
+        ThroughputResult result = benchmarker.benchmarkThroughput(workload, 3, ThreadKind.Platform);
+        assertEquals(3, result.time.count());
+        assertEquals(3, result.threadLatencies.length);
+        assertEquals(3L * workload.size(), result.combinedLatencies().count());
+        assertTrue(result.opsPerSecond() > 0);
+        // every round unloads the workload again
+        assertEquals(1, tree.size());
+        assertThrows(IllegalArgumentException.class, () -> benchmarker.benchmarkThroughput(workload, 0, ThreadKind.Platform));
+        if (!Benchmarker.virtualThreadsSupported()) {
+            assertThrows(UnsupportedOperationException.class, () -> benchmarker.benchmarkThroughput(workload, 2, ThreadKind.Virtual));
+        }
+    }
+
+    @Test
+    void testWorkerErrorsAreRethrown() {
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(() -> new BaseOperations<Integer>() {
+            public boolean insert(Integer element) { return true; }
+            public Integer delete(Integer element) { return null; }
+            public Integer search(Integer element) { throw new StackOverflowError(); }
+        }, 0, 1);
+        Workload<Integer> workload = new Workload<Integer>(10, 100, 100, 0, KeyDistribution.Uniform, 1, Integer::valueOf);
+        assertThrows(StackOverflowError.class, () -> benchmarker.benchmarkThroughput(workload, 2, ThreadKind.Platform));
+    }
+}
@@ -0,0 +1,144 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.Benchmarker;
+import Main.HashTable;
+import Main.HashTable.CollisionBehavior;
+import Main.ObjectSizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestObjectSizer {
+
+    /** A node with one reference, for building shared and cyclic graphs. */
+    private static final class Link {
+        Link next;
+        long payload;
+    }
+
+    @Test
+    void testShallowSizes() {
+        int alignment = ObjectSizer.objectAlignment();
+        long objectSize = ObjectSizer.shallowSizeOf(new Object());
+        assertEquals(0, objectSize % alignment);
+        assertTrue(objectSize >= 8);
+
+        // a long after the header, rounded up to the alignment
+        long longSize = ObjectSizer.shallowSizeOf(5_000L);
+        assertTrue(longSize >= 8 + 8 && longSize % alignment == 0);
+        assertTrue(ObjectSizer.shallowSizeOf(new Link()) >= longSize + ObjectSizer.referenceSize() - alignment);
+
+        // arrays grow by exactly their element size
+        assertEquals(ObjectSizer.shallowSizeOf(new long[10]) + 8 * alignment, ObjectSizer.shallowSizeOf(new long[10 + alignment]));
+        assertEquals(ObjectSizer.shallowSizeOf(new Object[8]) + alignment * ObjectSizer.referenceSize(),
+                ObjectSizer.shallowSizeOf(new Object[8 + alignment]));
+    }
+
+    /** The same fields as {@link Packed}, declared in the opposite order. */
+    @SuppressWarnings("unused")
+    private static final class Unpacked {
+        Object reference;
+        byte small;
+        int medium;
+        long large;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Packed {
+        long large;
+        int medium;
+        byte small;
+        Object reference;
+    }
+
+    @SuppressWarnings("unused")
+    private static class WithLong {
+        long large;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class WithLongAndInt {
+        long large;
+        int medium;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class IntAfterLong extends WithLong {
+        int medium;
+    }
+
+    @Test
+    void testFieldsArePackedLikeHotSpot() {
+        // the order of declaration does not matter, and the padding is no more than the alignment
+        long packed = ObjectSizer.shallowSizeOf(new Packed());
+        assertEquals(packed, ObjectSizer.shallowSizeOf(new Unpacked()));
+        long fields = 8 + 4 + 1 + ObjectSizer.referenceSize();
+        assertTrue(packed >= ObjectSizer.shallowSizeOf(new Object()) + fields - ObjectSizer.objectAlignment(), "" + packed);
+        // a subclass's fields fill the gaps its superclass left
+        assertEquals(ObjectSizer.shallowSizeOf(new WithLongAndInt()), ObjectSizer.shallowSizeOf(new IntAfterLong()));
+    }
+
+    @Test
+    void testClosedJdkCollectionsCountTheirElements() {
+        java.util.LinkedList<Object> list = new java.util.LinkedList<>();
+        Link first = new Link(), second = new Link();
+        list.add(first);
+        list.add(second);
+        list.add(first);
+        // whether or not java.util is opened, the elements are reached
+        assertTrue(ObjectSizer.deepSizeOf(list) >= ObjectSizer.shallowSizeOf(list) + 2 * ObjectSizer.shallowSizeOf(first));
+    }
+
+    @Test
+    void testSharedObjectsAndCyclesAreCountedOnce() {
+        Link first = new Link(), second = new Link();
+        first.next = second;
+        second.next = first;
+        long linkSize = ObjectSizer.shallowSizeOf(first);
+        assertEquals(2 * linkSize, ObjectSizer.deepSizeOf(first));
+
+        Object[] array = new Object[] {first, second, first, null};
+        assertEquals(ObjectSizer.shallowSizeOf(array) + 2 * linkSize, ObjectSizer.deepSizeOf(array));
+        assertEquals(0, ObjectSizer.deepSizeOf(null));
+        assertEquals(0, ObjectSizer.deepSizeOf(CollisionBehavior.Chaining)); // shared, not owned
+    }
+
+    @Test
+    void testTreeGrowsByTheSameAmountPerElement() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        long empty = ObjectSizer.deepSizeOf(tree);
+        tree.insert(1_000);
+        long perElement = ObjectSizer.deepSizeOf(tree) - empty;
+        // the node and the boxed key
+        assertTrue(perElement > ObjectSizer.shallowSizeOf(1_000), "" + perElement);
+
+        for (int i = 1; i < 1_000; i++) tree.insert(1_000 + i);
+        assertEquals(empty + 1_000 * perElement, ObjectSizer.deepSizeOf(tree));
+    }
+
+    @Test
+    void testBenchmarkerMemoryMeasurements() {
+        Integer[][] datasets = new Integer[2][];
+        datasets[0] = new Integer[] {1_000, 2_000, 3_000, 2_000}; // a duplicate adds nothing
+        datasets[1] = new Integer[100];
+        for (int i = 0; i < datasets[1].length; i++) datasets[1][i] = 10_000 + i;
+
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        Benchmarker<Integer> benchmarker = new Benchmarker<Integer>(tree);
+        long empty = ObjectSizer.deepSizeOf(tree);
+        long[] bytesPerElement = benchmarker.benchmarkBytesPerElement(datasets);
+        assertEquals(bytesPerElement[0], bytesPerElement[1]);
+        long[] retained = benchmarker.benchmarkRetainedSize(datasets);
+        assertEquals(empty + 3 * bytesPerElement[0], retained[0]);
+        assertEquals(empty + 100 * bytesPerElement[1], retained[1]);
+        // the inserts are undone
+        assertEquals(0, tree.size());
+        assertEquals(empty, ObjectSizer.deepSizeOf(tree));
+
+        // a hash table retains at least its keys and a slot for each
+        Benchmarker<Integer> hashTable = new Benchmarker<Integer>(new HashTable<Integer, Integer>(CollisionBehavior.QuadraticProbing, x -> x));
+        long minimum = 100 * (ObjectSizer.shallowSizeOf(10_000) + ObjectSizer.referenceSize());
+        assertTrue(hashTable.benchmarkRetainedSize(datasets)[1] > minimum);
+    }
+}
@@ -0,0 +1,67 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.PGMIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPGMIndex {
+
+    @Test
+    void testLowerBoundMatchesBinarySearch() {
+        Random random = new Random(7);
+        for (int epsilon : new int[] {1, 4, 64}) {
+            // gaps of varying scale, so the keys need many segments and several levels
+            int[] keys = new int[50_000];
+            int key = Integer.MIN_VALUE / 2;
+            for (int i = 0; i < keys.length; i++) {
+                key += 1 + random.nextInt(i % 1_000 < 500 ? 3 : 5_000);
+                keys[i] = key;
+            }
+            PGMIndex index = new PGMIndex(keys, epsilon);
+
+            for (int i = 0; i < 200_000; i++) {
+                int probe = keys[0] - 10 + (int) ((random.nextDouble() * ((double) keys[keys.length - 1] - keys[0] + 20)));
+                int expected = Arrays.binarySearch(keys, probe);
+                if (expected < 0) expected = -expected - 1;
+                assertEquals(expected, index.lowerBound(probe), "epsilon = " + epsilon + ", key = " + probe);
+            }
+            for (int k : keys) assertTrue(index.contains(k));
+        }
+    }
+
+    @Test
+    void testSmallAndEmptyInputs() {
+        PGMIndex empty = new PGMIndex(new int[0]);
+        assertFalse(empty.contains(1));
+        assertEquals(0, empty.lowerBound(1));
+
+        PGMIndex single = new PGMIndex(new int[] {5});
+        assertTrue(single.contains(5));
+        assertFalse(single.contains(4));
+        assertEquals(1, single.lowerBound(6));
+        assertEquals(1, single.segmentCount());
+    }
+
+    @Test
+    void testBuildFromTree() {
+        AVLTree<Integer> tree = new AVLTree<Integer>();
+        for (int i = 0; i < 1_000; i++) tree.insert(i * 3);
+        PGMIndex index = new PGMIndex(tree, 8);
+
+        assertEquals(1_000, index.size());
+        assertTrue(index.contains(2_997));
+        assertFalse(index.contains(2_998));
+        assertEquals(1, index.segmentCount()); // evenly spaced keys fit a single line
+    }
+
+    @Test
+    void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new PGMIndex(new int[] {1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new PGMIndex(new int[] {1, 2}, 0));
+    }
+}
@@ -0,0 +1,68 @@
+package UnitTests;
+
+import Main.PersistentAVLTree;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPersistentAVLTree {
+
+    @Test
+    void testInsertSearchDelete() {
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<Integer>();
+        assertTrue(tree.insert(10));
+        assertTrue(tree.insert(5));
+        assertFalse(tree.insert(10)); // duplicates are ignored
+
+        assertEquals(10, tree.search(10));
+        assertEquals(5, tree.delete(5));
+        assertNull(tree.delete(5));
+        assertNull(tree.search(5));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByLaterWrites() {
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<Integer>();
+        for (int i = 1; i <= 100; i++) tree.insert(i);
+
+        PersistentAVLTree.Snapshot<Integer> snapshot = tree.snapshot();
+        for (int i = 1; i <= 50; i++) tree.delete(i);
+        tree.insert(1000);
+
+        assertEquals(100, snapshot.size());
+        assertEquals(25, snapshot.search(25));
+        assertNull(snapshot.search(1000));
+        assertEquals(51, tree.size());
+        assertNull(tree.search(25));
+    }
+
+    @Test
+    void testSnapshotRangeIterator() {
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<Integer>();
+        for (int i = 100; i >= 1; i--) tree.insert(i);
+
+        StringBuilder sb = new StringBuilder();
+        java.util.Iterator<Integer> it = tree.snapshot().iterator(10, 15);
+        while (it.hasNext()) sb.append(it.next()).append(' ');
+        assertEquals("10 11 12 13 14 ", sb.toString());
+    }
+
+    @Test
+    void testConcurrentReadersSeeConsistentSnapshots() throws InterruptedException {
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<Integer>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) tree.insert(i);
+        });
+        writer.start();
+
+        // every snapshot must be a sorted prefix 0..size-1 of what the writer inserts
+        while (writer.isAlive()) {
+            PersistentAVLTree.Snapshot<Integer> snapshot = tree.snapshot();
+            int expected = 0;
+            for (int value : snapshot) assertEquals(expected++, value);
+            assertEquals(snapshot.size(), expected);
+        }
+        writer.join();
+        assertEquals(20_000, tree.size());
+    }
+}
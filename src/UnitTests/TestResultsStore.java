@@ -0,0 +1,80 @@
+package UnitTests;
+
+import Main.CompareResults;
+import Main.CompareResults.Comparison;
+import Main.CompareResults.Verdict;
+import Main.ResultsStore;
+import Main.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestResultsStore {
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        ResultsStore store = new ResultsStore(Map.of("trials", "3"));
+        store.add("Insertion \"Time\", in ns", "AVL Tree", "1,000 Elements", new Statistics(new long[] {10, 12, 11}, 5));
+        store.add("Insertion \"Time\", in ns", "Splay Tree", "1,000 Elements", new Statistics(new long[] {7}, 1));
+
+        File file = File.createTempFile("results", ".csv");
+        try {
+            store.save(file);
+            ResultsStore loaded = ResultsStore.load(file);
+
+            assertEquals(store.metadata(), loaded.metadata());
+            assertEquals("3", loaded.metadata().get("trials"));
+            assertNotNull(loaded.metadata().get("java.version"));
+            assertEquals(2, loaded.results().size());
+
+            ResultsStore.Result avl = loaded.find("Insertion \"Time\", in ns / AVL Tree / 1,000 Elements");
+            assertNotNull(avl);
+            assertArrayEquals(new long[] {10, 11, 12}, avl.statistics.samples());
+            assertEquals(5, avl.statistics.operationsPerSample());
+            assertNull(loaded.find("Insertion / AVL Tree / 1,000 Elements"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testCompare() {
+        ResultsStore baseline = new ResultsStore(Map.of());
+        baseline.add("Table", "Slower", "n", new Statistics(new long[] {100, 101, 99, 100, 100}, 1));
+        baseline.add("Table", "Faster", "n", new Statistics(new long[] {100, 101, 99, 100, 100}, 1));
+        baseline.add("Table", "Noisy", "n", new Statistics(new long[] {50, 150, 100, 60, 140}, 1));
+        baseline.add("Table", "Slightly Slower", "n", new Statistics(new long[] {100, 101, 99, 100, 100}, 1));
+        baseline.add("Table", "Single", "n", new Statistics(new long[] {100}, 1));
+
+        ResultsStore current = new ResultsStore(Map.of());
+        current.add("Table", "Slower", "n", new Statistics(new long[] {120, 121, 119, 120, 120}, 1));
+        current.add("Table", "Faster", "n", new Statistics(new long[] {80, 81, 79, 80, 80}, 1));
+        current.add("Table", "Noisy", "n", new Statistics(new long[] {60, 170, 110, 70, 150}, 1));
+        current.add("Table", "Slightly Slower", "n", new Statistics(new long[] {102, 103, 101, 102, 102}, 1));
+        current.add("Table", "Single", "n", new Statistics(new long[] {200}, 1));
+        current.add("Table", "New", "n", new Statistics(new long[] {1, 2}, 1));
+
+        List<Comparison> comparisons = CompareResults.compare(baseline, current, CompareResults.DEFAULT_THRESHOLD_PERCENT);
+        assertEquals(5, comparisons.size()); // the new result has nothing to compare against
+        assertEquals(Verdict.Regressed, comparisons.get(0).verdict);
+        assertEquals(20, comparisons.get(0).changePercent(), 1e-9);
+        assertEquals(Verdict.Improved, comparisons.get(1).verdict);
+        assertEquals(Verdict.Unchanged, comparisons.get(2).verdict); // within the noise
+        assertEquals(Verdict.Unchanged, comparisons.get(3).verdict); // significant, but within the threshold
+        assertEquals(Verdict.Untested, comparisons.get(4).verdict);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(CompareResults.report(baseline, current, comparisons, 5, new PrintStream(output)));
+        assertTrue(output.toString().contains("FAILED"));
+
+        List<Comparison> unchanged = CompareResults.compare(baseline, baseline, CompareResults.DEFAULT_THRESHOLD_PERCENT);
+        assertFalse(CompareResults.report(baseline, baseline, unchanged, 5, new PrintStream(new ByteArrayOutputStream())));
+    }
+}
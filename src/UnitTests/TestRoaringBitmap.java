@@ -0,0 +1,108 @@
+package UnitTests;
+
+import Main.RoaringBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRoaringBitmap {
+
+    @Test
+    void testInsertSearchDelete() {
+        RoaringBitmap set = new RoaringBitmap();
+        assertTrue(set.insert(5));
+        assertTrue(set.insert(70_000)); // a second chunk
+        assertFalse(set.insert(5));
+        assertEquals(5, set.search(5));
+        assertNull(set.search(6));
+        assertEquals(70_000, set.delete(70_000));
+        assertNull(set.delete(70_000));
+        assertNull(set.search(70_000));
+        assertEquals(1, set.cardinality());
+    }
+
+    @Test
+    void testContainerConversions() {
+        RoaringBitmap set = new RoaringBitmap();
+        for (int i = 0; i < 10_000; i++) set.add(i * 3); // crosses from an array into a bitmap container
+        assertEquals(10_000, set.cardinality());
+        assertTrue(set.contains(29_997));
+        assertFalse(set.contains(29_998));
+
+        for (int i = 0; i < 10_000; i += 2) set.remove(i * 3); // back below the array limit
+        assertEquals(5_000, set.cardinality());
+        assertTrue(set.contains(3));
+        assertFalse(set.contains(0));
+
+        RoaringBitmap dense = new RoaringBitmap();
+        for (int i = 1; i <= 500_000; i++) dense.add(i);
+        long before = dense.sizeInBytes();
+        dense.runOptimize(); // one run per chunk
+        assertTrue(dense.sizeInBytes() < before / 100);
+        assertTrue(dense.contains(1) && dense.contains(500_000) && !dense.contains(0) && !dense.contains(500_001));
+
+        dense.remove(250_000); // splits a run
+        dense.add(500_001); // extends a run
+        assertFalse(dense.contains(250_000));
+        assertTrue(dense.contains(500_001));
+        assertEquals(500_000, dense.cardinality());
+    }
+
+    @Test
+    void testIteratorIsSortedUnsigned() {
+        RoaringBitmap set = new RoaringBitmap();
+        int[] values = {-1, 70_000, 3, 65_535, 65_536, Integer.MIN_VALUE};
+        for (int value : values) set.add(value);
+
+        int[] expected = {3, 65_535, 65_536, 70_000, Integer.MIN_VALUE, -1};
+        Iterator<Integer> iterator = set.iterator();
+        for (int value : expected) assertEquals(value, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testSetOperationsMatchTreeSet() {
+        Random random = new Random(42);
+        RoaringBitmap first = new RoaringBitmap(), second = new RoaringBitmap();
+        TreeSet<Integer> firstExpected = new TreeSet<>(), secondExpected = new TreeSet<>();
+        // a sparse chunk, a dense chunk and a run chunk in each set
+        for (int i = 0; i < 20_000; i++) {
+            int sparse = random.nextInt(1 << 20), dense = (1 << 20) + random.nextInt(1 << 14);
+            first.add(sparse);
+            firstExpected.add(sparse);
+            second.add(dense);
+            secondExpected.add(dense);
+            int shared = (2 << 20) + random.nextInt(1 << 15);
+            (i % 2 == 0 ? first : second).add(shared);
+            (i % 2 == 0 ? firstExpected : secondExpected).add(shared);
+        }
+        for (int i = 3 << 20; i < (3 << 20) + 50_000; i++) {
+            first.add(i);
+            firstExpected.add(i);
+        }
+        first.runOptimize();
+
+        TreeSet<Integer> and = new TreeSet<>(firstExpected);
+        and.retainAll(secondExpected);
+        TreeSet<Integer> or = new TreeSet<>(firstExpected);
+        or.addAll(secondExpected);
+        TreeSet<Integer> andNot = new TreeSet<>(firstExpected);
+        andNot.removeAll(secondExpected);
+
+        assertMatches(and, RoaringBitmap.and(first, second));
+        assertMatches(or, RoaringBitmap.or(first, second));
+        assertMatches(andNot, RoaringBitmap.andNot(first, second));
+        assertMatches(firstExpected, first); // inputs are not modified
+    }
+
+    private static void assertMatches(TreeSet<Integer> expected, RoaringBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        Iterator<Integer> iterator = actual.iterator();
+        for (int value : expected) assertEquals(value, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+}
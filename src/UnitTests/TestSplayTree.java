@@ -1,6 +1,7 @@
 package UnitTests;
 
 import Main.SplayTree;
+import Main.SplayTree.SplayMode;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,4 +141,198 @@ class TestSplayTree {
         assertEquals(30, tree.search(30));
         assertEquals("10 20 30 ", captureInOrder(tree));
     }
+
+    @Test
+    void testNavigationQueries() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 10; i <= 50; i += 10) tree.insert(i);
+
+        assertEquals(10, tree.first());
+        assertEquals(50, tree.last());
+        assertEquals(20, tree.floor(25));
+        assertEquals(10, tree.lower(20));
+        assertEquals(30, tree.ceiling(25));
+        assertEquals(30, tree.higher(20));
+        assertNull(tree.higher(50));
+        assertEquals("10 20 30 40 50 ", captureInOrder(tree));
+    }
+
+    @Test
+    void testRangeIteratorDoesNotSplay() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 1; i <= 100; i++) tree.insert(i); // sequential inserts leave a left path
+
+        StringBuilder sb = new StringBuilder();
+        java.util.Iterator<Integer> it = tree.iterator(90, null);
+        while (it.hasNext()) sb.append(it.next()).append(' '); // would throw if a step restructured the tree
+        assertEquals("90 91 92 93 94 95 96 97 98 99 100 ", sb.toString());
+    }
+
+    @Test
+    void testSortedInsertsDoNotOverflowTheStack() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 0; i < 1_000_000; i++) tree.insert(i); // sequential inserts leave a path of a million nodes
+
+        assertEquals(0, tree.search(0)); // splaying the bottom of the path must not recurse
+        assertEquals(999_999, tree.delete(999_999));
+        assertNull(tree.search(999_999));
+        assertEquals(500_000, tree.search(500_000));
+    }
+
+    @Test
+    void testEverySplayModeFindsTheSameKeys() {
+        for (SplayMode mode : SplayMode.values()) {
+            SplayTree<Integer> tree = new SplayTree<Integer>(mode, 2, 0.5);
+            for (int i = 0; i < 1_000; i++) tree.insert((i * 7919) % 1_000); // a scrambled order
+
+            for (int i = 0; i < 1_000; i++) assertEquals(i, tree.search(i), mode + ", key " + i);
+            assertNull(tree.search(1_000), mode.toString());
+            assertEquals(500, tree.delete(500), mode.toString());
+            assertNull(tree.search(500), mode.toString());
+            assertEquals(499, tree.floor(500), mode.toString());
+        }
+    }
+
+    @Test
+    void testSemiSplayRotatesLessThanFullSplay() {
+        SplayTree<Integer> full = new SplayTree<Integer>(SplayMode.Full);
+        SplayTree<Integer> semi = new SplayTree<Integer>(SplayMode.Semi);
+        for (int i = 0; i < 1_000; i++) {
+            full.insert(i);
+            semi.insert(i);
+        }
+
+        long fullBefore = full.rotationCount(), semiBefore = semi.rotationCount();
+        full.search(0); // the bottom of a 1,000-node path
+        semi.search(0);
+        assertEquals(999, full.rotationCount() - fullBefore);
+        assertEquals(499, semi.rotationCount() - semiBefore); // one rotation per zig-zig step of two levels
+        assertEquals("0 1 2 3 4 5 6 7 8 9 ", captureInOrder(semi).substring(0, 20));
+    }
+
+    @Test
+    void testDepthThresholdLeavesShallowNodesAlone() {
+        SplayTree<Integer> tree = new SplayTree<Integer>(SplayMode.DepthThreshold, 5, 0);
+        for (int i = 0; i < 100; i++) tree.insert(i); // a left path with 99 at the root
+
+        long before = tree.rotationCount();
+        java.util.Iterator<Integer> it = tree.iterator();
+        assertEquals(95, tree.search(95)); // depth 4: no restructuring, so the iterator stays valid
+        assertEquals(before, tree.rotationCount());
+        assertEquals(0, it.next());
+
+        assertEquals(0, tree.search(0)); // depth 99: splayed
+        assertTrue(tree.rotationCount() > before);
+    }
+
+    @Test
+    void testSplitAndJoin() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 1; i <= 10; i++) tree.insert(i);
+
+        SplayTree.Split<Integer> parts = tree.split(4);
+        assertEquals("1 2 3 ", captureInOrder(parts.left));
+        assertEquals(4, parts.match);
+        assertEquals("5 6 7 8 9 10 ", captureInOrder(parts.right));
+        assertNull(tree.search(1)); // the split moved every node out
+
+        SplayTree.Split<Integer> missing = parts.right.split(0);
+        assertNull(missing.match);
+        assertNull(missing.left.search(5));
+
+        SplayTree<Integer> joined = SplayTree.join(parts.left, missing.right);
+        assertEquals("1 2 3 5 6 7 8 9 10 ", captureInOrder(joined));
+        assertNull(parts.left.search(1)); // the inputs are left empty
+
+        SplayTree<Integer> overlapping = new SplayTree<Integer>();
+        overlapping.insert(6);
+        assertThrows(IllegalArgumentException.class, () -> SplayTree.join(joined, overlapping));
+        assertEquals(6, joined.search(6)); // a failed join leaves both trees intact
+        assertEquals(6, overlapping.search(6));
+    }
+
+    @Test
+    void testExtractAndDeleteRange() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 0; i < 20; i++) tree.insert(i);
+
+        SplayTree<Integer> extracted = tree.extractRange(5, 10);
+        assertEquals("5 6 7 8 9 ", captureInOrder(extracted));
+        assertNull(tree.search(5));
+        assertEquals(10, tree.search(10));
+
+        tree.deleteRange(-5, 3);
+        tree.deleteRange(15, 100);
+        tree.deleteRange(12, 12); // an empty range
+        assertEquals("3 4 10 11 12 13 14 ", captureInOrder(tree));
+    }
+
+    @Test
+    void testDeleteRangeOfAMillionKeys() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 0; i < 1_100_000; i++) tree.insert(i);
+
+        tree.deleteRange(50_000, 1_050_000);
+        assertEquals(49_999, tree.search(49_999));
+        assertNull(tree.search(50_000));
+        assertNull(tree.search(1_049_999));
+        assertEquals(1_050_000, tree.search(1_050_000));
+    }
+
+    /** A key that counts how often it is compared. */
+    private static final class CountedKey implements Comparable<CountedKey> {
+        static long comparisons;
+        final int value;
+
+        CountedKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(CountedKey other) {
+            comparisons++;
+            return Integer.compare(value, other.value);
+        }
+    }
+
+    @Test
+    void testRebuildOptimalSearchesWithoutSplaying() {
+        SplayTree<Integer> tree = new SplayTree<Integer>();
+        for (int i = 0; i < 1000; i++) tree.insert(i); // a left path
+        tree.rebuildOptimal(); // no counts yet: a perfectly balanced tree
+
+        long before = tree.rotationCount();
+        java.util.Iterator<Integer> it = tree.iterator();
+        for (int i = 0; i < 1000; i++) assertEquals(i, tree.search(i));
+        assertNull(tree.search(1000));
+        assertEquals(before, tree.rotationCount());
+        assertEquals(0, it.next()); // the iterator survives searches of a rebuilt tree
+
+        tree.insert(1000); // modifying the tree resumes splaying
+        assertEquals(0, tree.search(0));
+        assertTrue(tree.rotationCount() > before);
+        assertEquals(1000, tree.search(1000));
+    }
+
+    @Test
+    void testRebuildOptimalPutsTheHottestKeyAtTheRoot() {
+        SplayTree<CountedKey> tree = new SplayTree<CountedKey>();
+        CountedKey[] keys = new CountedKey[100];
+        for (int i = 0; i < 100; i++) tree.insert(keys[i] = new CountedKey(i));
+
+        tree.setAccessCounting(true);
+        for (int i = 0; i < 1000; i++) tree.search(keys[17]);
+        for (int i = 0; i < 100; i++) tree.search(keys[i]);
+        tree.setAccessCounting(false);
+        tree.rebuildOptimal();
+
+        CountedKey.comparisons = 0;
+        assertSame(keys[17], tree.search(new CountedKey(17)));
+        assertEquals(1, CountedKey.comparisons);
+
+        // every other key lies in a balanced tree of 99 light nodes below it
+        CountedKey.comparisons = 0;
+        for (int i = 0; i < 100; i++) assertSame(keys[i], tree.search(new CountedKey(i)));
+        assertTrue(CountedKey.comparisons <= 100 * 9, "comparisons: " + CountedKey.comparisons);
+    }
 }
@@ -0,0 +1,67 @@
+package UnitTests;
+
+import Main.Statistics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestStatistics {
+
+    @Test
+    void testSummaryOfSamples() {
+        Statistics statistics = new Statistics(new long[] {5, 1, 4, 2, 3}, 1_000);
+        assertEquals(5, statistics.count());
+        assertEquals(3.0, statistics.mean(), 1e-9);
+        assertEquals(3.0, statistics.median(), 1e-9);
+        assertEquals(Math.sqrt(2.5), statistics.standardDeviation(), 1e-9);
+        assertEquals(1, statistics.min());
+        assertEquals(5, statistics.max());
+        assertArrayEquals(new long[] {1, 2, 3, 4, 5}, statistics.samples());
+
+        // t(0.975, 4) = 2.776
+        assertEquals(2.776 * Math.sqrt(2.5) / Math.sqrt(5), statistics.confidenceInterval95(), 1e-9);
+        // 1,000 operations in a mean of 3 ns
+        assertEquals(1_000 * 1e9 / 3, statistics.opsPerSecond(), 1e-3);
+    }
+
+    @Test
+    void testEvenCountMedianAndSingleSample() {
+        assertEquals(2.5, new Statistics(new long[] {4, 1, 3, 2}).median(), 1e-9);
+
+        Statistics single = new Statistics(new long[] {7});
+        assertEquals(0, single.standardDeviation());
+        assertEquals(0, single.confidenceInterval95());
+        assertThrows(IllegalArgumentException.class, () -> new Statistics(new long[0]));
+    }
+
+    @Test
+    void testConfidenceIntervalNarrowsWithMoreSamples() {
+        long[] few = new long[10], many = new long[1_000];
+        for (int i = 0; i < few.length; i++) few[i] = i % 2 == 0 ? 90 : 110;
+        for (int i = 0; i < many.length; i++) many[i] = i % 2 == 0 ? 90 : 110;
+        Statistics fewStatistics = new Statistics(few), manyStatistics = new Statistics(many);
+        assertEquals(100, manyStatistics.mean(), 1e-9);
+        assertTrue(manyStatistics.confidenceInterval95() < fewStatistics.confidenceInterval95() / 5);
+        // with 999 degrees of freedom the t value is nearly the normal 1.96
+        assertEquals(1.962 * manyStatistics.standardDeviation() / Math.sqrt(1_000), manyStatistics.confidenceInterval95(), 1e-2);
+    }
+
+    @Test
+    void testWelchTTest() {
+        Statistics first = new Statistics(new long[] {10, 12, 14, 16, 18}); // mean 14, variance 10
+        Statistics second = new Statistics(new long[] {20, 21, 22, 23, 24}); // mean 22, variance 2.5
+        assertEquals(-8 / Math.sqrt(2.5), Statistics.welchT(first, second), 1e-9);
+        assertEquals(6.25 / 1.0625, Statistics.welchDegreesOfFreedom(first, second), 1e-9);
+        assertTrue(Statistics.differSignificantly(first, second));
+
+        // overlapping samples do not differ significantly
+        Statistics noisy = new Statistics(new long[] {8, 20, 11, 17, 15});
+        assertFalse(Statistics.differSignificantly(first, noisy));
+        assertFalse(Statistics.differSignificantly(first, new Statistics(new long[] {100})));
+
+        // without any variance, any difference is significant
+        Statistics constant = new Statistics(new long[] {5, 5, 5});
+        assertTrue(Statistics.differSignificantly(constant, new Statistics(new long[] {6, 6, 6})));
+        assertFalse(Statistics.differSignificantly(constant, new Statistics(new long[] {5, 5})));
+        assertEquals(3, Statistics.welchDegreesOfFreedom(constant, new Statistics(new long[] {5, 5})), 1e-9);
+    }
+}
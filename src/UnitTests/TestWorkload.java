@@ -0,0 +1,179 @@
+package UnitTests;
+
+import Main.AVLTree;
+import Main.BaseOperations;
+import Main.HashTable;
+import Main.Workload;
+import Main.Workload.KeyDistribution;
+import Main.Workload.Operation;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestWorkload {
+
+    private static Workload<Integer> workload(int initialKeys, int operations, int reads, int inserts, KeyDistribution distribution, long seed) {
+        return new Workload<Integer>(initialKeys, operations, reads, inserts, distribution, seed, Integer::valueOf);
+    }
+
+    @Test
+    void testSameSeedGivesSameWorkload() {
+        for (KeyDistribution distribution : KeyDistribution.values()) {
+            Workload<Integer> first = workload(100, 1_000, 50, 25, distribution, 7);
+            Workload<Integer> second = workload(100, 1_000, 50, 25, distribution, 7);
+            for (int i = 0; i < first.size(); i++) {
+                assertEquals(first.operation(i), second.operation(i));
+                assertEquals(first.key(i), second.key(i));
+            }
+        }
+
+        Workload<Integer> first = workload(100, 1_000, 50, 25, KeyDistribution.Uniform, 7);
+        Workload<Integer> other = workload(100, 1_000, 50, 25, KeyDistribution.Uniform, 8);
+        boolean differs = false;
+        for (int i = 0; i < first.size(); i++) differs |= !first.key(i).equals(other.key(i));
+        assertTrue(differs);
+    }
+
+    @Test
+    void testOperationMix() {
+        Workload<Integer> workload = workload(1_000, 100_000, 70, 20, KeyDistribution.Uniform, 1);
+        int[] counts = new int[Operation.values().length];
+        for (int i = 0; i < workload.size(); i++) counts[workload.operation(i).ordinal()]++;
+        assertEquals(70_000, counts[Operation.Search.ordinal()], 1_000);
+        assertEquals(20_000, counts[Operation.Insert.ordinal()], 1_000);
+        assertEquals(10_000, counts[Operation.Delete.ordinal()], 1_000);
+    }
+
+    @Test
+    void testSequentialAndReverseSortedOrders() {
+        Workload<Integer> sequential = workload(10, 25, 100, 0, KeyDistribution.Sequential, 1);
+        for (int i = 0; i < sequential.size(); i++) assertEquals(i % 10, sequential.key(i));
+
+        Workload<Integer> reverse = workload(10, 25, 100, 0, KeyDistribution.ReverseSorted, 1);
+        for (int i = 1; i < 10; i++) assertTrue(reverse.key(i) < reverse.key(i - 1));
+
+        // inserts always add new keys beyond the current ends
+        Workload<Integer> appending = workload(10, 5, 0, 100, KeyDistribution.Sequential, 1);
+        for (int i = 0; i < appending.size(); i++) {
+            assertEquals(Operation.Insert, appending.operation(i));
+            assertEquals(10 + i, appending.key(i));
+        }
+    }
+
+    @Test
+    void testSkewedDistributions() {
+        Workload<Integer> zipfian = workload(10_000, 50_000, 100, 0, KeyDistribution.Zipfian, 1);
+        Workload<Integer> uniform = workload(10_000, 50_000, 100, 0, KeyDistribution.Uniform, 1);
+        assertTrue(mostFrequentKeyCount(zipfian) > 2_500, "" + mostFrequentKeyCount(zipfian)); // about 1 in 10 searches
+        assertTrue(mostFrequentKeyCount(uniform) < 50);
+
+        // most searches in a Latest workload hit one of the last thousand keys inserted
+        Workload<Integer> latest = workload(10_000, 10_000, 90, 10, KeyDistribution.Latest, 1);
+        ModelSet loaded = new ModelSet();
+        latest.load(loaded);
+        java.util.HashMap<Integer, Integer> insertPosition = new java.util.HashMap<>();
+        for (Integer key : loaded.insertionOrder) insertPosition.put(key, insertPosition.size());
+        int recent = 0, searches = 0;
+        for (int i = 0; i < latest.size(); i++) {
+            if (latest.operation(i) == Operation.Insert) {
+                insertPosition.put(latest.key(i), insertPosition.size());
+            } else if (latest.operation(i) == Operation.Search) {
+                searches++;
+                if (insertPosition.size() - insertPosition.get(latest.key(i)) <= 1_000) recent++;
+            }
+        }
+        assertTrue(recent > searches / 2, recent + " of " + searches);
+    }
+
+    @Test
+    void testHashCollidingKeysShareABucket() {
+        Workload<Integer> workload = workload(1_000, 1_000, 50, 50, KeyDistribution.HashColliding, 1);
+        int inserts = 0;
+        for (int i = 0; i < workload.size(); i++) if (workload.operation(i) == Operation.Insert) inserts++;
+        int capacity = HashTable.capacityAfter(1_000 + inserts);
+        for (int i = 0; i < workload.size(); i++) assertEquals(0, workload.key(i) % capacity);
+    }
+
+    @Test
+    void testHashCollidingReplaysIntoHashTables() {
+        int[][] mixes = new int[][] {{95, 5}, {50, 25}};
+        int[][] sizes = new int[][] {{500, 1_000}, {1_000, 5_000}, {5_000, 20_000}}; // the last as in WorkloadBenchmark
+        for (HashTable.CollisionBehavior behavior : HashTable.CollisionBehavior.values()) {
+            if (behavior == HashTable.CollisionBehavior.Abort) continue; // drops every colliding key by design
+            for (int[] mix : mixes) {
+                for (int[] size : sizes) {
+                    Workload<Integer> workload = workload(size[0], size[1], mix[0], mix[1], KeyDistribution.HashColliding, 1);
+                    HashTable<Integer, Integer> table = new HashTable<Integer, Integer>(behavior, x -> x);
+                    ModelSet model = new ModelSet();
+                    workload.load(table);
+                    workload.load(model);
+                    for (int i = 0; i < workload.size(); i++) {
+                        Integer key = workload.key(i);
+                        switch (workload.operation(i)) {
+                            case Insert: assertEquals(model.insert(key), table.insert(key)); break;
+                            case Search: assertEquals(model.search(key), table.search(key)); break;
+                            case Delete: assertEquals(model.delete(key), table.delete(key)); break;
+                        }
+                    }
+                    for (Integer key : model.keys) assertEquals(key, table.search(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReplayMatchesAModelAndUnloadRestores() {
+        for (KeyDistribution distribution : KeyDistribution.values()) {
+            Workload<Integer> workload = workload(500, 5_000, 40, 30, distribution, 3);
+            AVLTree<Integer> tree = new AVLTree<Integer>();
+            ModelSet model = new ModelSet();
+            tree.insert(Integer.MIN_VALUE + 1); // a key the workload never uses
+            model.insert(Integer.MIN_VALUE + 1);
+
+            workload.load(tree);
+            workload.load(model);
+            for (int i = 0; i < workload.size(); i++) {
+                Integer key = workload.key(i);
+                switch (workload.operation(i)) {
+                    case Insert: assertEquals(model.insert(key), tree.insert(key)); break;
+                    case Search: assertEquals(model.search(key), tree.search(key)); break;
+                    case Delete:
+                        model.delete(key);
+                        tree.delete(key); // AVLTree.delete returns its argument whether or not it was present
+                        assertNull(tree.search(key));
+                        break;
+                }
+            }
+            assertEquals(model.keys.size(), tree.size());
+
+            workload.unload(tree);
+            assertEquals(1, tree.size());
+            assertEquals(Integer.MIN_VALUE + 1, tree.search(Integer.MIN_VALUE + 1));
+        }
+    }
+
+    /** A set backed by a TreeSet that also records the order of its inserts. */
+    private static final class ModelSet implements BaseOperations<Integer> {
+        final java.util.TreeSet<Integer> keys = new java.util.TreeSet<>();
+        final java.util.ArrayList<Integer> insertionOrder = new java.util.ArrayList<>();
+
+        public boolean insert(Integer element) {
+            insertionOrder.add(element);
+            return keys.add(element);
+        }
+
+        public Integer delete(Integer element) {
+            return keys.remove(element) ? element : null;
+        }
+
+        public Integer search(Integer element) {
+            return keys.contains(element) ? element : null;
+        }
+    }
+
+    private static int mostFrequentKeyCount(Workload<Integer> workload) {
+        java.util.HashMap<Integer, Integer> counts = new java.util.HashMap<>();
+        int most = 0;
+        for (int i = 0; i < workload.size(); i++) most = Math.max(most, counts.merge(workload.key(i), 1, Integer::sum));
+        return most;
+    }
+}